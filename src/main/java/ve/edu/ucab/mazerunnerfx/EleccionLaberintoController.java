@@ -10,7 +10,10 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 import java.io.IOException;
+import ve.edu.ucab.mazerunnerfx.models.Dificultad;
+import ve.edu.ucab.mazerunnerfx.models.GameRandom;
 import ve.edu.ucab.mazerunnerfx.models.Laberinto;
+import ve.edu.ucab.mazerunnerfx.models.MazePool;
 import ve.edu.ucab.mazerunnerfx.models.Jugador;
 import ve.edu.ucab.mazerunnerfx.models.AESCifrado;
 import java.io.File;
@@ -53,28 +56,28 @@ public class EleccionLaberintoController {
         startGameWithUI("Avanzado", event);
     }
 
+    @FXML
+    protected void onInfinito(ActionEvent event) {
+        startGameWithUI("Infinito", event);
+    }
+
+    @FXML
+    protected void onMundo(ActionEvent event) {
+        startGameWithUI("Mundo", event);
+    }
+
     private void startGameWithUI(String nivel, ActionEvent event) {
-        // compute random dimensions and create Laberinto and Jugador
-        int minX, maxX, minY, maxY;
-        switch (nivel) {
-            case "Fácil" -> { minX = 5; minY = 10; maxX = 15; maxY = 25; }
-            case "Intermedio" -> { minX = 16; minY = 26; maxX = 25; maxY = 35; }
-            case "Difícil" -> { minX = 26; minY = 36; maxX = 45; maxY = 65; }
-            case "Avanzado" -> { minX = 46; minY = 66; maxX = 75; maxY = 100; }
-            default -> { minX = 10; minY = 10; maxX = 12; maxY = 12; }
+        Laberinto lab;
+        Dificultad dificultad = Dificultad.desdeNombre(nivel);
+        if (dificultad != null) {
+            // fixed-size tiers come ready from the background pool (generated, populated and measured)
+            lab = MazePool.compartido().tomar(dificultad);
+        } else {
+            // endless: fixed width and a window of rows that scrolls as the player descends;
+            // world: unbounded chunked maze, x/y are just the size of the view around the player
+            long semilla = GameRandom.nuevaSemilla();
+            lab = "Infinito".equals(nivel) ? Laberinto.infinito(20, 30, semilla) : Laberinto.mundo(31, 21, semilla);
         }
-        int x, y;
-        do { x = randomBetween(minX, maxX); y = randomBetween(minY, maxY); } while (x == y);
-
-        // determine explosive wall count per difficulty
-        int explosiveCount = switch (nivel) {
-            case "Fácil" -> 5;
-            case "Intermedio" -> 15;
-            case "Difícil" -> 20;
-            case "Avanzado" -> 25;
-            default -> -1;
-        };
-        Laberinto lab = new Laberinto(x, y, explosiveCount);
         String correo = (usuarioCorreo != null && !usuarioCorreo.isEmpty()) ? usuarioCorreo : "player@example.com";
         String password = getPasswordForEmail(correo);
         Jugador jugador = new Jugador(correo, password);
@@ -93,6 +96,8 @@ public class EleccionLaberintoController {
                 case "Intermedio" -> { desiredW = 1024; desiredH = 768; }
                 case "Difícil" -> { desiredW = 1280; desiredH = 800; }
                 case "Avanzado" -> { desiredW = 1600; desiredH = 1000; }
+                case "Infinito" -> { desiredW = 800; desiredH = 900; }
+                case "Mundo" -> { desiredW = 1024; desiredH = 768; }
                 default -> { desiredW = 900; desiredH = 600; }
             }
             // clamp to available screen bounds with small margin
@@ -106,10 +111,8 @@ public class EleccionLaberintoController {
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             stage.setScene(new Scene(root, desiredW, desiredH));
             stage.show();
-
-            Thread gameThread = new Thread(() -> lab.jugar(), "GameThread-" + nivel + "-" + x + "x" + y);
-            gameThread.setDaemon(true);
-            gameThread.start();
+            // the window drives the game (LaberintoController); the console loop Laberinto.jugar()
+            // is not started, it would compete for the model and its change listener
 
         } catch (IOException e) {
             Alert alert = new Alert(AlertType.ERROR);
@@ -119,11 +122,6 @@ public class EleccionLaberintoController {
         }
     }
 
-    private int randomBetween(int min, int max) {
-        if (min >= max) return min;
-        return min + (int) (Math.random() * (max - min + 1));
-    }
-
     private String getPasswordForEmail(String email) {
         if (email == null || email.isEmpty()) return "password";
         File f = new File(System.getProperty("user.dir"), "Registro-Login.txt");
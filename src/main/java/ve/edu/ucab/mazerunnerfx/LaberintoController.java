@@ -1,6 +1,7 @@
 package ve.edu.ucab.mazerunnerfx;
 
 import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
@@ -8,16 +9,19 @@ import javafx.fxml.FXML;
 import javafx.event.ActionEvent;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
-import ve.edu.ucab.mazerunnerfx.models.Entidad;
+import ve.edu.ucab.mazerunnerfx.models.ChangeSet;
+import ve.edu.ucab.mazerunnerfx.models.GameEvent;
 import ve.edu.ucab.mazerunnerfx.models.Laberinto;
+import ve.edu.ucab.mazerunnerfx.models.RealTimeLoop;
+import ve.edu.ucab.mazerunnerfx.models.ReplayLog;
 import ve.edu.ucab.mazerunnerfx.models.ControladorBD;
 
-import java.util.Set;
-
 /**
  * Controller for laberinto.fxml: renders the maze on a Canvas using model accessors.
  * Handles WASD input for the player and moves enemies after each player move.
@@ -39,20 +43,77 @@ public class LaberintoController {
     @FXML
     private Label healthLabel;
 
+    @FXML
+    private Label mensajeLabel;
+
+    @FXML
+    private ToggleButton tiempoRealBtn;
+
+    @FXML
+    private javafx.scene.control.Button deshacerBtn;
+
+    @FXML
+    private ToggleButton repeticionBtn;
+
+    @FXML
+    private ChoiceBox<String> velocidadBox;
+
     @FXML
     @SuppressWarnings("unused")
     private javafx.scene.control.Button regresar;
 
     private Laberinto laberinto;
 
+    // Path shown by the "Pista" button (flat cell indices); cleared when the player moves
+    private int[] pista = null;
+    // while active the hint follows the player, refreshed after every move
+    private boolean pistaActiva = false;
+
+    // Real-time mode: enemies move on their own thread at this rate and the canvas draws its snapshots
+    private static final int TICKS_POR_SEGUNDO = 4;
+    private RealTimeLoop tiempoReal = null;
+    private RealTimeLoop.Instantanea dibujada = null;
+    private final AnimationTimer dibujante = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            dibujarInstantanea();
+        }
+    };
+
+    // Keyboard turns are recorded (see ReplayLog) for undo and for the replay viewer, which plays the
+    // game from its start at a multiple of TICKS_POR_SEGUNDO turns per second and comes back to the
+    // turn it left. Real-time turns are not recorded: a new log starts when that mode ends.
+    private static final int VELOCIDAD_REPETICION = 100;
+    private ReplayLog registro = null;
+    // turn the viewer comes back to, -1 while not replaying
+    private int finRepeticion = -1;
+    private long inicioRepeticion = -1L;
+    private int velocidadRepeticion = VELOCIDAD_REPETICION;
+    private final AnimationTimer reproductor = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            avanzarRepeticion(now);
+        }
+    };
+
     private Timeline timeline;
     private long elapsedSeconds = 0;
 
     public void setLaberinto(Laberinto lab) {
+        detenerTiempoReal();
+        reproductor.stop();
+        finRepeticion = -1;
         this.laberinto = lab;
+        this.pista = null;
+        this.pistaActiva = false;
         if (this.laberinto != null && mazeCanvas != null) {
             // register listener to redraw when model calls display()
             this.laberinto.setDisplayListener(this::onDisplay);
+            // each turn repaints only the cells it changed
+            this.laberinto.setCambiosListener(this::onCambios);
+            // interactions go to the message label instead of the console
+            this.laberinto.setEventos(this::onEvento);
+            iniciarRegistro();
             setupInput();
             render();
             // ensure the canvas has focus so it can receive WASD/arrow keys
@@ -82,10 +143,25 @@ public class LaberintoController {
         Platform.runLater(this::render);
     }
 
+    private void onCambios(ChangeSet cambios) {
+        Platform.runLater(() -> renderCambios(cambios));
+    }
+
+    private void onEvento(GameEvent evento, int valor) {
+        // score and health already have their own labels
+        if (mensajeLabel == null || evento == GameEvent.PUNTOS || evento == GameEvent.VIDA_RECUPERADA) return;
+        String mensaje = evento.mensaje(valor);
+        // in real-time mode events come from the simulation thread
+        if (Platform.isFxApplicationThread()) mensajeLabel.setText(mensaje);
+        else Platform.runLater(() -> mensajeLabel.setText(mensaje));
+    }
+
     @FXML
     protected void onRegresar(ActionEvent event) {
         // stop timer and persist current lab state
         stopTimer();
+        detenerTiempoReal();
+        terminarRepeticion();
         if (laberinto != null) {
             try {
                 // ensure latest elapsed time is stored in model before saving
@@ -116,122 +192,257 @@ public class LaberintoController {
         }
     }
 
+    @FXML
+    protected void onPista(ActionEvent event) {
+        if (laberinto == null || finRepeticion >= 0) return;
+        pistaActiva = !pistaActiva;
+        if (tiempoReal != null) {
+            // computed on the simulation thread and drawn with its snapshots
+            tiempoReal.setPista(pistaActiva);
+            mazeCanvas.requestFocus();
+            return;
+        }
+        pista = pistaActiva ? laberinto.calcularPista() : null;
+        render();
+        // give the keyboard back to the maze
+        mazeCanvas.requestFocus();
+    }
+
+    @FXML
+    protected void onTiempoReal(ActionEvent event) {
+        if (laberinto == null) return;
+        if (tiempoReal == null) {
+            terminarRepeticion();
+            // real-time turns cannot be replayed: stop recording
+            laberinto.setRegistro(null);
+            registro = null;
+            // the model now belongs to the simulation thread; draw from its snapshots instead
+            laberinto.setCambiosListener(null);
+            tiempoReal = new RealTimeLoop(laberinto, TICKS_POR_SEGUNDO);
+            tiempoReal.setPista(pistaActiva);
+            dibujada = null;
+            tiempoReal.iniciar();
+            dibujante.start();
+        } else {
+            detenerTiempoReal();
+            laberinto.setCambiosListener(this::onCambios);
+            iniciarRegistro();
+            pista = pistaActiva ? laberinto.calcularPista() : null;
+            render();
+        }
+        if (tiempoRealBtn != null) tiempoRealBtn.setSelected(tiempoReal != null);
+        actualizarBotonesRegistro();
+        mazeCanvas.requestFocus();
+    }
+
+    @FXML
+    protected void onDeshacer(ActionEvent event) {
+        deshacer();
+        mazeCanvas.requestFocus();
+    }
+
+    @FXML
+    protected void onRepeticion(ActionEvent event) {
+        if (finRepeticion >= 0) {
+            terminarRepeticion();
+        } else if (registro != null && tiempoReal == null && registro.getPosicion() > 0) {
+            finRepeticion = registro.getPosicion();
+            velocidadRepeticion = leerVelocidad();
+            inicioRepeticion = -1L;
+            pista = null;
+            registro.ir(laberinto, 0);
+            updateScoreLabel();
+            updateLivesAndHealth();
+            reproductor.start();
+        }
+        if (repeticionBtn != null) repeticionBtn.setSelected(finRepeticion >= 0);
+        mazeCanvas.requestFocus();
+    }
+
+    // Starts recording the keyboard turns from the current state (fixed-size mazes only)
+    private void iniciarRegistro() {
+        registro = laberinto.admiteInstantaneas() ? new ReplayLog(laberinto) : null;
+        laberinto.setRegistro(registro);
+        actualizarBotonesRegistro();
+    }
+
+    private void actualizarBotonesRegistro() {
+        boolean sinRegistro = registro == null || tiempoReal != null;
+        if (deshacerBtn != null) deshacerBtn.setDisable(sinRegistro);
+        if (repeticionBtn != null) repeticionBtn.setDisable(sinRegistro);
+    }
+
+    // Takes back the last keyboard turn
+    private void deshacer() {
+        if (registro == null || tiempoReal != null || finRepeticion >= 0) return;
+        if (!registro.deshacer(laberinto)) return;
+        updateScoreLabel();
+        updateLivesAndHealth();
+        // the whole maze was already handed to onCambios; it is drawn with the new hint
+        if (pistaActiva) pista = laberinto.calcularPista();
+    }
+
+    // Called every frame while replaying: moves the game to the turn due at the chosen speed
+    private void avanzarRepeticion(long now) {
+        if (finRepeticion < 0) return;
+        if (inicioRepeticion < 0) inicioRepeticion = now;
+        long turno = (now - inicioRepeticion) * TICKS_POR_SEGUNDO * velocidadRepeticion / 1_000_000_000L;
+        registro.ir(laberinto, (int) Math.min(turno, finRepeticion));
+        updateScoreLabel();
+        updateLivesAndHealth();
+        if (turno >= finRepeticion) terminarRepeticion();
+    }
+
+    // Stops the replay viewer (if running), leaving the game at the turn it was at before replaying
+    private void terminarRepeticion() {
+        if (finRepeticion < 0) return;
+        reproductor.stop();
+        registro.ir(laberinto, finRepeticion);
+        finRepeticion = -1;
+        if (repeticionBtn != null) repeticionBtn.setSelected(false);
+        updateScoreLabel();
+        updateLivesAndHealth();
+        pista = pistaActiva ? laberinto.calcularPista() : null;
+        render();
+    }
+
+    // Replay speed chosen in velocidadBox ("1x", "10x", "100x")
+    private int leerVelocidad() {
+        String v = velocidadBox != null ? velocidadBox.getValue() : null;
+        if (v == null || !v.endsWith("x")) return VELOCIDAD_REPETICION;
+        try {
+            return Math.max(1, Integer.parseInt(v.substring(0, v.length() - 1)));
+        } catch (NumberFormatException ex) {
+            return VELOCIDAD_REPETICION;
+        }
+    }
+
+    // Stops the simulation thread (if running); afterwards the model can be used from the FX thread again
+    private void detenerTiempoReal() {
+        if (tiempoReal == null) return;
+        dibujante.stop();
+        tiempoReal.detener();
+        tiempoReal = null;
+        dibujada = null;
+    }
+
+    // Called every frame in real-time mode: draws the latest snapshot if it is new
+    private void dibujarInstantanea() {
+        if (tiempoReal == null) return;
+        RealTimeLoop.Instantanea s = tiempoReal.getInstantanea();
+        if (s == dibujada) return;
+        renderInstantanea(s, dibujada);
+        dibujada = s;
+        if (scoreLabel != null) scoreLabel.setText("Puntos: " + s.getPuntos());
+        if (livesLabel != null && healthLabel != null) {
+            livesLabel.setText("Vidas: " + s.getVidas());
+            healthLabel.setText("Energia: " + s.getVidaActual() + "/" + s.getMaxVida());
+        }
+        if (s.isTerminada()) {
+            detenerTiempoReal();
+            if (tiempoRealBtn != null) tiempoRealBtn.setSelected(false);
+            laberinto.setCambiosListener(this::onCambios);
+            comprobarFin();
+        }
+    }
+
     private void setupInput() {
         // ensure canvas can receive keys
         mazeCanvas.setFocusTraversable(true);
         mazeCanvas.setOnKeyPressed(ev -> {
             if (laberinto == null || laberinto.jugador == null) return;
+            // the replay viewer owns the model until it ends
+            if (finRepeticion >= 0) return;
             KeyCode kc = ev.getCode();
+            if (kc == KeyCode.Z || kc == KeyCode.BACK_SPACE) {
+                deshacer();
+                return;
+            }
             Laberinto.DIR dir = null;
             if (kc == KeyCode.W || kc == KeyCode.UP) dir = Laberinto.DIR.N;
             else if (kc == KeyCode.S || kc == KeyCode.DOWN) dir = Laberinto.DIR.S;
             else if (kc == KeyCode.A || kc == KeyCode.LEFT) dir = Laberinto.DIR.W;
             else if (kc == KeyCode.D || kc == KeyCode.RIGHT) dir = Laberinto.DIR.E;
+            if (dir == null) return;
 
-            if (dir != null) {
-                boolean moved = laberinto.movimientoEntidad(laberinto.jugador, dir);
-                if (moved) {
-                    // handle interactions caused by player's move
-                    if (laberinto.jugador.celdaActual != null && laberinto.jugador.celdaActual.cantidadEntidades() > 1) {
-                        Set<Entidad> contents = laberinto.jugador.celdaActual.obtenerContenido();
-                        for (Entidad e : Set.copyOf(contents)) {
-                            e.interact(laberinto.jugador);
-                            char ascii = e.obtenerAscii();
-                            if (ascii == 'K' || ascii == 'C' || ascii == 'G' || ascii == 'B') {
-                                // remove from cell and from global list
-                                laberinto.jugador.celdaActual.removeEntidad(e);
-                                laberinto.removeEntidadGlobal(e);
-                            }
-                        }
-                    }
-
-                    // After player's move and its immediate interactions, move enemies once
-                    laberinto.stepEntities();
-
-                    // handle interactions after enemies moved (player might be attacked/moved into)
-                    if (laberinto.jugador != null && laberinto.jugador.celdaActual != null &&
-                            laberinto.jugador.celdaActual.cantidadEntidades() > 1) {
-                        Set<Entidad> contents2 = laberinto.jugador.celdaActual.obtenerContenido();
-                        for (Entidad e : Set.copyOf(contents2)) {
-                            e.interact(laberinto.jugador);
-                            char ascii = e.obtenerAscii();
-                            if (ascii == 'K' || ascii == 'C' || ascii == 'G' || ascii == 'B') {
-                                laberinto.jugador.celdaActual.removeEntidad(e);
-                                laberinto.removeEntidadGlobal(e);
-                            }
-                        }
-                    }
-
-                    // update score label (player may have gained points)
-                    updateScoreLabel();
-                    updateLivesAndHealth();
-                }
+            if (tiempoReal != null) {
+                // real-time mode: the simulation thread owns the model, just hand it the move
+                tiempoReal.enviar(dir);
+                return;
+            }
+            boolean moved = laberinto.avanzarTurno(dir);
+            if (moved) {
+                // update score label (player may have gained points)
+                updateScoreLabel();
+                updateLivesAndHealth();
+                if (pistaActiva) pista = laberinto.calcularPista();
+            }
 
-                // update UI after the full step
-                laberinto.display(); // triggers UI listener which calls render()
+            // the turn's changed cells were already handed to onCambios
+            comprobarFin();
+        });
+    }
 
-                // if game ended by escaping or death, stop timer
-                if (!laberinto.jugador.taVivo() || laberinto.jugador.isEscapado()) {
-                    stopTimer();
-                    // persist latest elapsed seconds into model
-                    try {
-                        laberinto.tiempoSegundos = this.elapsedSeconds;
-                    } catch (Throwable ignored) {
-                    }
-                    if (!laberinto.jugador.taVivo()) {
-                        // Player died
-                        try {
-                            laberinto.finalizarPartida(-1);
-                        } catch (Throwable ignored) {
-                        }
-                        Platform.runLater(() -> {
-                            javafx.scene.control.Alert a = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
-                            a.setHeaderText(null);
-                            a.setContentText("Has perdido todas las vidas. Juego terminado.");
-                            a.showAndWait();
-                            try {
-                                javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("menu-seleccion.fxml"));
-                                javafx.scene.Parent root = loader.load();
-                                MenuSeleccionController menuController = loader.getController();
-                                if (menuController != null && laberinto != null && laberinto.jugador != null) {
-                                    menuController.setUsuario(laberinto.jugador.getCorreoElectronico());
-                                }
-                                javafx.stage.Stage stage = (javafx.stage.Stage) mazeCanvas.getScene().getWindow();
-                                stage.setScene(new javafx.scene.Scene(root));
-                                stage.show();
-                            } catch (java.io.IOException ex) {
-                                ex.printStackTrace();
-                            }
-                        });
-                    } else if (laberinto.jugador.isEscapado()) {
-                        // Player escaped
-                        try {
-                            laberinto.finalizarPartida(0);
-                        } catch (Throwable ignored) {
-                        }
-                        Platform.runLater(() -> {
-                            javafx.scene.control.Alert a = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
-                            a.setHeaderText(null);
-                            a.setContentText("¡Felicidades! ¡Has escapado del laberinto!");
-                            a.showAndWait();
-                            try {
-                                javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("menu-seleccion.fxml"));
-                                javafx.scene.Parent root = loader.load();
-                                MenuSeleccionController menuController = loader.getController();
-                                if (menuController != null && laberinto != null && laberinto.jugador != null) {
-                                    menuController.setUsuario(laberinto.jugador.getCorreoElectronico());
-                                }
-                                javafx.stage.Stage stage = (javafx.stage.Stage) mazeCanvas.getScene().getWindow();
-                                stage.setScene(new javafx.scene.Scene(root));
-                                stage.show();
-                            } catch (java.io.IOException ex) {
-                                ex.printStackTrace();
-                            }
-                        });
+    // If the game ended by escaping or death: stop the timer, close the game and show the result
+    private void comprobarFin() {
+        if (laberinto.jugador.taVivo() && !laberinto.jugador.isEscapado()) return;
+        stopTimer();
+        // persist latest elapsed seconds into model
+        try {
+            laberinto.tiempoSegundos = this.elapsedSeconds;
+        } catch (Throwable ignored) {
+        }
+        if (!laberinto.jugador.taVivo()) {
+            // Player died
+            try {
+                laberinto.finalizarPartida(-1);
+            } catch (Throwable ignored) {
+            }
+            Platform.runLater(() -> {
+                javafx.scene.control.Alert a = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+                a.setHeaderText(null);
+                a.setContentText("Has perdido todas las vidas. Juego terminado.");
+                a.showAndWait();
+                try {
+                    javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("menu-seleccion.fxml"));
+                    javafx.scene.Parent root = loader.load();
+                    MenuSeleccionController menuController = loader.getController();
+                    if (menuController != null && laberinto != null && laberinto.jugador != null) {
+                        menuController.setUsuario(laberinto.jugador.getCorreoElectronico());
                     }
+                    javafx.stage.Stage stage = (javafx.stage.Stage) mazeCanvas.getScene().getWindow();
+                    stage.setScene(new javafx.scene.Scene(root));
+                    stage.show();
+                } catch (java.io.IOException ex) {
+                    ex.printStackTrace();
                 }
+            });
+        } else if (laberinto.jugador.isEscapado()) {
+            // Player escaped
+            try {
+                laberinto.finalizarPartida(0);
+            } catch (Throwable ignored) {
             }
-        });
+            Platform.runLater(() -> {
+                javafx.scene.control.Alert a = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+                a.setHeaderText(null);
+                a.setContentText("¡Felicidades! ¡Has escapado del laberinto!");
+                a.showAndWait();
+                try {
+                    javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("menu-seleccion.fxml"));
+                    javafx.scene.Parent root = loader.load();
+                    MenuSeleccionController menuController = loader.getController();
+                    if (menuController != null && laberinto != null && laberinto.jugador != null) {
+                        menuController.setUsuario(laberinto.jugador.getCorreoElectronico());
+                    }
+                    javafx.stage.Stage stage = (javafx.stage.Stage) mazeCanvas.getScene().getWindow();
+                    stage.setScene(new javafx.scene.Scene(root));
+                    stage.show();
+                } catch (java.io.IOException ex) {
+                    ex.printStackTrace();
+                }
+            });
+        }
     }
 
     private void startTimer() {
@@ -303,6 +514,9 @@ public class LaberintoController {
         double canvasH = mazeCanvas.getHeight();
         double cellW = Math.max(4, Math.floor(canvasW / w));
         double cellH = Math.max(4, Math.floor(canvasH / h));
+        // top-left cell of the view; only moves in world mode, where the view follows the player
+        int ox = laberinto.getOrigenX();
+        int oy = laberinto.getOrigenY();
 
         // Clear
         gc.setFill(Color.web("#f3f3f3"));
@@ -311,49 +525,117 @@ public class LaberintoController {
         // draw cells
         for (int y = 0; y < h; y++) {
             for (int x = 0; x < w; x++) {
-                double px = x * cellW;
-                double py = y * cellH;
-                // background
-                gc.setFill(Color.WHITE);
-                gc.fillRect(px, py, cellW, cellH);
-
-                // draw walls as lines based on the bitmask
-                int val = laberinto.getCellValue(x, y);
-                gc.setStroke(Color.BLACK);
-                gc.setLineWidth(1.5);
-                // North wall
-                if ((val & Laberinto.DIR.N.bit) == 0) {
-                    gc.strokeLine(px, py, px + cellW, py);
-                }
-                // West wall
-                if ((val & Laberinto.DIR.W.bit) == 0) {
-                    gc.strokeLine(px, py, px, py + cellH);
-                }
-                // East wall (draw on cell's east edge)
-                if ((val & Laberinto.DIR.E.bit) == 0) {
-                    gc.strokeLine(px + cellW, py, px + cellW, py + cellH);
-                }
-                // South wall
-                if ((val & Laberinto.DIR.S.bit) == 0) {
-                    gc.strokeLine(px, py + cellH, px + cellW, py + cellH);
-                }
+                dibujarCelda(gc, x, y, laberinto.getCellValue(ox + x, oy + y), laberinto.getCellChar(ox + x, oy + y), cellW, cellH);
+            }
+        }
 
-                // draw entity char with color hints
-                char c = laberinto.getCellChar(x, y);
-                if (c != ' ' && c != '\0') {
-                    switch (c) {
-                        case '@' -> gc.setFill(Color.DODGERBLUE);
-                        case 'E' -> gc.setFill(Color.CRIMSON);
-                        case 'T' -> gc.setFill(Color.DARKGRAY);
-                        case 'C' -> gc.setFill(Color.GOLD);
-                        case 'K' -> gc.setFill(Color.ORANGE);
-                        case 'B' -> gc.setFill(Color.DARKRED);
-                        case 'X' -> gc.setFill(Color.FORESTGREEN);
-                        default -> gc.setFill(Color.BLACK);
-                    }
-                    gc.fillOval(px + cellW * 0.2, py + cellH * 0.2, cellW * 0.6, cellH * 0.6);
+        dibujarPista(gc, pista, w, ox, oy, cellW, cellH);
+    }
+
+    // Repaints the cells of one turn; the whole view if it moved or a hint path is drawn over it
+    private void renderCambios(ChangeSet cambios) {
+        if (laberinto == null || mazeCanvas == null) return;
+        if (cambios.isCompleto() || pista != null) {
+            render();
+            return;
+        }
+        GraphicsContext gc = mazeCanvas.getGraphicsContext2D();
+        int w = laberinto.getWidth();
+        int h = laberinto.getHeight();
+        double cellW = Math.max(4, Math.floor(mazeCanvas.getWidth() / w));
+        double cellH = Math.max(4, Math.floor(mazeCanvas.getHeight() / h));
+        int ox = laberinto.getOrigenX();
+        int oy = laberinto.getOrigenY();
+        for (int i = 0; i < cambios.size(); i++) {
+            int x = cambios.x(i) - ox;
+            int y = cambios.y(i) - oy;
+            if (x >= 0 && y >= 0 && x < w && y < h) {
+                dibujarCelda(gc, x, y, laberinto.getCellValue(cambios.x(i), cambios.y(i)), laberinto.getCellChar(cambios.x(i), cambios.y(i)), cellW, cellH);
+            }
+        }
+    }
+
+    // Draws a real-time snapshot: only the cells that differ from the previous one, unless the view moved or a hint is shown
+    private void renderInstantanea(RealTimeLoop.Instantanea s, RealTimeLoop.Instantanea anterior) {
+        if (mazeCanvas == null) return;
+        GraphicsContext gc = mazeCanvas.getGraphicsContext2D();
+        int w = s.getAncho();
+        int h = s.getAlto();
+        double cellW = Math.max(4, Math.floor(mazeCanvas.getWidth() / w));
+        double cellH = Math.max(4, Math.floor(mazeCanvas.getHeight() / h));
+        boolean completo = anterior == null || anterior.getPista() != null || s.getPista() != null
+                || anterior.getOrigenX() != s.getOrigenX() || anterior.getOrigenY() != s.getOrigenY()
+                || anterior.getAncho() != w || anterior.getAlto() != h;
+        if (completo) {
+            gc.setFill(Color.web("#f3f3f3"));
+            gc.fillRect(0, 0, mazeCanvas.getWidth(), mazeCanvas.getHeight());
+        }
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                if (completo || s.celda(x, y) != anterior.celda(x, y) || s.paredes(x, y) != anterior.paredes(x, y)) {
+                    dibujarCelda(gc, x, y, s.paredes(x, y), s.celda(x, y), cellW, cellH);
                 }
             }
         }
+        dibujarPista(gc, s.getPista(), laberinto.getWidth(), s.getOrigenX(), s.getOrigenY(), cellW, cellH);
+    }
+
+    // Hint path: a line through the centres of its cells (flat indices over a maze w cells wide)
+    private void dibujarPista(GraphicsContext gc, int[] pista, int w, int ox, int oy, double cellW, double cellH) {
+        if (pista == null || pista.length <= 1) return;
+        gc.setStroke(Color.color(0.12, 0.56, 1.0, 0.6));
+        gc.setLineWidth(Math.max(2, Math.min(cellW, cellH) * 0.25));
+        gc.beginPath();
+        for (int i = 0; i < pista.length; i++) {
+            double cx = (pista[i] % w - ox + 0.5) * cellW;
+            double cy = (pista[i] / w - oy + 0.5) * cellH;
+            if (i == 0) gc.moveTo(cx, cy);
+            else gc.lineTo(cx, cy);
+        }
+        gc.stroke();
+    }
+
+    // Background, walls and entity of view cell (x,y) with passage mask val and character c
+    private void dibujarCelda(GraphicsContext gc, int x, int y, int val, char c, double cellW, double cellH) {
+        double px = x * cellW;
+        double py = y * cellH;
+        // background
+        gc.setFill(Color.WHITE);
+        gc.fillRect(px, py, cellW, cellH);
+
+        // draw walls as lines based on the bitmask
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1.5);
+        // North wall
+        if ((val & Laberinto.DIR.N.bit) == 0) {
+            gc.strokeLine(px, py, px + cellW, py);
+        }
+        // West wall
+        if ((val & Laberinto.DIR.W.bit) == 0) {
+            gc.strokeLine(px, py, px, py + cellH);
+        }
+        // East wall (draw on cell's east edge)
+        if ((val & Laberinto.DIR.E.bit) == 0) {
+            gc.strokeLine(px + cellW, py, px + cellW, py + cellH);
+        }
+        // South wall
+        if ((val & Laberinto.DIR.S.bit) == 0) {
+            gc.strokeLine(px, py + cellH, px + cellW, py + cellH);
+        }
+
+        // draw entity char with color hints
+        if (c != ' ' && c != '\0') {
+            switch (c) {
+                case '@' -> gc.setFill(Color.DODGERBLUE);
+                case 'E' -> gc.setFill(Color.CRIMSON);
+                case 'T' -> gc.setFill(Color.DARKGRAY);
+                case 'C' -> gc.setFill(Color.GOLD);
+                case 'K' -> gc.setFill(Color.ORANGE);
+                case 'B' -> gc.setFill(Color.DARKRED);
+                case 'X' -> gc.setFill(Color.FORESTGREEN);
+                default -> gc.setFill(Color.BLACK);
+            }
+            gc.fillOval(px + cellW * 0.2, py + cellH * 0.2, cellW * 0.6, cellH * 0.6);
+        }
     }
 }
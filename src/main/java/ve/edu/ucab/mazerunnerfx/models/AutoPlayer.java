@@ -0,0 +1,282 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.SplittableRandom;
+
+/**
+ * Jugador automático sin interfaz: juega un {@link Laberinto} hasta escapar, morir o agotar el
+ * límite de intentos, turno a turno con {@link Laberinto#avanzarTurno(Laberinto.DIR)}, igual que la
+ * ventana de juego pero sin teclado ni JavaFX. Sirve para pruebas de carga del modelo, la
+ * persistencia y {@link Statistics}.
+ * <p>
+ * La política que elige cada paso es intercambiable: al azar, codiciosa (acercarse en línea recta a
+ * la llave y luego a la puerta) o siguiendo el camino más corto del {@link DistanceOracle}. El azar
+ * de la política sale de la semilla del laberinto, así que una misma partida se repite igual.
+ */
+public final class AutoPlayer {
+
+    /**
+     * Elige el próximo paso del jugador.
+     */
+    public interface Politica {
+        /**
+         * @param lab partida en curso
+         * @param objetivo índice plano de la llave (o de la puerta si ya la tiene), -1 si no hay
+         * @param rng azar de la partida
+         * @return dirección del paso
+         */
+        Laberinto.DIR elegir(Laberinto lab, int objetivo, SplittableRandom rng);
+    }
+
+    /** Cómo terminó una partida. */
+    public enum Desenlace { ESCAPO, MURIO, AGOTADO }
+
+    /**
+     * Resultado de una partida automática.
+     */
+    public static final class Resultado {
+        private final Desenlace desenlace;
+        private final int turnos;
+        private final int intentos;
+        private final int puntos;
+
+        Resultado(Desenlace desenlace, int turnos, int intentos, int puntos) {
+            this.desenlace = desenlace;
+            this.turnos = turnos;
+            this.intentos = intentos;
+            this.puntos = puntos;
+        }
+
+        public Desenlace getDesenlace() {
+            return desenlace;
+        }
+
+        /** Pasos que movieron al jugador. */
+        public int getTurnos() {
+            return turnos;
+        }
+
+        /** Pasos intentados, incluidos los que chocaron contra una pared. */
+        public int getIntentos() {
+            return intentos;
+        }
+
+        public int getPuntos() {
+            return puntos;
+        }
+
+        @Override
+        public String toString() {
+            return desenlace + " en " + turnos + " turnos (" + intentos + " intentos), " + puntos + " puntos";
+        }
+    }
+
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    private final Politica politica;
+    private final int maxIntentos;
+    private final boolean persistir;
+
+    /**
+     * @param politica política de juego
+     * @param maxIntentos pasos intentados antes de abandonar la partida
+     * @param persistir true para cerrar cada partida como la ventana de juego (guardado y
+     *                  estadísticas en disco), false para no tocar archivos
+     */
+    public AutoPlayer(Politica politica, int maxIntentos, boolean persistir) {
+        if (politica == null || maxIntentos <= 0) {
+            throw new IllegalArgumentException("Se necesita una política y un límite de intentos positivo");
+        }
+        this.politica = politica;
+        this.maxIntentos = maxIntentos;
+        this.persistir = persistir;
+    }
+
+    /**
+     * Juega la partida hasta el final o hasta agotar los intentos, sin informar sucesos
+     * ({@link GameEventSink#NINGUNO}).
+     * @param lab laberinto nuevo (con jugador)
+     * @return resultado de la partida
+     */
+    public Resultado jugar(Laberinto lab) {
+        SplittableRandom rng = new SplittableRandom(lab.getSemilla());
+        // nobody is watching: interactions are not reported
+        lab.setEventos(GameEventSink.NINGUNO);
+        Jugador jugador = lab.jugador;
+        int llave = -1;
+        int puerta = -1;
+        for (Entidad e : lab.getEntidadesSnapshot()) {
+            int c = e.getPosY() * lab.getWidth() + e.getPosX();
+            if (e instanceof Llave && llave < 0) llave = c;
+            else if (e instanceof Puerta && puerta < 0) puerta = c;
+        }
+        int turnos = 0;
+        int intentos = 0;
+        Desenlace desenlace = Desenlace.AGOTADO;
+        while (intentos < maxIntentos) {
+            intentos++;
+            int objetivo = jugador.tieneLlave() || llave < 0 ? puerta : llave;
+            if (lab.avanzarTurno(politica.elegir(lab, objetivo, rng))) turnos++;
+            if (!jugador.taVivo()) {
+                desenlace = Desenlace.MURIO;
+                break;
+            }
+            if (jugador.isEscapado()) {
+                desenlace = Desenlace.ESCAPO;
+                break;
+            }
+        }
+        if (persistir) {
+            lab.finalizarPartida(switch (desenlace) {
+                case ESCAPO -> 0;
+                case MURIO -> -1;
+                case AGOTADO -> 1;
+            });
+        }
+        return new Resultado(desenlace, turnos, intentos, jugador.getPuntos());
+    }
+
+    /**
+     * Un paso en una dirección cualquiera.
+     */
+    public static Politica aleatoria() {
+        return (lab, objetivo, rng) -> DIRS[rng.nextInt(4)];
+    }
+
+    /**
+     * El pasaje abierto menos recorrido y, entre esos, el que más acerque en línea recta al objetivo.
+     * Contar las visitas (como el método de Trémaux) evita quedarse yendo y viniendo en un callejón
+     * que apunta al objetivo; la cuenta se reinicia con cada partida y al cambiar de objetivo. Cada
+     * llamada devuelve una política nueva con su propia cuenta.
+     */
+    public static Politica codiciosa() {
+        return new Politica() {
+            private Laberinto partida;
+            private int objetivoActual;
+            private int[] visitas;
+
+            @Override
+            public Laberinto.DIR elegir(Laberinto lab, int objetivo, SplittableRandom rng) {
+                int ancho = lab.getWidth();
+                if (lab != partida || objetivo != objetivoActual) {
+                    partida = lab;
+                    objetivoActual = objetivo;
+                    visitas = new int[ancho * lab.getHeight()];
+                }
+                int x = lab.jugador.getPosX();
+                int y = lab.jugador.getPosY();
+                visitas[y * ancho + x]++;
+                int m = lab.getCellValue(x, y);
+                int tx = objetivo < 0 ? x : objetivo % ancho;
+                int ty = objetivo < 0 ? y : objetivo / ancho;
+                Laberinto.DIR mejor = null;
+                long mejorClave = Long.MAX_VALUE;
+                for (Laberinto.DIR d : DIRS) {
+                    if ((m & d.bit) == 0) continue;
+                    int vx = x + d.direccionX;
+                    int vy = y + d.direccionY;
+                    if (vx < 0 || vy < 0 || vx >= ancho || vy >= lab.getHeight()) continue;
+                    long clave = ((long) visitas[vy * ancho + vx] << 32) | (Math.abs(tx - vx) + Math.abs(ty - vy));
+                    if (clave < mejorClave) {
+                        mejorClave = clave;
+                        mejor = d;
+                    }
+                }
+                return mejor != null ? mejor : DIRS[rng.nextInt(4)];
+            }
+        };
+    }
+
+    /**
+     * El primer paso del camino más corto al objetivo según el oráculo de distancias del laberinto.
+     * Si el laberinto se quedó sin oráculo (demasiados muros explosivos abiertos) sigue la ruta del
+     * grafo de cruces ({@link Laberinto#getGrafoCruces()}), que se parcha con cada explosión; la ruta
+     * se busca otra vez sólo cuando cambian el objetivo o las paredes, o si el jugador se salió de
+     * ella. Al azar en los modos sin grilla fija o si no hay camino. Cada llamada devuelve una
+     * política nueva con su propia ruta.
+     */
+    public static Politica seguirCamino() {
+        return new Politica() {
+            private int[] ruta;
+            private int posicionRuta;
+            private Laberinto partida;
+            private int objetivoRuta = -1;
+            private int versionRuta = -1;
+
+            @Override
+            public Laberinto.DIR elegir(Laberinto lab, int objetivo, SplittableRandom rng) {
+                int ancho = lab.getWidth();
+                int x = lab.jugador.getPosX();
+                int y = lab.jugador.getPosY();
+                int desde = y * ancho + x;
+                int paso = -1;
+                DistanceOracle oraculo = lab.getOraculo();
+                if (oraculo != null) {
+                    paso = objetivo < 0 ? -1 : oraculo.siguiente(desde, objetivo);
+                } else {
+                    JunctionGraph grafo = lab.getGrafoCruces();
+                    if (grafo == null || objetivo < 0) return DIRS[rng.nextInt(4)];
+                    int version = lab.getGrid().getVersion();
+                    boolean enRuta = ruta != null && posicionRuta + 1 < ruta.length && ruta[posicionRuta] == desde;
+                    if (lab != partida || objetivo != objetivoRuta || version != versionRuta || !enRuta) {
+                        ruta = grafo.camino(desde, objetivo);
+                        posicionRuta = 0;
+                        partida = lab;
+                        objetivoRuta = objetivo;
+                        versionRuta = version;
+                    }
+                    if (ruta != null && posicionRuta + 1 < ruta.length) paso = ruta[++posicionRuta];
+                }
+                for (Laberinto.DIR d : DIRS) {
+                    if (paso >= 0 && desde + d.direccionY * ancho + d.direccionX == paso) return d;
+                }
+                return DIRS[rng.nextInt(4)];
+            }
+        };
+    }
+
+    /**
+     * Política por nombre: "aleatoria", "codiciosa" o "camino".
+     * @return la política, o null si el nombre no es uno de esos
+     */
+    public static Politica politica(String nombre) {
+        return switch (nombre) {
+            case "aleatoria" -> aleatoria();
+            case "codiciosa" -> codiciosa();
+            case "camino" -> seguirCamino();
+            default -> null;
+        };
+    }
+
+    /**
+     * Prueba de carga: juega muchas partidas seguidas e informa el ritmo y los desenlaces.
+     * <p>
+     * Uso: {@code AutoPlayer [partidas] [aleatoria|codiciosa|camino] [nivel] [--persistir]}, por
+     * ejemplo {@code AutoPlayer 5000 camino Difícil}. La partida i usa la semilla i, así que las
+     * corridas se repiten.
+     */
+    public static void main(String[] args) {
+        int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Politica politica = politica(args.length > 1 ? args[1] : "camino");
+        Dificultad nivel = Dificultad.desdeNombre(args.length > 2 ? args[2] : "Fácil");
+        boolean persistir = args.length > 3 && "--persistir".equals(args[3]);
+        if (politica == null || nivel == null) {
+            System.err.println("Uso: AutoPlayer [partidas] [aleatoria|codiciosa|camino] [Fácil|Intermedio|Difícil|Avanzado] [--persistir]");
+            return;
+        }
+        AutoPlayer bot = new AutoPlayer(politica, 100_000, persistir);
+        int[] porDesenlace = new int[Desenlace.values().length];
+        long turnos = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < partidas; i++) {
+            Resultado r = bot.jugar(nivel.crearCandidato(i));
+            porDesenlace[r.getDesenlace().ordinal()]++;
+            turnos += r.getTurnos();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%d partidas en %.2f s (%.0f por segundo), %.1f turnos de media%n",
+                partidas, segundos, partidas / segundos, turnos / (double) Math.max(1, partidas));
+        for (Desenlace d : Desenlace.values()) {
+            System.out.println(d + ": " + porDesenlace[d.ordinal()]);
+        }
+    }
+}
@@ -1,21 +1,51 @@
 package ve.edu.ucab.mazerunnerfx.models;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * Representa una celda del laberinto que puede contener múltiples entidades.
- * Proporciona utilidades para gestionar y mostrar su contenido.
+ * Vista del contenido de una celda del laberinto, que puede tener múltiples entidades (también
+ * varias del mismo tipo). No guarda nada propio: consulta el índice por celda de
+ * {@link EntityStore}, así que contar, dibujar y recorrer el contenido no crea objetos.
+ * Las paredes de la celda se guardan aparte en {@link MazeStore}.
  */
 public class Celda {
-    private final Set<Entidad> contenido = new java.util.TreeSet<>();
-    public int valor = 0;
+    private final EntityStore almacen;
+    private int x;
+    private int y;
+
+    /**
+     * @param almacen registro de entidades del laberinto
+     * @param x columna de la celda
+     * @param y fila de la celda
+     */
+    public Celda(EntityStore almacen, int x, int y) {
+        this.almacen = almacen;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    // La celda del jugador lo sigue al moverse (ver Jugador#setPosition)
+    void ubicar(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
 
     /**
      * Devuelve la cantidad de entidades presentes en la celda.
      * @return número de entidades
      */
     public int cantidadEntidades() {
-        return contenido.size();
+        return almacen.contarEn(x, y);
     }
 
     /**
@@ -23,56 +53,59 @@ public class Celda {
      * @return carácter a mostrar para la celda
      */
     public char obtenerAscii() {
-        if (contenido.isEmpty()) {
-            return ' ';
-        }
-        if (contenido.size() == 1) {
-            return contenido.iterator().next().obtenerAscii();
-        }
-        // Múltiples entidades: priorizar mostrar Puerta 'X'; luego Jugador '@'; si no, mostrar el conteo
-        boolean hasPlayer = false;
-        for (Entidad e : contenido) {
-            char c = e.obtenerAscii();
-            if (c == 'X') {
-                return 'X';
-            }
-            if (c == '@') {
-                hasPlayer = true;
-            }
-        }
-        if (hasPlayer) {
-            return '@';
-        }
-        // Retorna un carácter especial si hay múltiples entidades
-        return (Integer.toString(cantidadEntidades()).charAt(0));
+        return almacen.ascii(x, y);
+    }
+
+    /**
+     * Primera entidad de la celda; las demás se recorren con {@link #siguiente(int)}.
+     * @return identificador en el {@link EntityStore}, o -1 si la celda está vacía
+     */
+    public int primera() {
+        return almacen.primeraEn(x, y);
+    }
+
+    /**
+     * Siguiente entidad de la celda.
+     * @return identificador, o -1 si no hay más
+     */
+    public int siguiente(int id) {
+        return almacen.siguienteEnCelda(id);
     }
 
     // Agregar / eliminar entidades de la celda
     /**
-     * Agrega una entidad a la celda si no es nula.
+     * Agrega una entidad a la celda si no es nula, registrándola si hace falta.
      * @param e entidad a agregar
      */
     public void addEntidad(Entidad e) {
         if (e != null) {
-            contenido.add(e);
+            e.setPosition(x, y);
+            if (e.almacen == null) {
+                almacen.agregar(e);
+            }
         }
     }
 
     /**
-     * Elimina una entidad de la celda si no es nula.
+     * Elimina una entidad de la celda (y del laberinto) si no es nula y está en ella.
      * @param e entidad a eliminar
      */
     public void removeEntidad(Entidad e) {
-        if (e != null) {
-            contenido.remove(e);
+        if (e != null && e.almacen == almacen && e.getPosX() == x && e.getPosY() == y) {
+            almacen.quitar(e);
         }
     }
 
     /**
-     * Obtiene una vista inmodificable del contenido de la celda.
-     * @return conjunto inmodificable de entidades
+     * Obtiene una copia inmodificable del contenido de la celda. Para recorrerla sin crear
+     * objetos conviene {@link #primera()} y {@link #siguiente(int)}.
+     * @return lista inmodificable de entidades
      */
-    public java.util.Set<Entidad> obtenerContenido() {
-        return java.util.Collections.unmodifiableSet(contenido);
+    public List<Entidad> obtenerContenido() {
+        List<Entidad> contenido = new ArrayList<>(cantidadEntidades());
+        for (int id = primera(); id >= 0; id = siguiente(id)) {
+            contenido.add(almacen.objeto(id));
+        }
+        return Collections.unmodifiableList(contenido);
     }
 }
@@ -0,0 +1,93 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Celdas que cambiaron durante un turno (entidades que entraron o salieron, objetos consumidos,
+ * paredes abiertas), en coordenadas del laberinto y sin repetir. Lo entrega
+ * {@link Laberinto#setCambiosListener(java.util.function.Consumer)} una vez por turno para que la
+ * consola o el canvas vuelvan a dibujar sólo esas celdas.
+ * <p>
+ * Si la vista entera cambió (la ventana del modo infinito avanzó o la vista del modo mundo siguió
+ * al jugador) {@link #isCompleto()} es true y hay que redibujar todo.
+ */
+public final class ChangeSet {
+    private final long[] celdas;
+    private final boolean completo;
+
+    ChangeSet(long[] celdas, boolean completo) {
+        this.celdas = celdas;
+        this.completo = completo;
+    }
+
+    /**
+     * Cantidad de celdas cambiadas.
+     */
+    public int size() {
+        return celdas.length;
+    }
+
+    /** Columna de la i-ésima celda cambiada. */
+    public int x(int i) {
+        return (int) (celdas[i] >> 32);
+    }
+
+    /** Fila de la i-ésima celda cambiada. */
+    public int y(int i) {
+        return (int) celdas[i];
+    }
+
+    /**
+     * Indica si hay que redibujar la vista completa en lugar de las celdas listadas.
+     */
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    @Override
+    public String toString() {
+        return completo ? "ChangeSet[completo]" : "ChangeSet[" + size() + " celdas]";
+    }
+
+    /**
+     * Acumula las celdas tocadas durante un turno; se vacía al publicarlas. Sin repeticiones ni
+     * objetos por celda: las claves se ordenan y se deduplican al final del turno.
+     */
+    static final class Acumulador {
+        private long[] claves = new long[16];
+        private int cantidad;
+        private boolean completo;
+
+        void marcar(int x, int y) {
+            if (completo) return;
+            if (cantidad == claves.length) claves = Arrays.copyOf(claves, cantidad * 2);
+            claves[cantidad++] = ((long) x << 32) | (y & 0xFFFFFFFFL);
+        }
+
+        void marcarTodo() {
+            completo = true;
+            cantidad = 0;
+        }
+
+        boolean vacio() {
+            return cantidad == 0 && !completo;
+        }
+
+        ChangeSet publicar() {
+            ChangeSet c;
+            if (completo) {
+                c = new ChangeSet(new long[0], true);
+            } else {
+                Arrays.sort(claves, 0, cantidad);
+                int unicas = 0;
+                for (int i = 0; i < cantidad; i++) {
+                    if (unicas == 0 || claves[unicas - 1] != claves[i]) claves[unicas++] = claves[i];
+                }
+                c = new ChangeSet(Arrays.copyOf(claves, unicas), false);
+            }
+            cantidad = 0;
+            completo = false;
+            return c;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mundo ilimitado dividido en bloques ("chunks") de 32x32 celdas generados bajo demanda.
+ * <p>
+ * Cada bloque se talla la primera vez que se consulta con {@link BacktrackerGenerator} a partir de
+ * {@code hash(semilla, cx, cy)}, y se conecta con sus cuatro vecinos abriendo un pasaje en una
+ * posición que también se deriva del hash del borde compartido, de modo que ambos lados coinciden
+ * sin importar cuál se genere primero. Como el trazado depende sólo de la semilla y las
+ * coordenadas, los bloques se descartan con una política LRU al superar la capacidad y se vuelven
+ * a generar idénticos si el jugador regresa; la memoria de paredes queda acotada a
+ * {@code capacidad * 1 KB}, y el tamaño del mundo sólo lo limitan las coordenadas.
+ * <p>
+ * Lo que la partida cambia en un bloque (paredes abiertas por muros explosivos, celdas cuyo
+ * contenido ya se consumió) se anota por bloque y sobrevive a su descarte: al salir de la LRU esas
+ * anotaciones se compactan (2 bytes por celda abierta y 128 bytes de marcas si se consumió algo) y
+ * se vuelven a aplicar al regenerarlo. Sólo los bloques que el jugador modificó ocupan memoria más
+ * allá de la capacidad. El contenido de las celdas no vive aquí sino en el {@link EntityStore} del
+ * {@link Laberinto}, que administra su ciclo de vida.
+ */
+public final class ChunkStore implements MazeStore {
+    /** Lado de un bloque en celdas (potencia de dos). */
+    public static final int TAMANIO = 32;
+    private static final int SHIFT = 5;
+    private static final int MASK = TAMANIO - 1;
+    // margen para que x±1 nunca desborde un int
+    private static final int LIMITE = 1 << 30;
+    private static final int CAPACIDAD_DEFECTO = 64;
+    private static final long SAL_ESTE = 0x45L;
+    private static final long SAL_SUR = 0x53L;
+    private static final long SAL_INTERIOR = 0x49L;
+
+    private final long semilla;
+    private final BacktrackerGenerator generador = new BacktrackerGenerator();
+    private final Map<Long, byte[]> bloques;
+    // cambios de la partida por bloque, sólo para los bloques que tienen alguno
+    private final Map<Long, Cambios> cambios = new HashMap<>();
+    private long bloquesGenerados = 0L;
+
+    // último bloque consultado: el dibujo y el movimiento recorren celdas vecinas
+    private long ultimaClave = Long.MIN_VALUE;
+    private byte[] ultimoBloque = null;
+
+    /**
+     * Crea un mundo que conserva hasta 64 bloques en memoria.
+     * @param semilla semilla del trazado
+     */
+    public ChunkStore(long semilla) {
+        this(semilla, CAPACIDAD_DEFECTO);
+    }
+
+    /**
+     * Crea un mundo con la capacidad de bloques en memoria indicada.
+     * @param semilla semilla del trazado
+     * @param capacidad cantidad máxima de bloques cargados antes de descartar el menos usado
+     */
+    public ChunkStore(long semilla, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        this.semilla = semilla;
+        this.bloques = new LinkedHashMap<>(capacidad * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                if (size() <= capacidad) return false;
+                Cambios c = cambios.get(eldest.getKey());
+                if (c != null) c.compactar();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Coordenada de bloque que contiene la coordenada de celda dada (válido para negativos).
+     */
+    public static int bloque(int c) {
+        return c >> SHIFT;
+    }
+
+    /**
+     * Clave de 64 bits para un par de coordenadas (de bloque o de celda).
+     */
+    public static long clave(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Semilla derivada de la del mundo para el bloque (cx,cy) y un propósito ("sal") dado; la usa
+     * también {@link Laberinto} para poblar cada bloque de forma reproducible.
+     */
+    public long semillaBloque(int cx, int cy, long sal) {
+        return mezclar(mezclar(mezclar(semilla + sal) + cx) + cy);
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Cantidad de bloques actualmente en memoria.
+     */
+    public int getBloquesCargados() {
+        return bloques.size();
+    }
+
+    /**
+     * Cantidad de veces que se talló un bloque (incluye regeneraciones tras descartarlo).
+     */
+    public long getBloquesGenerados() {
+        return bloquesGenerados;
+    }
+
+    @Override
+    public boolean contiene(int x, int y) {
+        return x > -LIMITE && x < LIMITE && y > -LIMITE && y < LIMITE;
+    }
+
+    @Override
+    public int valor(int x, int y) {
+        return bloque(bloque(x), bloque(y))[((y & MASK) << SHIFT) | (x & MASK)];
+    }
+
+    @Override
+    public void abrir(int x, int y, int bit) {
+        int celda = ((y & MASK) << SHIFT) | (x & MASK);
+        cambios(bloque(x), bloque(y)).anotarPasaje(celda, bit);
+        bloque(bloque(x), bloque(y))[celda] |= (byte) bit;
+    }
+
+    /**
+     * Marca la celda (x,y) como ya consumida: {@link Laberinto} no vuelve a poblarla cuando
+     * regenera su bloque.
+     */
+    public void consumir(int x, int y) {
+        cambios(bloque(x), bloque(y)).marcar(((y & MASK) << SHIFT) | (x & MASK));
+    }
+
+    /**
+     * Celdas consumidas del bloque (cx,cy), una marca por celda en el orden fila a fila del bloque
+     * (la celda {@code j * TAMANIO + i} es el bit {@code i & 63} de la palabra {@code (j * TAMANIO + i) >> 6}).
+     * @return las marcas (no modificar), o null si el bloque no tiene ninguna
+     */
+    long[] consumidas(int cx, int cy) {
+        Cambios c = cambios.get(clave(cx, cy));
+        return c != null ? c.consumidas : null;
+    }
+
+    private Cambios cambios(int cx, int cy) {
+        return cambios.computeIfAbsent(clave(cx, cy), k -> new Cambios());
+    }
+
+    // Devuelve el bloque (cx,cy), generándolo si no está en memoria
+    private byte[] bloque(int cx, int cy) {
+        long k = clave(cx, cy);
+        if (k == ultimaClave && ultimoBloque != null) {
+            return ultimoBloque;
+        }
+        byte[] b = bloques.get(k);
+        if (b == null) {
+            b = generar(cx, cy);
+            bloques.put(k, b);
+        }
+        ultimaClave = k;
+        ultimoBloque = b;
+        return b;
+    }
+
+    // Talla el interior, abre un pasaje por cada borde y reaplica las paredes abiertas en juego
+    private byte[] generar(int cx, int cy) {
+        byte[] b = new byte[TAMANIO * TAMANIO];
+        generador.generate(b, TAMANIO, TAMANIO, new SplittableRandom(semillaBloque(cx, cy, SAL_INTERIOR)));
+        // el borde este/sur de cada bloque es el oeste/norte de su vecino: ambos usan el mismo hash
+        int fEste = posicionBorde(cx, cy, SAL_ESTE);
+        int fOeste = posicionBorde(cx - 1, cy, SAL_ESTE);
+        int cSur = posicionBorde(cx, cy, SAL_SUR);
+        int cNorte = posicionBorde(cx, cy - 1, SAL_SUR);
+        b[(fEste << SHIFT) | MASK] |= (byte) Laberinto.DIR.E.bit;
+        b[fOeste << SHIFT] |= (byte) Laberinto.DIR.W.bit;
+        b[(MASK << SHIFT) | cSur] |= (byte) Laberinto.DIR.S.bit;
+        b[cNorte] |= (byte) Laberinto.DIR.N.bit;
+        Cambios c = cambios.get(clave(cx, cy));
+        if (c != null) {
+            for (int i = 0; i < c.cantidad; i++) {
+                b[c.pasajes[i] >>> 4] |= (byte) (c.pasajes[i] & 0xF);
+            }
+        }
+        bloquesGenerados++;
+        return b;
+    }
+
+    private int posicionBorde(int cx, int cy, long sal) {
+        return (int) (semillaBloque(cx, cy, sal) >>> (64 - SHIFT));
+    }
+
+    // Cambios de la partida en un bloque
+    private static final class Cambios {
+        // (celda << 4) | bits de cada pasaje abierto en juego; una celda puede repetirse hasta compactar
+        short[] pasajes = new short[0];
+        int cantidad;
+        // una marca por celda consumida, null hasta la primera
+        long[] consumidas;
+
+        void anotarPasaje(int celda, int bits) {
+            if (cantidad == pasajes.length) pasajes = Arrays.copyOf(pasajes, Math.max(4, cantidad * 2));
+            pasajes[cantidad++] = (short) ((celda << 4) | bits);
+        }
+
+        void marcar(int celda) {
+            if (consumidas == null) consumidas = new long[TAMANIO * TAMANIO / 64];
+            consumidas[celda >> 6] |= 1L << celda;
+        }
+
+        // Deja una entrada por celda, con sus bits unidos, en un arreglo justo
+        void compactar() {
+            Arrays.sort(pasajes, 0, cantidad);
+            int n = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (n > 0 && (pasajes[n - 1] >>> 4) == (pasajes[i] >>> 4)) {
+                    pasajes[n - 1] |= (short) (pasajes[i] & 0xF);
+                } else {
+                    pasajes[n++] = pasajes[i];
+                }
+            }
+            cantidad = n;
+            pasajes = Arrays.copyOf(pasajes, n);
+        }
+    }
+
+    // Finalizador de SplittableRandom (mix64): difunde cada bit de entrada en toda la salida
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
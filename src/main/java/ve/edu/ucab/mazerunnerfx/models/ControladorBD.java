@@ -14,7 +14,7 @@ import java.nio.charset.StandardCharsets;
 
 /**
  * Controla la persistencia del estado del laberinto en archivos JSON.
- * Escribe un formato simplificado: { x, y, maze:[[ {valor} ... ], ... ], jugador, tiempoSegundos }
+ * Escribe un formato simplificado: { x, y, maze:[[ {valor} ... ], ... ], jugador, tiempoSegundos, semilla, metricas }
  * Esto evita problemas de serialización con referencias circulares y mantiene el formato legible.
  */
 public class ControladorBD {
@@ -33,11 +33,14 @@ public class ControladorBD {
         root.addProperty("x", lab.getWidth());
         root.addProperty("y", lab.getHeight());
         JsonArray mazeArr = new JsonArray();
-        for (int i = 0; i < lab.getWidth(); i++) {
+        // read the packed wall bytes directly (row-major y*width+x); the file keeps the column-major layout
+        PackedGrid grid = lab.getGrid();
+        int ancho = lab.getWidth();
+        for (int i = 0; i < ancho; i++) {
             JsonArray col = new JsonArray();
             for (int j = 0; j < lab.getHeight(); j++) {
                 JsonObject cell = new JsonObject();
-                cell.addProperty("valor", lab.getCellValue(i, j));
+                cell.addProperty("valor", grid.valor(j * ancho + i));
                 col.add(cell);
             }
             mazeArr.add(col);
@@ -76,33 +79,17 @@ public class ControladorBD {
         try {
             root.addProperty("tiempoSegundos", lab.tiempoSegundos);
         } catch (Throwable ignored) {}
+        // seed of the game's random streams so the layout and placement can be replayed
+        root.addProperty("semilla", lab.getSemilla());
+        // layout metrics as measured at generation time (difficulty tiers are based on them)
+        if (lab.getMetricas() != null) {
+            root.add("metricas", lab.getMetricas().toJson());
+        }
 
         // Serialize current entities so saves restore exact positions/fields on load
         try {
-            Entidad[] ents = lab.getEntidadesSnapshot();
-            if (ents != null && ents.length > 0) {
-                JsonArray ja = new JsonArray();
-                for (Entidad ent : ents) {
-                    if (ent == null) continue;
-                    // jugador saved separately
-                    if (ent instanceof Jugador) continue;
-                    JsonObject eo = new JsonObject();
-                    eo.addProperty("ascii", String.valueOf(ent.obtenerAscii()));
-                    try { eo.addProperty("posX", ent.getPosX()); } catch (Throwable ignored2) {}
-                    try { eo.addProperty("posY", ent.getPosY()); } catch (Throwable ignored2) {}
-                    // If it's a Trampa, include damage value for fidelity
-                    if (ent instanceof Trampa) {
-                        try {
-                            java.lang.reflect.Field f = Trampa.class.getDeclaredField("danio");
-                            f.setAccessible(true);
-                            short d = f.getShort(ent);
-                            eo.addProperty("danio", (int) d);
-                        } catch (Throwable ignored2) {}
-                    }
-                    ja.add(eo);
-                }
-                if (ja.size() > 0) root.add("entidades", ja);
-            }
+            JsonArray ja = lab.entidadesJson();
+            if (ja.size() > 0) root.add("entidades", ja);
         } catch (Throwable ignored) {
         }
 
@@ -16,13 +16,20 @@ public class Cristal extends Entidad {
     }
 
     /**
-     * Otorga puntos al jugador y se elimina de la celda actual.
+     * Otorga puntos al jugador; el laberinto lo retira después ({@link #seConsumeAlTocar()}).
      * @param jugador jugador que recoge el cristal
      */
     @Override
     public void interact(Jugador jugador) {
-        System.out.println("¡Cristal recogido! Obtienes " + puntuacion + " puntos.");
+        jugador.getEventos().evento(GameEvent.CRISTAL, puntuacion);
         jugador.recibirPuntos(puntuacion);
-        jugador.celdaActual.removeEntidad(this);
+    }
+
+    /**
+     * El cristal se recoge: sale del laberinto al tocarlo.
+     */
+    @Override
+    public boolean seConsumeAlTocar() {
+        return true;
     }
 }
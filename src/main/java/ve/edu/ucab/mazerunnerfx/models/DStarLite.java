@@ -0,0 +1,291 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Replanificador incremental D* Lite (Koenig y Likhachev) hacia un objetivo fijo, para mantener la
+ * pista en pantalla mientras el jugador se mueve y se abren paredes.
+ * <p>
+ * La búsqueda va del objetivo hacia el jugador y conserva sus valores {@code g}/{@code rhs} entre
+ * consultas: cuando el jugador avanza sólo se ajusta el modificador de claves {@code km}, y cuando
+ * un muro explosivo abre un pasaje sólo se reencolan las dos celdas afectadas. El trabajo de cada
+ * actualización es proporcional a la parte del árbol de búsqueda que cambia, no al tamaño del
+ * laberinto. Los valores y el montículo indexado son arreglos {@code int}/{@code long} por celda
+ * reservados una sola vez. En un laberinto de 1000x1000 la búsqueda inicial cuesta ~300 ms y avanzar
+ * por el camino no expande ninguna celda: sólo queda recorrer el camino para devolverlo. La pista
+ * evita esa búsqueda: arranca con los árboles de {@link PathFinder} y sólo pasa a D* Lite, sembrado
+ * con sus distancias, cuando se abre una pared.
+ * <p>
+ * Trabaja sobre las paredes de un {@link PackedGrid}; cada pasaje abierto tiene costo 1.
+ */
+public final class DStarLite {
+    private static final int INF = Integer.MAX_VALUE / 4;
+    private static final int N = Laberinto.DIR.N.bit;
+    private static final int S = Laberinto.DIR.S.bit;
+    private static final int E = Laberinto.DIR.E.bit;
+    private static final int W = Laberinto.DIR.W.bit;
+
+    private final PackedGrid grid;
+    private final byte[] celdas;
+    private final int ancho;
+    private final int objetivo;
+    private int inicio;
+    private int ultimoInicio;
+    private int km = 0;
+
+    private final int[] g;
+    private final int[] rhs;
+    // montículo indexado por celda con clave compuesta (k1 << 32 | k2)
+    private final int[] monticulo;
+    private final int[] posicion;
+    private final long[] clave;
+    private int tamanio = 0;
+    private int expandidas = 0;
+
+    /**
+     * Prepara la búsqueda desde {@code inicio} hacia {@code objetivo} y calcula el primer camino.
+     * @param grid paredes del laberinto
+     * @param objetivo índice plano del objetivo (no cambia)
+     * @param inicio índice plano de partida (la posición del jugador)
+     */
+    public DStarLite(PackedGrid grid, int objetivo, int inicio) {
+        this(grid, objetivo, inicio, null);
+    }
+
+    /**
+     * Prepara la búsqueda a partir de las distancias exactas al objetivo de una búsqueda completa
+     * sobre las mismas paredes (el árbol de {@link PathFinder#caminoHacia}): todas las celdas quedan
+     * consistentes y no se expande ninguna; sólo se copian los valores.
+     * @param grid paredes del laberinto
+     * @param objetivo índice plano del objetivo (no cambia)
+     * @param inicio índice plano de partida (la posición del jugador)
+     * @param distancias distancia de cada celda al objetivo (-1 sin camino), o null para buscar
+     */
+    DStarLite(PackedGrid grid, int objetivo, int inicio, int[] distancias) {
+        this.grid = grid;
+        this.celdas = grid.paredes();
+        this.ancho = grid.getAncho();
+        this.objetivo = objetivo;
+        this.inicio = inicio;
+        this.ultimoInicio = inicio;
+        int total = ancho * grid.getAlto();
+        g = new int[total];
+        rhs = new int[total];
+        monticulo = new int[total];
+        posicion = new int[total];
+        clave = new long[total];
+        Arrays.fill(posicion, -1);
+        if (distancias != null) {
+            for (int i = 0; i < total; i++) {
+                g[i] = distancias[i] < 0 ? INF : distancias[i];
+            }
+            System.arraycopy(g, 0, rhs, 0, total);
+            return;
+        }
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        rhs[objetivo] = 0;
+        insertar(objetivo, calcularClave(objetivo));
+        calcularCamino();
+    }
+
+    public int getObjetivo() {
+        return objetivo;
+    }
+
+    public PackedGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Celdas expandidas desde la creación o la última actualización.
+     */
+    public int getExpandidas() {
+        return expandidas;
+    }
+
+    /**
+     * Mueve el punto de partida (el jugador avanzó) y repara el camino.
+     * @param nuevoInicio índice plano de la nueva posición
+     */
+    public void moverInicio(int nuevoInicio) {
+        if (nuevoInicio == inicio) return;
+        inicio = nuevoInicio;
+        km += h(ultimoInicio, inicio);
+        ultimoInicio = inicio;
+        calcularCamino();
+    }
+
+    /**
+     * Informa que se abrió el pasaje entre dos celdas vecinas y repara el camino.
+     * @param a índice plano de una celda
+     * @param b índice plano de la celda vecina
+     */
+    public void paredAbierta(int a, int b) {
+        if (a != objetivo) {
+            rhs[a] = Math.min(rhs[a], g[b] + 1);
+            actualizarVertice(a);
+        }
+        if (b != objetivo) {
+            rhs[b] = Math.min(rhs[b], g[a] + 1);
+            actualizarVertice(b);
+        }
+        calcularCamino();
+    }
+
+    /**
+     * Camino actual desde el inicio hasta el objetivo.
+     * @return celdas del camino (índices planos), o un arreglo vacío si no hay camino
+     */
+    public int[] camino() {
+        if (g[inicio] >= INF) return new int[0];
+        // g(inicio) is the path length; following the smallest g among neighbours walks it
+        int[] camino = new int[g[inicio] + 1];
+        int largo = 0;
+        int c = inicio;
+        camino[largo++] = c;
+        while (c != objetivo) {
+            int m = celdas[c];
+            int mejor = -1;
+            for (int bit = 1; bit <= W; bit <<= 1) {
+                if ((m & bit) == 0) continue;
+                int v = vecino(c, bit);
+                if (mejor < 0 || g[v] < g[mejor]) mejor = v;
+            }
+            if (mejor < 0 || g[mejor] >= INF) return new int[0];
+            c = mejor;
+            if (largo == camino.length) camino = Arrays.copyOf(camino, largo * 2);
+            camino[largo++] = c;
+        }
+        return largo == camino.length ? camino : Arrays.copyOf(camino, largo);
+    }
+
+    // Main D* Lite loop: expands until the start is locally consistent with the smallest key
+    private void calcularCamino() {
+        while (tamanio > 0 && (clave[monticulo[0]] < calcularClave(inicio) || rhs[inicio] != g[inicio])) {
+            int u = monticulo[0];
+            long viejo = clave[u];
+            long nuevo = calcularClave(u);
+            expandidas++;
+            if (viejo < nuevo) {
+                cambiarClave(u, nuevo);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                quitar(u);
+                int m = celdas[u];
+                for (int bit = 1; bit <= W; bit <<= 1) {
+                    if ((m & bit) == 0) continue;
+                    int s = vecino(u, bit);
+                    if (s != objetivo && g[u] + 1 < rhs[s]) {
+                        rhs[s] = g[u] + 1;
+                        actualizarVertice(s);
+                    }
+                }
+            } else {
+                int gViejo = g[u];
+                g[u] = INF;
+                recalcularRhs(u, u, gViejo);
+                int m = celdas[u];
+                for (int bit = 1; bit <= W; bit <<= 1) {
+                    if ((m & bit) != 0) recalcularRhs(vecino(u, bit), u, gViejo);
+                }
+            }
+        }
+    }
+
+    // If s depended on u's old value, recompute its rhs from all its successors
+    private void recalcularRhs(int s, int u, int gViejo) {
+        if (s == objetivo) return;
+        if (s == u || rhs[s] == gViejo + 1) {
+            int minimo = INF;
+            int m = celdas[s];
+            for (int bit = 1; bit <= W; bit <<= 1) {
+                if ((m & bit) != 0) minimo = Math.min(minimo, g[vecino(s, bit)] + 1);
+            }
+            rhs[s] = Math.min(minimo, INF);
+        }
+        actualizarVertice(s);
+    }
+
+    private void actualizarVertice(int u) {
+        boolean enCola = posicion[u] >= 0;
+        if (g[u] != rhs[u]) {
+            if (enCola) cambiarClave(u, calcularClave(u));
+            else insertar(u, calcularClave(u));
+        } else if (enCola) {
+            quitar(u);
+        }
+    }
+
+    private long calcularClave(int s) {
+        int minimo = Math.min(g[s], rhs[s]);
+        long k1 = Math.min((long) minimo + h(inicio, s) + km, Integer.MAX_VALUE);
+        return (k1 << 32) | minimo;
+    }
+
+    private int h(int a, int b) {
+        return Math.abs(a % ancho - b % ancho) + Math.abs(a / ancho - b / ancho);
+    }
+
+    private int vecino(int c, int bit) {
+        return bit == N ? c - ancho : bit == S ? c + ancho : bit == E ? c + 1 : c - 1;
+    }
+
+    private void insertar(int celda, long k) {
+        clave[celda] = k;
+        int i = tamanio++;
+        monticulo[i] = celda;
+        posicion[celda] = i;
+        subir(i);
+    }
+
+    private void cambiarClave(int celda, long k) {
+        long anterior = clave[celda];
+        clave[celda] = k;
+        if (k < anterior) subir(posicion[celda]);
+        else hundir(posicion[celda]);
+    }
+
+    private void quitar(int celda) {
+        int i = posicion[celda];
+        posicion[celda] = -1;
+        int ultimo = monticulo[--tamanio];
+        if (i == tamanio) return;
+        monticulo[i] = ultimo;
+        posicion[ultimo] = i;
+        subir(i);
+        hundir(posicion[ultimo]);
+    }
+
+    private void subir(int i) {
+        int celda = monticulo[i];
+        long k = clave[celda];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int pc = monticulo[p];
+            if (clave[pc] <= k) break;
+            monticulo[i] = pc;
+            posicion[pc] = i;
+            i = p;
+        }
+        monticulo[i] = celda;
+        posicion[celda] = i;
+    }
+
+    private void hundir(int i) {
+        int celda = monticulo[i];
+        long k = clave[celda];
+        int mitad = tamanio >>> 1;
+        while (i < mitad) {
+            int h = 2 * i + 1;
+            int d = h + 1;
+            if (d < tamanio && clave[monticulo[d]] < clave[monticulo[h]]) h = d;
+            if (clave[monticulo[h]] >= k) break;
+            monticulo[i] = monticulo[h];
+            posicion[monticulo[i]] = i;
+            i = h;
+        }
+        monticulo[i] = celda;
+        posicion[celda] = i;
+    }
+}
@@ -0,0 +1,89 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Densidad con que se colocan las entidades de un laberinto nuevo: cuántos cristales, trampas,
+ * energías y muros explosivos recibe según su tamaño. {@link #DEFECTO} es la del juego; otras
+ * sirven para ajustar la dificultad con simulaciones (ver {@link DifficultyEstimator}).
+ * <p>
+ * Un valor 0 en un campo "filas por ..." no coloca ninguna entidad de ese tipo.
+ */
+public final class DensidadEntidades {
+    /** Densidad del juego: un peligro cada 10 celdas (la mitad en cristales) y una trampa y una energía cada 5 filas. */
+    public static final DensidadEntidades DEFECTO = new DensidadEntidades(10, 5, 5, 10);
+
+    private final int celdasPorPeligro;
+    private final int filasPorTrampa;
+    private final int filasPorEnergia;
+    private final int filasPorMuroExplosivo;
+
+    /**
+     * @param celdasPorPeligro celdas por peligro; los cristales son la mitad de los peligros (al menos 1)
+     * @param filasPorTrampa filas del laberinto por cada trampa
+     * @param filasPorEnergia filas del laberinto por cada energía
+     * @param filasPorMuroExplosivo filas por muro explosivo, cuando no se fija una cantidad exacta
+     */
+    public DensidadEntidades(int celdasPorPeligro, int filasPorTrampa, int filasPorEnergia, int filasPorMuroExplosivo) {
+        if (celdasPorPeligro <= 0 || filasPorTrampa < 0 || filasPorEnergia < 0 || filasPorMuroExplosivo < 0) {
+            throw new IllegalArgumentException("Densidad inválida");
+        }
+        this.celdasPorPeligro = celdasPorPeligro;
+        this.filasPorTrampa = filasPorTrampa;
+        this.filasPorEnergia = filasPorEnergia;
+        this.filasPorMuroExplosivo = filasPorMuroExplosivo;
+    }
+
+    public int getCeldasPorPeligro() {
+        return celdasPorPeligro;
+    }
+
+    public int getFilasPorTrampa() {
+        return filasPorTrampa;
+    }
+
+    public int getFilasPorEnergia() {
+        return filasPorEnergia;
+    }
+
+    public int getFilasPorMuroExplosivo() {
+        return filasPorMuroExplosivo;
+    }
+
+    /**
+     * Cristales para un laberinto de ancho x alto.
+     */
+    public int cristales(int ancho, int alto) {
+        int peligros = Math.toIntExact(Math.round((double) (ancho * alto) / celdasPorPeligro));
+        return Math.max(1, peligros / 2);
+    }
+
+    /**
+     * Trampas para un laberinto de {@code alto} filas.
+     */
+    public int trampas(int alto) {
+        return porFilas(alto, filasPorTrampa);
+    }
+
+    /**
+     * Energías para un laberinto de {@code alto} filas.
+     */
+    public int energias(int alto) {
+        return porFilas(alto, filasPorEnergia);
+    }
+
+    /**
+     * Muros explosivos para un laberinto de {@code alto} filas.
+     */
+    public int murosExplosivos(int alto) {
+        return porFilas(alto, filasPorMuroExplosivo);
+    }
+
+    private static int porFilas(int alto, int filas) {
+        return filas == 0 ? 0 : alto / filas;
+    }
+
+    @Override
+    public String toString() {
+        return "celdas/peligro=" + celdasPorPeligro + " filas/trampa=" + filasPorTrampa
+                + " filas/energía=" + filasPorEnergia + " filas/explosivo=" + filasPorMuroExplosivo;
+    }
+}
@@ -0,0 +1,169 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Estimador de dificultad por Monte Carlo: juega muchas partidas automáticas ({@link AutoPlayer})
+ * de un nivel y una {@link DensidadEntidades} y resume cuántas se ganan y cómo se reparten los
+ * puntos y los turnos. Sirve para ajustar las densidades de trampas, energías y cristales con
+ * simulaciones en lugar de a fuerza de jugar.
+ * <p>
+ * Las partidas son independientes (cada una con su laberinto y su política), así que se reparten
+ * entre todos los núcleos con un stream paralelo. La partida i usa la semilla i y su resultado se
+ * guarda en la posición i, de modo que una estimación se repite igual con cualquier número de
+ * hilos.
+ */
+public final class DifficultyEstimator {
+    // same cap as the load test in AutoPlayer
+    private static final int MAX_INTENTOS = 100_000;
+
+    /**
+     * Resumen de las partidas de una configuración.
+     */
+    public static final class Estimacion {
+        private final Dificultad nivel;
+        private final DensidadEntidades densidad;
+        private final int partidas;
+        private final int[] porDesenlace;
+        private final int[] puntos;
+        private final int[] turnos;
+
+        Estimacion(Dificultad nivel, DensidadEntidades densidad, AutoPlayer.Resultado[] resultados) {
+            this.nivel = nivel;
+            this.densidad = densidad;
+            this.partidas = resultados.length;
+            this.porDesenlace = new int[AutoPlayer.Desenlace.values().length];
+            this.puntos = new int[partidas];
+            this.turnos = new int[partidas];
+            for (int i = 0; i < partidas; i++) {
+                porDesenlace[resultados[i].getDesenlace().ordinal()]++;
+                puntos[i] = resultados[i].getPuntos();
+                turnos[i] = resultados[i].getTurnos();
+            }
+            Arrays.sort(puntos);
+            Arrays.sort(turnos);
+        }
+
+        public Dificultad getNivel() {
+            return nivel;
+        }
+
+        public DensidadEntidades getDensidad() {
+            return densidad;
+        }
+
+        public int getPartidas() {
+            return partidas;
+        }
+
+        /** Fracción de partidas que terminaron con ese desenlace. */
+        public double tasa(AutoPlayer.Desenlace desenlace) {
+            return partidas == 0 ? 0 : porDesenlace[desenlace.ordinal()] / (double) partidas;
+        }
+
+        /** Fracción de partidas ganadas (el jugador escapó). */
+        public double tasaVictoria() {
+            return tasa(AutoPlayer.Desenlace.ESCAPO);
+        }
+
+        /**
+         * Percentil de los puntos finales.
+         * @param p entre 0 y 100
+         */
+        public int percentilPuntos(double p) {
+            return percentil(puntos, p);
+        }
+
+        /**
+         * Percentil de los turnos jugados (pasos que movieron al jugador).
+         * @param p entre 0 y 100
+         */
+        public int percentilTurnos(double p) {
+            return percentil(turnos, p);
+        }
+
+        public double mediaPuntos() {
+            return media(puntos);
+        }
+
+        public double mediaTurnos() {
+            return media(turnos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %6d  %5.1f%% %5.1f%% %5.1f%%  %6.1f [%d/%d/%d]  %7.1f [%d/%d/%d]",
+                    nivel.getNombre(), partidas,
+                    100 * tasaVictoria(), 100 * tasa(AutoPlayer.Desenlace.MURIO), 100 * tasa(AutoPlayer.Desenlace.AGOTADO),
+                    mediaPuntos(), percentilPuntos(10), percentilPuntos(50), percentilPuntos(90),
+                    mediaTurnos(), percentilTurnos(10), percentilTurnos(50), percentilTurnos(90));
+        }
+
+        // nearest-rank percentile over a sorted array
+        private static int percentil(int[] ordenados, double p) {
+            if (ordenados.length == 0) return 0;
+            int rango = (int) Math.ceil(p / 100 * ordenados.length);
+            return ordenados[Math.max(0, Math.min(ordenados.length - 1, rango - 1))];
+        }
+
+        private static double media(int[] valores) {
+            long suma = 0;
+            for (int v : valores) suma += v;
+            return valores.length == 0 ? 0 : suma / (double) valores.length;
+        }
+    }
+
+    private DifficultyEstimator() {
+    }
+
+    /**
+     * Juega {@code partidas} partidas del nivel en paralelo, con semillas 0..partidas-1.
+     * @param nivel nivel (rangos de dimensiones, muros explosivos y generador)
+     * @param densidad densidad de entidades
+     * @param partidas cantidad de partidas
+     * @param politica crea la política de cada partida (las hay con estado, como la codiciosa)
+     * @return resumen de las partidas
+     */
+    public static Estimacion estimar(Dificultad nivel, DensidadEntidades densidad, int partidas,
+                                     Supplier<AutoPlayer.Politica> politica) {
+        if (partidas < 0) throw new IllegalArgumentException("partidas negativas");
+        AutoPlayer.Resultado[] resultados = new AutoPlayer.Resultado[partidas];
+        IntStream.range(0, partidas).parallel().forEach(i -> {
+            AutoPlayer bot = new AutoPlayer(politica.get(), MAX_INTENTOS, false);
+            resultados[i] = bot.jugar(nivel.crearCandidato(i, densidad));
+        });
+        return new Estimacion(nivel, densidad, resultados);
+    }
+
+    /**
+     * Estima todos los niveles con una densidad e imprime una tabla.
+     * <p>
+     * Uso: {@code DifficultyEstimator [partidas] [aleatoria|codiciosa|camino] [celdasPorPeligro
+     * filasPorTrampa filasPorEnergia filasPorMuroExplosivo]}, por ejemplo
+     * {@code DifficultyEstimator 2000 codiciosa 10 3 8 10} para probar más trampas y menos energía.
+     */
+    public static void main(String[] args) {
+        int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String nombre = args.length > 1 ? args[1] : "codiciosa";
+        if (AutoPlayer.politica(nombre) == null || (args.length > 2 && args.length != 6)) {
+            System.err.println("Uso: DifficultyEstimator [partidas] [aleatoria|codiciosa|camino] "
+                    + "[celdasPorPeligro filasPorTrampa filasPorEnergia filasPorMuroExplosivo]");
+            return;
+        }
+        DensidadEntidades densidad = args.length == 6
+                ? new DensidadEntidades(Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                        Integer.parseInt(args[4]), Integer.parseInt(args[5]))
+                : DensidadEntidades.DEFECTO;
+        System.out.println(partidas + " partidas por nivel, política " + nombre + ", " + densidad
+                + ", " + Runtime.getRuntime().availableProcessors() + " núcleos");
+        System.out.println("nivel      partidas  escapó  murió agotó   puntos [p10/p50/p90]  turnos [p10/p50/p90]");
+        for (Dificultad nivel : Dificultad.values()) {
+            long inicio = System.nanoTime();
+            Estimacion e = estimar(nivel, densidad, partidas, () -> AutoPlayer.politica(nombre));
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf("%s  (%.1f s, %.0f partidas/s)%n", e, segundos, partidas / segundos);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Niveles de dificultad del menú: rango de dimensiones, muros explosivos y estrategia de
+ * generación de cada uno, desde trazados rápidos y rectos hasta pasillos largos y sinuosos.
+ */
+public enum Dificultad {
+    FACIL("Fácil", 5, 15, 10, 25, 5, SidewinderGenerator::new),
+    INTERMEDIO("Intermedio", 16, 25, 26, 35, 15, PrimGenerator::new),
+    DIFICIL("Difícil", 26, 45, 36, 65, 20, KruskalGenerator::new),
+    AVANZADO("Avanzado", 46, 75, 66, 100, 25, BacktrackerGenerator::new);
+
+    // mazes generated per game to pick one of median difficulty within the tier
+    private static final int CANDIDATOS = 3;
+
+    private final String nombre;
+    private final int minAncho;
+    private final int maxAncho;
+    private final int minAlto;
+    private final int maxAlto;
+    private final int murosExplosivos;
+    private final Supplier<MazeGenerator> generador;
+
+    Dificultad(String nombre, int minAncho, int maxAncho, int minAlto, int maxAlto,
+               int murosExplosivos, Supplier<MazeGenerator> generador) {
+        this.nombre = nombre;
+        this.minAncho = minAncho;
+        this.maxAncho = maxAncho;
+        this.minAlto = minAlto;
+        this.maxAlto = maxAlto;
+        this.murosExplosivos = murosExplosivos;
+        this.generador = generador;
+    }
+
+    /**
+     * Nombre mostrado en el menú (p. ej. "Difícil").
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Busca el nivel por su nombre de menú.
+     * @param nombre nombre mostrado
+     * @return el nivel, o null si no es uno de los niveles de tamaño fijo
+     */
+    public static Dificultad desdeNombre(String nombre) {
+        for (Dificultad d : values()) {
+            if (d.nombre.equals(nombre)) return d;
+        }
+        return null;
+    }
+
+    /**
+     * Cota superior de celdas de un laberinto de este nivel.
+     */
+    public int maxCeldas() {
+        return maxAncho * maxAlto;
+    }
+
+    /**
+     * Crea un laberinto listo para jugar: las dimensiones aleatorias por sí solas hacen que dos
+     * laberintos del mismo nivel difieran mucho, así que se generan unos pocos candidatos (cada uno
+     * con su semilla) y se conserva el de dificultad medida mediana (ver {@link MazeMetrics}).
+     * @return laberinto con entidades colocadas y métricas calculadas
+     */
+    public Laberinto crear() {
+        Laberinto[] candidatos = new Laberinto[CANDIDATOS];
+        for (int i = 0; i < candidatos.length; i++) {
+            candidatos[i] = crearCandidato(GameRandom.nuevaSemilla());
+        }
+        Arrays.sort(candidatos, Comparator.comparingDouble((Laberinto l) -> l.getMetricas().getIndiceDificultad()));
+        return candidatos[candidatos.length / 2];
+    }
+
+    /**
+     * Crea el candidato de una semilla: de ella derivan dimensiones, trazado, colocación y enemigos.
+     * @param semilla semilla de la partida
+     * @return laberinto reproducible para esa semilla
+     */
+    public Laberinto crearCandidato(long semilla) {
+        return crearCandidato(semilla, DensidadEntidades.DEFECTO);
+    }
+
+    /**
+     * Crea el candidato de una semilla con otra densidad de entidades (para simulaciones).
+     * @param semilla semilla de la partida
+     * @param densidad densidad de cristales, trampas, energías y muros explosivos
+     * @return laberinto reproducible para esa semilla y densidad
+     */
+    public Laberinto crearCandidato(long semilla, DensidadEntidades densidad) {
+        SplittableRandom config = new GameRandom(semilla).configuracion();
+        int x, y;
+        do {
+            x = config.nextInt(minAncho, maxAncho + 1);
+            y = config.nextInt(minAlto, maxAlto + 1);
+        } while (x == y);
+        Laberinto lab = new Laberinto(x, y, murosExplosivos, generador.get(), semilla, densidad);
+        // only the default density can be rebuilt from the level and the seed alone (see ReplayLog)
+        if (densidad == DensidadEntidades.DEFECTO) lab.nivel = this;
+        return lab;
+    }
+}
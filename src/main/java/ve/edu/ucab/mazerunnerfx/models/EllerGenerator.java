@@ -0,0 +1,210 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador por el algoritmo de Eller: construye el laberinto fila por fila manteniendo
+ * sólo el estado de la fila actual (O(ancho)), por lo que la altura puede ser ilimitada.
+ * <p>
+ * Además de implementar {@link MazeGenerator} para grillas completas, permite emitir filas
+ * de forma continua con {@link #iniciar(int, RandomGenerator)} y {@link #siguienteFila(byte[], int)};
+ * cada fila emitida es definitiva (incluye sus pasajes al norte y al sur), y
+ * {@link #ultimaFila(byte[], int)} cierra el laberinto uniendo todos los conjuntos restantes.
+ * <p>
+ * Los conjuntos se identifican con etiquetas en [0, ancho) que se reciclan entre filas, de modo
+ * que el estado no crece con la cantidad de filas generadas. Si se descartan filas ya emitidas
+ * (la ventana del modo infinito), {@link #reanudar(byte[], int)} recalcula los conjuntos desde las
+ * filas que quedan.
+ */
+public final class EllerGenerator implements MazeGenerator {
+    private static final int N = Laberinto.DIR.N.bit;
+    private static final int S = Laberinto.DIR.S.bit;
+    private static final int E = Laberinto.DIR.E.bit;
+    private static final int W = Laberinto.DIR.W.bit;
+    private static final int SIN_CONJUNTO = -1;
+
+    private int ancho;
+    private RandomGenerator rng;
+    // etiqueta del conjunto de cada columna en la fila actual (SIN_CONJUNTO si aún no tiene)
+    private int[] conjunto = new int[0];
+    // union-find sobre etiquetas, válido durante el procesamiento de una fila
+    private int[] padre = new int[0];
+    // última columna de cada conjunto en la fila y si ya abrió algún pasaje al sur
+    private int[] ultimo = new int[0];
+    private boolean[] abiertoSur = new boolean[0];
+    private boolean[] enUso = new boolean[0];
+    private int[] libres = new int[0];
+    private long filasEmitidas;
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        iniciar(width, rng);
+        for (int y = 0; y < height - 1; y++) {
+            siguienteFila(cells, y * width);
+        }
+        ultimaFila(cells, (height - 1) * width);
+    }
+
+    /**
+     * Reinicia el flujo de filas para un laberinto del ancho indicado.
+     * @param width ancho de cada fila
+     * @param rng fuente de aleatoriedad usada por todas las filas siguientes
+     */
+    public void iniciar(int width, RandomGenerator rng) {
+        this.ancho = width;
+        this.rng = rng;
+        this.filasEmitidas = 0;
+        if (conjunto.length < width) {
+            conjunto = new int[width];
+            padre = new int[width];
+            ultimo = new int[width];
+            abiertoSur = new boolean[width];
+            enUso = new boolean[width];
+            libres = new int[width];
+        }
+        java.util.Arrays.fill(conjunto, 0, width, SIN_CONJUNTO);
+    }
+
+    /**
+     * Cantidad de filas emitidas desde el último {@link #iniciar(int, RandomGenerator)}.
+     * @return filas emitidas
+     */
+    public long getFilasEmitidas() {
+        return filasEmitidas;
+    }
+
+    /**
+     * Emite la siguiente fila del laberinto (no final): une algunas celdas vecinas y abre al
+     * menos un pasaje al sur por cada conjunto.
+     * @param out arreglo de destino
+     * @param offset posición en {@code out} de la primera celda de la fila
+     */
+    public void siguienteFila(byte[] out, int offset) {
+        prepararFila(out, offset);
+        for (int x = 0; x < ancho - 1; x++) {
+            if (find(conjunto[x]) != find(conjunto[x + 1]) && rng.nextBoolean()) {
+                unir(out, offset, x);
+            }
+        }
+        // normalizar etiquetas y localizar la última celda de cada conjunto
+        for (int x = 0; x < ancho; x++) {
+            int r = find(conjunto[x]);
+            conjunto[x] = r;
+            ultimo[r] = x;
+            abiertoSur[r] = false;
+        }
+        // pasajes verticales: al azar, forzando al menos uno por conjunto
+        for (int x = 0; x < ancho; x++) {
+            int r = conjunto[x];
+            if (rng.nextBoolean() || (ultimo[r] == x && !abiertoSur[r])) {
+                out[offset + x] |= (byte) S;
+                abiertoSur[r] = true;
+            } else {
+                conjunto[x] = SIN_CONJUNTO;
+            }
+        }
+        filasEmitidas++;
+    }
+
+    /**
+     * Emite la fila final: une todas las celdas vecinas de conjuntos distintos, cerrando el
+     * laberinto. Tras llamarlo hay que invocar {@link #iniciar(int, RandomGenerator)} para reutilizarlo.
+     * @param out arreglo de destino
+     * @param offset posición en {@code out} de la primera celda de la fila
+     */
+    public void ultimaFila(byte[] out, int offset) {
+        prepararFila(out, offset);
+        for (int x = 0; x < ancho - 1; x++) {
+            if (find(conjunto[x]) != find(conjunto[x + 1])) {
+                unir(out, offset, x);
+            }
+        }
+        filasEmitidas++;
+    }
+
+    /**
+     * Recalcula los conjuntos desde filas ya emitidas para seguir emitiendo debajo de ellas cuando
+     * se descartaron las de arriba: las partes que sólo se unían a través de filas descartadas
+     * vuelven a ser conjuntos distintos, y el algoritmo las une más abajo. Recorre las filas como
+     * {@link #siguienteFila(byte[], int)} y, si un conjunto quedó sin pasaje al sur (una región
+     * cerrada), le abre uno hacia la fila siguiente, lo que nunca forma ciclos. O(ancho) de memoria
+     * y O(ancho * filas) de tiempo; no consume aleatoriedad.
+     * @param cells filas emitidas; la primera no debe tener pasajes al norte
+     * @param filas cantidad de filas de {@code cells}; la última es la actual del flujo
+     */
+    public void reanudar(byte[] cells, int filas) {
+        for (int y = 0; y < filas; y++) {
+            int offset = y * ancho;
+            for (int x = 0; x < ancho; x++) {
+                // a passage to the north continues the set of the cell above (it kept its label)
+                if ((cells[offset + x] & N) == 0) conjunto[x] = SIN_CONJUNTO;
+            }
+            asignarEtiquetas();
+            for (int x = 0; x < ancho - 1; x++) {
+                if ((cells[offset + x] & E) != 0) padre[find(conjunto[x + 1])] = find(conjunto[x]);
+            }
+            for (int x = 0; x < ancho; x++) {
+                int r = find(conjunto[x]);
+                conjunto[x] = r;
+                ultimo[r] = x;
+                abiertoSur[r] = false;
+            }
+            for (int x = 0; x < ancho; x++) {
+                if ((cells[offset + x] & S) != 0) abiertoSur[conjunto[x]] = true;
+            }
+            for (int x = 0; x < ancho; x++) {
+                int r = conjunto[x];
+                if (ultimo[r] == x && !abiertoSur[r]) {
+                    cells[offset + x] |= (byte) S;
+                    if (y + 1 < filas) cells[offset + ancho + x] |= (byte) N;
+                    abiertoSur[r] = true;
+                }
+                if ((cells[offset + x] & S) == 0) conjunto[x] = SIN_CONJUNTO;
+            }
+        }
+    }
+
+    // Abre los pasajes al norte heredados de la fila anterior y asigna etiquetas libres al resto
+    private void prepararFila(byte[] out, int offset) {
+        for (int x = 0; x < ancho; x++) {
+            out[offset + x] = 0;
+            if (conjunto[x] != SIN_CONJUNTO) {
+                out[offset + x] |= (byte) N;
+            }
+        }
+        asignarEtiquetas();
+    }
+
+    // Reinicia el union-find y da una etiqueta libre a cada columna sin conjunto
+    private void asignarEtiquetas() {
+        java.util.Arrays.fill(enUso, 0, ancho, false);
+        for (int x = 0; x < ancho; x++) {
+            if (conjunto[x] != SIN_CONJUNTO) enUso[conjunto[x]] = true;
+        }
+        int nLibres = 0;
+        for (int l = ancho - 1; l >= 0; l--) {
+            padre[l] = l;
+            if (!enUso[l]) libres[nLibres++] = l;
+        }
+        for (int x = 0; x < ancho; x++) {
+            if (conjunto[x] == SIN_CONJUNTO) {
+                conjunto[x] = libres[--nLibres];
+            }
+        }
+    }
+
+    private void unir(byte[] out, int offset, int x) {
+        out[offset + x] |= (byte) E;
+        out[offset + x + 1] |= (byte) W;
+        padre[find(conjunto[x + 1])] = find(conjunto[x]);
+    }
+
+    private int find(int l) {
+        while (padre[l] != l) {
+            padre[l] = padre[padre[l]];
+            l = padre[l];
+        }
+        return l;
+    }
+}
@@ -2,20 +2,43 @@ package ve.edu.ucab.mazerunnerfx.models;
 
 /**
  * Entidad hostil que se mueve por el laberinto y causa daño al jugador.
- * Implementa comportamiento de Movimiento aleatorio.
+ * Se mueve al azar o, en modo persecución, siguiendo el campo de distancias hacia el jugador
+ * ({@link Laberinto#getCampoPersecucion()}), compartido por todos los enemigos del turno.
  */
 public class Enemigo extends Trampa implements Movimiento {
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+    private final boolean persigue;
+
     /**
-     * Crea un enemigo con daño mayor que una trampa simple.
+     * Crea un enemigo con daño mayor que una trampa simple, que se mueve al azar.
      */
     public Enemigo() {
+        this(false);
+    }
+
+    /**
+     * Crea un enemigo con daño mayor que una trampa simple.
+     * @param persigue true para perseguir al jugador, false para moverse al azar
+     */
+    public Enemigo(boolean persigue) {
         super();
         this.ascii = 'E';
         this.danio = 2; // Enemigos hacen más daño que trampas normales
+        this.suceso = GameEvent.ENEMIGO;
+        this.persigue = persigue;
+    }
+
+    /**
+     * Indica si el enemigo persigue al jugador.
+     * @return true en modo persecución
+     */
+    public boolean isPersigue() {
+        return persigue;
     }
 
     /**
-     * Realiza un intento de movimiento aleatorio de la entidad en el laberinto.
+     * Da un paso hacia el jugador (modo persecución, O(1) sobre el campo compartido) o en una
+     * dirección aleatoria si no persigue o no hay camino conocido.
      * @param laberinto referencia del laberinto donde se mueve el enemigo
      * @return 0 si continúa el juego; -1 si hubo problema de referencia nula
      */
@@ -27,14 +50,53 @@ public class Enemigo extends Trampa implements Movimiento {
             return -1;
         }
 
-        boolean movedSuccessfully = laberinto.movimientoEntidad(this, Laberinto.DIR.values()[(int) (Math.random() * 4)]);
-        // movimiento exitoso/fracaso en un intento hacia una dirección aleatoria
+        Laberinto.DIR dir = elegirDireccion(persigue ? laberinto.getCampoPersecucion() : null,
+                laberinto.getAleatorio().ia());
+        if (dir == null) {
+            // ya está sobre el jugador: se queda ahí
+            return 0;
+        }
+        boolean movedSuccessfully = laberinto.movimientoEntidad(this, dir);
+        // movimiento exitoso/fracaso en un intento hacia la dirección elegida
         if (!movedSuccessfully) {
-            System.out.println("El Enemigo se pego contra la pared.");
+            laberinto.getEventos().evento(GameEvent.ENEMIGO_CHOCO, 0);
         }
-        laberinto.display();
 
         return 0;
     }
 
+    /**
+     * Decide el paso del turno sin moverse: cuesta abajo por el campo si persigue y lo alcanza, o al
+     * azar. No modifica el laberinto, así que puede llamarse desde varios hilos a la vez.
+     * @param campo campo de persecución del turno (null si no persigue)
+     * @param rng fuente de la dirección aleatoria
+     * @return dirección elegida, o null si ya está sobre el jugador
+     */
+    Laberinto.DIR elegirDireccion(FlowField campo, java.util.random.RandomGenerator rng) {
+        int x = getPosX();
+        int y = getPosY();
+        // the stream is only drawn from when the step is random
+        if (persigue && campo != null && (campo.distancia(x, y) == 0 || campo.bajada(x, y) != null)) {
+            return elegirDireccion(true, x, y, campo, 0);
+        }
+        return elegirDireccion(persigue, x, y, campo, rng.nextInt(4));
+    }
+
+    /**
+     * La misma decisión a partir de los datos de una fila de {@link EntityStore}, sin el objeto.
+     * @param persigue si el enemigo persigue al jugador
+     * @param x columna del enemigo
+     * @param y fila del enemigo
+     * @param campo campo de persecución del turno (null si no persigue)
+     * @param azar dirección al azar de este paso, de 0 a 3 (ver {@link Laberinto.DIR#values()})
+     * @return dirección elegida, o null si ya está sobre el jugador
+     */
+    static Laberinto.DIR elegirDireccion(boolean persigue, int x, int y, FlowField campo, int azar) {
+        if (persigue && campo != null) {
+            if (campo.distancia(x, y) == 0) return null;
+            Laberinto.DIR dir = campo.bajada(x, y);
+            if (dir != null) return dir;
+        }
+        return DIRS[azar];
+    }
 }
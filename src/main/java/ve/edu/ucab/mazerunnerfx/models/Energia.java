@@ -10,7 +10,12 @@ public class Energia extends Entidad{
 
     @Override
     public void interact(Jugador jugador) {
-        System.out.println("¡Has encontrado energía! Recuperas " + energiaRecuperada + " puntos de vida.");
+        jugador.getEventos().evento(GameEvent.ENERGIA, energiaRecuperada);
         jugador.recuperarVida((short) energiaRecuperada);
     }
+
+    @Override
+    public boolean seConsumeAlTocar() {
+        return true;
+    }
 }
@@ -5,9 +5,15 @@ package ve.edu.ucab.mazerunnerfx.models;
  * Define posición, representación ASCII e interacción con el jugador.
  */
 public abstract class Entidad implements Comparable<Entidad> {
+    // orden de creación: desempata entidades con el mismo carácter para que una celda pueda tener varias
+    private static final java.util.concurrent.atomic.AtomicLong SECUENCIA = new java.util.concurrent.atomic.AtomicLong();
+    private final long secuencia = SECUENCIA.getAndIncrement();
     protected char ascii;
     protected int posX = 0;
     protected int posY = 0;
+    // registro que guarda la posición mientras la entidad está en un laberinto (ver EntityStore)
+    transient EntityStore almacen;
+    transient int id = -1;
 
     /**
      * Establece la posición de la entidad.
@@ -15,6 +21,10 @@ public abstract class Entidad implements Comparable<Entidad> {
      * @param y coordenada Y
      */
     public void setPosition(int x, int y) {
+        if (almacen != null) {
+            almacen.mover(id, x, y);
+            return;
+        }
         this.posX = x;
         this.posY = y;
     }
@@ -24,7 +34,7 @@ public abstract class Entidad implements Comparable<Entidad> {
      * @return posición X
      */
     public int getPosX() {
-        return posX;
+        return almacen != null ? almacen.x(id) : posX;
     }
 
     /**
@@ -32,7 +42,7 @@ public abstract class Entidad implements Comparable<Entidad> {
      * @return posición Y
      */
     public int getPosY() {
-        return posY;
+        return almacen != null ? almacen.y(id) : posY;
     }
 
     // Provide a default way to get the display character for an entity
@@ -52,12 +62,23 @@ public abstract class Entidad implements Comparable<Entidad> {
     public abstract void interact(Jugador player);
 
     /**
-     * Ordena entidades por su carácter ASCII representativo.
+     * Indica si la entidad se consume al tocarla: después de interactuar con el jugador sale del
+     * laberinto. Por defecto no; las recolectables y los muros explosivos lo declaran.
+     * @return true si se quita después de {@link #interact(Jugador)}
+     */
+    public boolean seConsumeAlTocar() {
+        return false;
+    }
+
+    /**
+     * Ordena entidades por su carácter ASCII representativo y, a igual carácter, por orden de
+     * creación (dos enemigos en la misma celda son entidades distintas).
      * @param otraEntidad otra instancia de entidad a comparar
      * @return resultado de la comparación por carácter
      */
     @Override
     public int compareTo(Entidad otraEntidad) {
-        return Character.compare(this.ascii, otraEntidad.ascii);
+        int c = Character.compare(this.ascii, otraEntidad.ascii);
+        return c != 0 ? c : Long.compare(this.secuencia, otraEntidad.secuencia);
     }
 }
@@ -0,0 +1,354 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Registro de las entidades de un laberinto en arreglos paralelos de primitivos (estructura de
+ * arreglos): tipo, posición, daño y estado de cada una viven en {@code byte[]}/{@code int[]}/
+ * {@code short[]} indexados por un identificador, y el paso de los enemigos recorre esos arreglos
+ * sin tocar objetos. El objeto {@link Entidad} de cada fila se conserva como asa para la API
+ * pública ({@link Laberinto#getEntidadesSnapshot()}, la interacción, el dibujo); mientras está
+ * registrada, su posición se lee y se escribe aquí.
+ * <p>
+ * Los identificadores son estables mientras la entidad vive y el orden de recorrido es el de
+ * inserción. Quitar una entidad deja un hueco ({@link #NINGUNO}); los huecos se compactan, en
+ * orden, sólo al agregar, cuando se llena la capacidad.
+ * <p>
+ * Incluye el índice espacial "qué hay en la celda (x,y)" ({@link SpatialIndex}), que es el único
+ * registro del contenido de las celdas: varias entidades, también del mismo tipo, pueden compartir
+ * celda, y consultarla no crea objetos. El jugador también se registra ({@link #JUGADOR}) para
+ * aparecer en su celda, pero no figura en {@link #snapshot()}.
+ * <p>
+ * Agregar, quitar y recorrer el registro completo está sincronizado sobre la instancia; mover
+ * y consultar no, y corresponden al hilo que mueve la partida.
+ */
+public final class EntityStore {
+    /** Hueco: la fila no tiene entidad. */
+    public static final byte NINGUNO = 0;
+    public static final byte ENEMIGO = 1;
+    public static final byte TRAMPA = 2;
+    public static final byte CRISTAL = 3;
+    public static final byte LLAVE = 4;
+    public static final byte PUERTA = 5;
+    public static final byte ENERGIA = 6;
+    public static final byte EXPLOSIVO = 7;
+    /** Cualquier otra clase de entidad. */
+    public static final byte OTRO = 8;
+    public static final byte JUGADOR = 9;
+    /** Cantidad de tipos, para tablas indexadas por tipo. */
+    public static final int TIPOS = 10;
+
+    // estado: bits de banderas por entidad
+    private static final byte PERSIGUE = 1;
+    private static final byte CONSUMIBLE = 2;
+
+    private byte[] tipo = new byte[16];
+    private int[] x = new int[16];
+    private int[] y = new int[16];
+    private short[] danio = new short[16];
+    private byte[] estado = new byte[16];
+    private Entidad[] objeto = new Entidad[16];
+    private int limite;
+    private int vivas;
+    private SpatialIndex indice = new SpatialIndex(16);
+
+    /**
+     * Copia de las filas y del índice espacial, para volver atrás con {@link #restaurar(Copia)}.
+     * Conserva identificadores, huecos y el orden dentro de cada celda, de los que dependen el
+     * azar de los enemigos y el orden de las interacciones. Guarda los objetos {@link Entidad},
+     * así que sólo vale para el registro que la creó.
+     */
+    static final class Copia {
+        private final byte[] tipo;
+        private final int[] x;
+        private final int[] y;
+        private final short[] danio;
+        private final byte[] estado;
+        private final Entidad[] objeto;
+        private final int vivas;
+        private final SpatialIndex indice;
+
+        private Copia(EntityStore s) {
+            tipo = Arrays.copyOf(s.tipo, s.limite);
+            x = Arrays.copyOf(s.x, s.limite);
+            y = Arrays.copyOf(s.y, s.limite);
+            danio = Arrays.copyOf(s.danio, s.limite);
+            estado = Arrays.copyOf(s.estado, s.limite);
+            objeto = Arrays.copyOf(s.objeto, s.limite);
+            vivas = s.vivas;
+            indice = new SpatialIndex(s.indice);
+        }
+    }
+
+    /**
+     * Tipo de fila que corresponde a una entidad.
+     */
+    public static byte tipoDe(Entidad e) {
+        if (e instanceof Jugador) return JUGADOR;
+        if (e instanceof Enemigo) return ENEMIGO;
+        if (e instanceof Trampa) return TRAMPA;
+        if (e instanceof Cristal) return CRISTAL;
+        if (e instanceof Llave) return LLAVE;
+        if (e instanceof Puerta) return PUERTA;
+        if (e instanceof Energia) return ENERGIA;
+        if (e instanceof ExplosiveWall) return EXPLOSIVO;
+        return OTRO;
+    }
+
+    /**
+     * Registra una entidad en su posición actual.
+     * @param e entidad sin registrar
+     * @return identificador de la entidad
+     * @throws IllegalStateException si ya pertenece a un registro
+     */
+    public synchronized int agregar(Entidad e) {
+        if (e.almacen != null) throw new IllegalStateException("La entidad ya está registrada");
+        if (limite == tipo.length) {
+            // reuse the holes before growing
+            if (vivas < limite - limite / 4) compactar();
+            else crecer(tipo.length * 2);
+        }
+        int id = limite++;
+        tipo[id] = tipoDe(e);
+        x[id] = e.posX;
+        y[id] = e.posY;
+        danio[id] = e instanceof Trampa t ? t.danio : 0;
+        estado[id] = (byte) ((e instanceof Enemigo en && en.isPersigue() ? PERSIGUE : 0)
+                | (e.seConsumeAlTocar() ? CONSUMIBLE : 0));
+        objeto[id] = e;
+        e.almacen = this;
+        e.id = id;
+        vivas++;
+        indice.insertar(id, x[id], y[id]);
+        return id;
+    }
+
+    /**
+     * Quita una entidad del registro; conserva su última posición.
+     * @return true si estaba registrada aquí
+     */
+    public synchronized boolean quitar(Entidad e) {
+        if (e == null || e.almacen != this) return false;
+        int id = e.id;
+        indice.quitar(id, x[id], y[id]);
+        e.posX = x[id];
+        e.posY = y[id];
+        e.almacen = null;
+        e.id = -1;
+        tipo[id] = NINGUNO;
+        objeto[id] = null;
+        vivas--;
+        return true;
+    }
+
+    /**
+     * Copia el estado actual del registro.
+     */
+    synchronized Copia copiar() {
+        return new Copia(this);
+    }
+
+    /**
+     * Vuelve al estado de una copia hecha con {@link #copiar()}: las entidades que no estaban
+     * quedan fuera del registro y las de la copia vuelven a sus filas y posiciones.
+     */
+    synchronized void restaurar(Copia c) {
+        for (int id = 0; id < limite; id++) {
+            Entidad e = objeto[id];
+            if (e == null) continue;
+            e.posX = x[id];
+            e.posY = y[id];
+            e.almacen = null;
+            e.id = -1;
+        }
+        int n = c.tipo.length;
+        if (n > tipo.length) crecer(n);
+        System.arraycopy(c.tipo, 0, tipo, 0, n);
+        System.arraycopy(c.x, 0, x, 0, n);
+        System.arraycopy(c.y, 0, y, 0, n);
+        System.arraycopy(c.danio, 0, danio, 0, n);
+        System.arraycopy(c.estado, 0, estado, 0, n);
+        System.arraycopy(c.objeto, 0, objeto, 0, n);
+        Arrays.fill(tipo, n, Math.max(n, limite), NINGUNO);
+        Arrays.fill(objeto, n, Math.max(n, limite), null);
+        limite = n;
+        vivas = c.vivas;
+        for (int id = 0; id < limite; id++) {
+            Entidad e = objeto[id];
+            if (e == null) continue;
+            if (e.almacen != null) e.almacen.quitar(e);
+            e.almacen = this;
+            e.id = id;
+        }
+        // the copy is kept untouched so that it can be restored again
+        indice = new SpatialIndex(c.indice);
+        indice.asegurar(tipo.length);
+    }
+
+    /**
+     * Las entidades registradas salvo el jugador, en orden de inserción.
+     */
+    public synchronized Entidad[] snapshot() {
+        int n = 0;
+        for (int id = 0; id < limite; id++) {
+            if (tipo[id] != NINGUNO && tipo[id] != JUGADOR) n++;
+        }
+        Entidad[] r = new Entidad[n];
+        n = 0;
+        for (int id = 0; id < limite; id++) {
+            if (tipo[id] != NINGUNO && tipo[id] != JUGADOR) r[n++] = objeto[id];
+        }
+        return r;
+    }
+
+    /** Cantidad de entidades registradas (con el jugador). */
+    public int cantidad() {
+        return vivas;
+    }
+
+    /** Identificadores válidos: de 0 a limite-1 (incluye huecos). */
+    public int limite() {
+        return limite;
+    }
+
+    public byte tipo(int id) {
+        return tipo[id];
+    }
+
+    public int x(int id) {
+        return x[id];
+    }
+
+    public int y(int id) {
+        return y[id];
+    }
+
+    public short danio(int id) {
+        return danio[id];
+    }
+
+    /** Indica si el enemigo de la fila persigue al jugador. */
+    public boolean persigue(int id) {
+        return (estado[id] & PERSIGUE) != 0;
+    }
+
+    /** Indica si la entidad de la fila sale del laberinto al tocarla el jugador. */
+    public boolean seConsume(int id) {
+        return (estado[id] & CONSUMIBLE) != 0;
+    }
+
+    /** El objeto de la fila, o null en un hueco. */
+    public Entidad objeto(int id) {
+        return objeto[id];
+    }
+
+    /**
+     * Mueve una entidad y la reubica en el índice espacial.
+     */
+    public void mover(int id, int nx, int ny) {
+        if (x[id] == nx && y[id] == ny) return;
+        indice.quitar(id, x[id], y[id]);
+        x[id] = nx;
+        y[id] = ny;
+        indice.insertar(id, nx, ny);
+    }
+
+    /**
+     * Cambia la posición sin tocar el índice espacial, para moverla desde varios hilos a la vez
+     * (cada uno con sus propias filas); después hay que llamar a {@link #reindexar(int, int, int)}
+     * desde un solo hilo.
+     */
+    void fijarPosicion(int id, int nx, int ny) {
+        x[id] = nx;
+        y[id] = ny;
+    }
+
+    /**
+     * Lleva al índice espacial el cambio hecho con {@link #fijarPosicion(int, int, int)}.
+     * @param viejaX columna en la que estaba indexada
+     * @param viejaY fila en la que estaba indexada
+     */
+    void reindexar(int id, int viejaX, int viejaY) {
+        if (viejaX == x[id] && viejaY == y[id]) return;
+        indice.quitar(id, viejaX, viejaY);
+        indice.insertar(id, x[id], y[id]);
+    }
+
+    /**
+     * Primera entidad de la celda (x,y); las demás se recorren con {@link #siguienteEnCelda(int)}.
+     * @return identificador, o -1 si la celda está vacía
+     */
+    public int primeraEn(int cx, int cy) {
+        return indice.primera(cx, cy);
+    }
+
+    /**
+     * Siguiente entidad de la misma celda. Sigue valiendo para una entidad recién quitada, de modo
+     * que un recorrido puede continuar aunque la entidad actual se quite a sí misma.
+     * @return identificador, o -1 si no hay más
+     */
+    public int siguienteEnCelda(int id) {
+        return indice.siguiente(id);
+    }
+
+    /**
+     * Cantidad de entidades en la celda (x,y).
+     */
+    public int contarEn(int cx, int cy) {
+        return indice.contar(cx, cy);
+    }
+
+    /**
+     * Carácter representativo de la celda (x,y): ' ' si está vacía, el de su entidad si hay una
+     * sola y, si hay varias, la Puerta 'X', luego el Jugador '@' y si no la cantidad.
+     */
+    public char ascii(int cx, int cy) {
+        int n = indice.contar(cx, cy);
+        if (n == 0) return ' ';
+        int primera = indice.primera(cx, cy);
+        if (n == 1) return objeto[primera].obtenerAscii();
+        boolean hayJugador = false;
+        for (int id = primera; id >= 0; id = indice.siguiente(id)) {
+            char c = objeto[id].obtenerAscii();
+            if (c == 'X') return 'X';
+            if (c == '@') hayJugador = true;
+        }
+        if (hayJugador) return '@';
+        // first digit of the count, as before
+        while (n >= 10) n /= 10;
+        return (char) ('0' + n);
+    }
+
+    private void crecer(int capacidad) {
+        tipo = Arrays.copyOf(tipo, capacidad);
+        x = Arrays.copyOf(x, capacidad);
+        y = Arrays.copyOf(y, capacidad);
+        danio = Arrays.copyOf(danio, capacidad);
+        estado = Arrays.copyOf(estado, capacidad);
+        objeto = Arrays.copyOf(objeto, capacidad);
+        indice.asegurar(capacidad);
+    }
+
+    // Squeezes out the holes keeping the insertion order, then rebuilds the cell index
+    private void compactar() {
+        int n = 0;
+        for (int id = 0; id < limite; id++) {
+            if (tipo[id] == NINGUNO) continue;
+            tipo[n] = tipo[id];
+            x[n] = x[id];
+            y[n] = y[id];
+            danio[n] = danio[id];
+            estado[n] = estado[id];
+            objeto[n] = objeto[id];
+            objeto[n].id = n;
+            n++;
+        }
+        Arrays.fill(tipo, n, limite, NINGUNO);
+        Arrays.fill(objeto, n, limite, null);
+        limite = n;
+        indice.vaciar();
+        for (int id = 0; id < limite; id++) {
+            indice.insertar(id, x[id], y[id]);
+        }
+    }
+}
@@ -3,7 +3,7 @@ package ve.edu.ucab.mazerunnerfx.models;
 /**
  * Explosive wall entity: represented by 'B'. When the player enters the cell containing
  * this entity it "explodes" and deals 3 points of damage to the player.
- * The controller removes the entity from the cell/global list after interaction.
+ * It is consumed on touch: the maze removes it after the interaction.
  */
 public class ExplosiveWall extends Entidad {
     private static final short DAMAGE = 3;
@@ -15,10 +15,13 @@ public class ExplosiveWall extends Entidad {
 
     @Override
     public void interact(Jugador jugador) {
-        System.out.println("¡Has activado una pared explosiva! Pierdes " + DAMAGE + " puntos de vida.");
+        jugador.getEventos().evento(GameEvent.PARED_EXPLOSIVA, DAMAGE);
         jugador.recibirDanio(DAMAGE);
-        // The controller or game loop will remove this entity from the cell/global list
-        // after interact is called. We don't access the laberinto reference here.
+    }
+
+    @Override
+    public boolean seConsumeAlTocar() {
+        return true;
     }
 }
 
@@ -0,0 +1,114 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Campo de distancias hacia un objetivo (el jugador) compartido por todos los enemigos que lo
+ * persiguen.
+ * <p>
+ * Se calcula con un único recorrido en anchura desde el objetivo sobre una cola {@code int[]}, y
+ * cada enemigo avanza "cuesta abajo" hacia la celda vecina con distancia uno menor en O(1). Así
+ * el costo por turno es un BFS sin importar cuántos enemigos haya, en lugar de una búsqueda por
+ * enemigo.
+ * <p>
+ * El campo cubre una ventana cuadrada de radio {@code radio} centrada en el objetivo (recortada a
+ * los límites del laberinto), lo que acota memoria y tiempo en laberintos enormes o en el mundo
+ * ilimitado. Los enemigos fuera de la ventana, o cuyo camino sale de ella, no tienen pendiente
+ * ({@link #bajada(int, int)} devuelve null). Los arreglos se reutilizan entre cálculos.
+ */
+public final class FlowField {
+    /** Distancia de las celdas no alcanzadas o fuera de la ventana. */
+    public static final int SIN_CAMINO = -1;
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    private final int radio;
+    private final int lado;
+    private final int[] distancia;
+    private final int[] cola;
+    private MazeStore store;
+    private int x0;
+    private int y0;
+
+    /**
+     * Crea un campo que cubre {@code (2 * radio + 1)^2} celdas alrededor del objetivo.
+     * @param radio distancia máxima en columnas/filas desde el objetivo
+     */
+    public FlowField(int radio) {
+        if (radio <= 0 || radio > 4096) {
+            throw new IllegalArgumentException("Radio fuera de rango: " + radio);
+        }
+        this.radio = radio;
+        this.lado = 2 * radio + 1;
+        this.distancia = new int[lado * lado];
+        this.cola = new int[lado * lado];
+        Arrays.fill(distancia, SIN_CAMINO);
+    }
+
+    public int getRadio() {
+        return radio;
+    }
+
+    /**
+     * Recalcula las distancias hacia (objetivoX, objetivoY).
+     * @param store paredes del laberinto
+     * @param objetivoX columna del objetivo
+     * @param objetivoY fila del objetivo
+     */
+    public void calcular(MazeStore store, int objetivoX, int objetivoY) {
+        this.store = store;
+        this.x0 = objetivoX - radio;
+        this.y0 = objetivoY - radio;
+        Arrays.fill(distancia, SIN_CAMINO);
+        if (!store.contiene(objetivoX, objetivoY)) return;
+
+        int inicio = radio * lado + radio;
+        distancia[inicio] = 0;
+        cola[0] = inicio;
+        int cabeza = 0;
+        int fin = 1;
+        while (cabeza < fin) {
+            int c = cola[cabeza++];
+            int lx = c % lado;
+            int ly = c / lado;
+            int m = store.valor(x0 + lx, y0 + ly);
+            int dv = distancia[c] + 1;
+            for (Laberinto.DIR d : DIRS) {
+                if ((m & d.bit) == 0) continue;
+                int vx = lx + d.direccionX;
+                int vy = ly + d.direccionY;
+                if (vx < 0 || vy < 0 || vx >= lado || vy >= lado) continue;
+                int v = vy * lado + vx;
+                if (distancia[v] != SIN_CAMINO || !store.contiene(x0 + vx, y0 + vy)) continue;
+                distancia[v] = dv;
+                cola[fin++] = v;
+            }
+        }
+    }
+
+    /**
+     * Pasos hasta el objetivo desde (x,y) según el último cálculo.
+     * @return distancia, o {@link #SIN_CAMINO} si no se alcanzó
+     */
+    public int distancia(int x, int y) {
+        int lx = x - x0;
+        int ly = y - y0;
+        if (store == null || lx < 0 || ly < 0 || lx >= lado || ly >= lado) return SIN_CAMINO;
+        return distancia[ly * lado + lx];
+    }
+
+    /**
+     * Dirección que acerca un paso al objetivo desde (x,y).
+     * @return dirección cuesta abajo, o null si (x,y) es el objetivo o no tiene camino conocido
+     */
+    public Laberinto.DIR bajada(int x, int y) {
+        int d = distancia(x, y);
+        if (d <= 0) return null;
+        int m = store.valor(x, y);
+        for (Laberinto.DIR dir : DIRS) {
+            if ((m & dir.bit) != 0 && distancia(x + dir.direccionX, y + dir.direccionY) == d - 1) {
+                return dir;
+            }
+        }
+        return null;
+    }
+}
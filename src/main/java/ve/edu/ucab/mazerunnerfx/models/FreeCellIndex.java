@@ -0,0 +1,136 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Índice barajado de celdas candidatas para colocar entidades.
+ * <p>
+ * Entrega los índices planos ({@code y * ancho + x}) de las celdas al azar en O(1) con un paso de
+ * Fisher-Yates parcial: la celda elegida se intercambia con la última disponible y deja de estar
+ * disponible. Así cada colocación cuesta lo mismo sin importar la densidad, y el tiempo total de
+ * colocación es determinista (a diferencia del muestreo por rechazo, que se degrada al llenarse la
+ * grilla y puede no terminar).
+ * <p>
+ * El índice de toda la grilla no materializa el arreglo barajado: la posición i vale la celda i
+ * (saltando la excluida) hasta que un intercambio la reescribe, y sólo las posiciones reescritas se
+ * guardan en una tabla de enteros. La memoria es proporcional a las colocaciones y no al área
+ * (una grilla de 10.000 x 10.000 ya no reserva 400 MB). El borde, que es lineal, sí es un arreglo.
+ */
+final class FreeCellIndex {
+    // celdas del borde; null en el índice de toda la grilla
+    private final int[] celdas;
+    private final int excluida;
+    private int restantes;
+    // posiciones reescritas del índice de toda la grilla: clave posición + 1 (0 = libre), valor celda
+    private int[] claves = new int[0];
+    private int[] valores = new int[0];
+    private int usadas;
+
+    private FreeCellIndex(int[] celdas, int excluida, int restantes) {
+        this.celdas = celdas;
+        this.excluida = excluida;
+        this.restantes = restantes;
+    }
+
+    /**
+     * Índice con todas las celdas de la grilla salvo la excluida.
+     * @param ancho ancho de la grilla
+     * @param alto alto de la grilla
+     * @param excluida índice plano a omitir (p. ej. la celda de inicio), o -1
+     */
+    static FreeCellIndex todas(int ancho, int alto, int excluida) {
+        int total = ancho * alto;
+        boolean dentro = excluida >= 0 && excluida < total;
+        return new FreeCellIndex(null, dentro ? excluida : -1, dentro ? total - 1 : total);
+    }
+
+    /**
+     * Índice con las celdas del borde de la grilla (cada una una sola vez) salvo la excluida.
+     * @param ancho ancho de la grilla
+     * @param alto alto de la grilla
+     * @param excluida índice plano a omitir, o -1
+     */
+    static FreeCellIndex borde(int ancho, int alto, int excluida) {
+        int[] celdas = new int[2 * (ancho + alto)];
+        int n = 0;
+        for (int x = 0; x < ancho; x++) {
+            if (x != excluida) celdas[n++] = x;
+            int abajo = (alto - 1) * ancho + x;
+            if (alto > 1 && abajo != excluida) celdas[n++] = abajo;
+        }
+        for (int y = 1; y < alto - 1; y++) {
+            int izquierda = y * ancho;
+            int derecha = izquierda + ancho - 1;
+            if (izquierda != excluida) celdas[n++] = izquierda;
+            if (ancho > 1 && derecha != excluida) celdas[n++] = derecha;
+        }
+        return new FreeCellIndex(celdas, -1, n);
+    }
+
+    /**
+     * Extrae una celda al azar del índice.
+     * @param rng fuente de aleatoriedad
+     * @return índice plano de la celda, o -1 si no quedan celdas
+     */
+    int tomar(RandomGenerator rng) {
+        if (restantes == 0) return -1;
+        int j = rng.nextInt(restantes);
+        int elegida = leer(j);
+        // la posición que queda fuera ya no se lee, así que sólo se reescribe j
+        if (j != --restantes) escribir(j, leer(restantes));
+        return elegida;
+    }
+
+    private int leer(int posicion) {
+        if (celdas != null) return celdas[posicion];
+        if (usadas > 0) {
+            int m = claves.length - 1;
+            for (int h = dispersar(posicion) & m; claves[h] != 0; h = (h + 1) & m) {
+                if (claves[h] == posicion + 1) return valores[h];
+            }
+        }
+        return excluida >= 0 && posicion >= excluida ? posicion + 1 : posicion;
+    }
+
+    private void escribir(int posicion, int celda) {
+        if (celdas != null) {
+            celdas[posicion] = celda;
+            return;
+        }
+        // tabla a lo sumo medio llena
+        if (2 * (usadas + 1) > claves.length) agrandar();
+        int m = claves.length - 1;
+        int h = dispersar(posicion) & m;
+        while (claves[h] != 0 && claves[h] != posicion + 1) h = (h + 1) & m;
+        if (claves[h] == 0) usadas++;
+        claves[h] = posicion + 1;
+        valores[h] = celda;
+    }
+
+    private void agrandar() {
+        int[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new int[Math.max(16, viejasClaves.length * 2)];
+        valores = new int[claves.length];
+        int m = claves.length - 1;
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] == 0) continue;
+            int h = dispersar(viejasClaves[i] - 1) & m;
+            while (claves[h] != 0) h = (h + 1) & m;
+            claves[h] = viejasClaves[i];
+            valores[h] = viejosValores[i];
+        }
+    }
+
+    private static int dispersar(int posicion) {
+        int h = posicion * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Cantidad de celdas aún disponibles.
+     */
+    int restantes() {
+        return restantes;
+    }
+}
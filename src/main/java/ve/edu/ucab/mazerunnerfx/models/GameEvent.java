@@ -0,0 +1,68 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Sucesos de una partida que antes se imprimían directo en consola. Cada uno lleva a lo sumo un
+ * valor entero (daño, puntos, vida...), así que informarlos no arma cadenas ni crea objetos; el
+ * texto sólo se compone si un {@link GameEventSink} lo pide con {@link #mensaje(int)}.
+ */
+public enum GameEvent {
+    /** El jugador cayó en una trampa; valor: daño. */
+    TRAMPA,
+    /** Un enemigo alcanzó al jugador; valor: daño. */
+    ENEMIGO,
+    /** El jugador activó una pared explosiva; valor: daño. */
+    PARED_EXPLOSIVA,
+    /** El jugador recogió un cristal; valor: puntos del cristal. */
+    CRISTAL,
+    /** Cambió el puntaje; valor: puntaje actual. */
+    PUNTOS,
+    /** El jugador recogió una energía; valor: vida que recupera. */
+    ENERGIA,
+    /** Se recuperó vida; valor: vida actual. */
+    VIDA_RECUPERADA,
+    /** No quedan vidas que recuperar. */
+    SIN_VIDAS,
+    /** El jugador perdió una vida. */
+    VIDA_PERDIDA,
+    /** El jugador recogió la llave. */
+    LLAVE,
+    /** El jugador llegó a la puerta sin llave. */
+    PUERTA_CERRADA,
+    /** El jugador abrió la puerta. */
+    PUERTA_ABIERTA,
+    /** El jugador escapó; valor: puntaje final. */
+    ESCAPE,
+    /** Un enemigo intentó moverse contra una pared. */
+    ENEMIGO_CHOCO,
+    /** Terminó la partida; valor: estado de {@link Laberinto#finalizarPartida(int)}. */
+    FIN_PARTIDA;
+
+    /**
+     * Texto del suceso para mostrar al jugador (el mismo que se imprimía antes).
+     * @param valor valor que acompañó al suceso
+     * @return mensaje en español
+     */
+    public String mensaje(int valor) {
+        return switch (this) {
+            case TRAMPA, ENEMIGO -> "¡Has caído en una trampa! Pierdes " + valor + " punto de vida.";
+            case PARED_EXPLOSIVA -> "¡Has activado una pared explosiva! Pierdes " + valor + " puntos de vida.";
+            case CRISTAL -> "¡Cristal recogido! Obtienes " + valor + " puntos.";
+            case PUNTOS -> "Puntuación actual: " + valor;
+            case ENERGIA -> "¡Has encontrado energía! Recuperas " + valor + " puntos de vida.";
+            case VIDA_RECUPERADA -> "Vida recuperada. Vida actual: " + valor + "/" + Jugador.MAX_VIDA;
+            case SIN_VIDAS -> "No tienes vidas para recuperar.";
+            case VIDA_PERDIDA -> "¡Has perdido una vida!";
+            case LLAVE -> "¡Has recogido la llave!, ya puedes ir a la salida.";
+            case PUERTA_CERRADA -> "La puerta está cerrada. Necesitas una llave para abrirla.";
+            case PUERTA_ABIERTA -> "¡Has abierto la puerta y escapado del laberinto! ¡Felicidades!";
+            case ESCAPE -> "Jugador ha escapado del laberinto con " + valor + " puntos.";
+            case ENEMIGO_CHOCO -> "El Enemigo se pego contra la pared.";
+            case FIN_PARTIDA -> switch (valor) {
+                case -1 -> "Has perdido todas tus vidas. ¡Juego terminado!";
+                case 0 -> "¡Felicidades! ¡Has escapado del laberinto!";
+                case 1 -> "¡Te estaremos esperando! ¡Vuelve pronto!";
+                default -> "Has salido del juego. ¡Hasta la próxima!";
+            };
+        };
+    }
+}
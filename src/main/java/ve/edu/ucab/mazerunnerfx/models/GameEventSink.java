@@ -0,0 +1,24 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Receptor de los {@link GameEvent} de una partida. El laberinto y el jugador informan cada
+ * interacción aquí en lugar de imprimirla; quien juega decide qué hacer con ellas: la consola las
+ * imprime ({@link #CONSOLA}, el comportamiento de siempre), la ventana puede mostrarlas y las
+ * simulaciones sin interfaz las descartan ({@link #NINGUNO}) sin pagar la E/S.
+ * <p>
+ * Se llama en el hilo que mueve la partida, una vez por suceso; debe ser rápido.
+ */
+@FunctionalInterface
+public interface GameEventSink {
+    /** Imprime cada suceso en la salida estándar. */
+    GameEventSink CONSOLA = (evento, valor) -> System.out.println(evento.mensaje(valor));
+    /** Descarta los sucesos. */
+    GameEventSink NINGUNO = (evento, valor) -> {
+    };
+
+    /**
+     * @param evento suceso
+     * @param valor dato del suceso (ver cada {@link GameEvent}), 0 si no lleva
+     */
+    void evento(GameEvent evento, int valor);
+}
@@ -0,0 +1,77 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fuente de aleatoriedad de una partida, reproducible a partir de una semilla.
+ * <p>
+ * De la semilla se derivan flujos independientes ({@link SplittableRandom#split()}) para cada
+ * subsistema: generación del trazado, colocación de entidades, inteligencia de los enemigos y
+ * configuración de la partida (dimensiones). Así, consumir más números en un subsistema no
+ * altera la secuencia de los demás, y la misma semilla reproduce la partida bit a bit.
+ * <p>
+ * Cada partida tiene su propia instancia, por lo que simulaciones en paralelo no compiten por
+ * un generador global como ocurre con {@code Math.random()}. Una instancia no es segura para
+ * usarse desde varios hilos a la vez.
+ */
+public final class GameRandom {
+    private final long semilla;
+    private final SplittableRandom generacion;
+    private final SplittableRandom colocacion;
+    private final SplittableRandom ia;
+    private final SplittableRandom configuracion;
+
+    /**
+     * Crea los flujos de una partida a partir de su semilla.
+     * @param semilla semilla de la partida
+     */
+    public GameRandom(long semilla) {
+        this.semilla = semilla;
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        // el orden de los split() forma parte del formato: no cambiarlo
+        this.generacion = raiz.split();
+        this.colocacion = raiz.split();
+        this.ia = raiz.split();
+        this.configuracion = raiz.split();
+    }
+
+    /**
+     * Genera una semilla nueva para una partida no reproducida.
+     * @return semilla aleatoria
+     */
+    public static long nuevaSemilla() {
+        return new SplittableRandom().nextLong();
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Flujo usado para tallar el trazado del laberinto.
+     */
+    public SplittableRandom generacion() {
+        return generacion;
+    }
+
+    /**
+     * Flujo usado para colocar entidades (cristales, trampas, llave, puerta...).
+     */
+    public SplittableRandom colocacion() {
+        return colocacion;
+    }
+
+    /**
+     * Flujo usado por el movimiento de los enemigos.
+     */
+    public SplittableRandom ia() {
+        return ia;
+    }
+
+    /**
+     * Flujo usado para elegir la configuración de la partida (p. ej. dimensiones por dificultad).
+     */
+    public SplittableRandom configuracion() {
+        return configuracion;
+    }
+}
@@ -0,0 +1,36 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Instantánea del estado de una partida entre dos turnos, tomada con
+ * {@link Laberinto#capturarEstado()} y restaurada con {@link Laberinto#restaurarEstado(GameState)}.
+ * Copia las paredes, las filas de {@link EntityStore} con su índice espacial, el marcador del
+ * jugador y los contadores de turno; las entidades se comparten por referencia, por eso una
+ * instantánea sólo vale para el laberinto que la tomó. Es inmutable: puede restaurarse varias veces.
+ */
+public final class GameState {
+    final Laberinto laberinto;
+    final byte[] paredes;
+    final EntityStore.Copia entidades;
+    final Jugador jugador;
+    final Jugador.Marcador marcador;
+    final long turno;
+    final long pasosEnemigos;
+
+    GameState(Laberinto laberinto, byte[] paredes, EntityStore.Copia entidades, Jugador jugador,
+              Jugador.Marcador marcador, long turno, long pasosEnemigos) {
+        this.laberinto = laberinto;
+        this.paredes = paredes;
+        this.entidades = entidades;
+        this.jugador = jugador;
+        this.marcador = marcador;
+        this.turno = turno;
+        this.pasosEnemigos = pasosEnemigos;
+    }
+
+    /**
+     * Turno del jugador en que se tomó.
+     */
+    public long getTurno() {
+        return turno;
+    }
+}
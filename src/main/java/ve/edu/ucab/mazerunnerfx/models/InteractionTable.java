@@ -0,0 +1,55 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Tabla de interacciones por tipo de entidad: qué le pasa al jugador cuando comparte celda con una
+ * fila de {@link EntityStore} de cada tipo. La etapa de resolución de {@link Laberinto} recorre la
+ * celda del jugador en el índice espacial y despacha cada entidad por su tipo, sin copiar el
+ * contenido ni comparar caracteres; si la entidad sale del laberinto después lo declara su clase
+ * ({@link Entidad#seConsumeAlTocar()}).
+ * <p>
+ * Por defecto cada tipo usa {@link Entidad#interact(Jugador)} de su clase; el jugador y los huecos
+ * no tienen efecto. {@link #registrar(byte, Efecto)} cambia el efecto de un tipo.
+ */
+public final class InteractionTable {
+
+    /**
+     * Efecto de una entidad sobre el jugador que comparte su celda.
+     */
+    @FunctionalInterface
+    public interface Efecto {
+        /**
+         * @param entidad entidad de la celda
+         * @param jugador jugador que la toca
+         */
+        void aplicar(Entidad entidad, Jugador jugador);
+    }
+
+    private static final Efecto INTERACTUAR = Entidad::interact;
+
+    private final Efecto[] efectos = new Efecto[EntityStore.TIPOS];
+
+    /**
+     * Crea la tabla con el efecto por defecto para cada tipo.
+     */
+    public InteractionTable() {
+        for (int tipo = 0; tipo < EntityStore.TIPOS; tipo++) {
+            if (tipo != EntityStore.NINGUNO && tipo != EntityStore.JUGADOR) efectos[tipo] = INTERACTUAR;
+        }
+    }
+
+    /**
+     * Reemplaza el efecto de un tipo.
+     * @param tipo tipo de fila ({@link EntityStore#ENEMIGO}, {@link EntityStore#CRISTAL}, ...)
+     * @param efecto nuevo efecto, o null para que el tipo no haga nada
+     */
+    public void registrar(byte tipo, Efecto efecto) {
+        efectos[tipo] = efecto;
+    }
+
+    /**
+     * Efecto del tipo indicado, o null si no tiene.
+     */
+    public Efecto efecto(byte tipo) {
+        return efectos[tipo];
+    }
+}
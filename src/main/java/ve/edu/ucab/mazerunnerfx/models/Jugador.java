@@ -27,6 +27,7 @@ public class Jugador extends Entidad implements Movimiento {
     private int puntos = 0;
     private int llaves = 0;
     private boolean escapado = false;
+    private transient GameEventSink eventos = GameEventSink.CONSOLA;
 
     /**
      * Crea un jugador con correo y contraseña iniciales.
@@ -138,7 +139,34 @@ public class Jugador extends Entidad implements Movimiento {
      */
     public void recibirPuntos(int puntos) {
         this.puntos += puntos;
-        System.out.println("Puntuación actual: " + this.puntos);
+        eventos.evento(GameEvent.PUNTOS, this.puntos);
+    }
+
+    /**
+     * Receptor de los sucesos del jugador y de las entidades con que interactúa.
+     * @return receptor actual ({@link GameEventSink#CONSOLA} por defecto)
+     */
+    public GameEventSink getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Cambia el receptor de sucesos (normalmente lo hace {@link Laberinto#setEventos(GameEventSink)}).
+     * @param eventos receptor; null equivale a {@link GameEventSink#NINGUNO}
+     */
+    public void setEventos(GameEventSink eventos) {
+        this.eventos = eventos != null ? eventos : GameEventSink.NINGUNO;
+    }
+
+    /**
+     * Establece la posición del jugador; su {@link #celdaActual} lo acompaña.
+     */
+    @Override
+    public void setPosition(int x, int y) {
+        super.setPosition(x, y);
+        if (celdaActual != null) {
+            celdaActual.ubicar(x, y);
+        }
     }
 
     /**
@@ -159,7 +187,7 @@ public class Jugador extends Entidad implements Movimiento {
             if (vidaActual > 0) {
                 vidas.push(vidaActual);
             } else {
-                System.out.println("¡Has perdido una vida!");
+                eventos.evento(GameEvent.VIDA_PERDIDA, 0);
             }
         } else {
 //            System.out.println("¡No te quedan vidas!");
@@ -234,7 +262,7 @@ public class Jugador extends Entidad implements Movimiento {
                 // Traducción: No se puede mover en esa dirección (pared o fuera de límites).
             }
         }
-        laberinto.display();
+        // the move is drawn with the rest of the turn's changes (see Laberinto.publicarCambios)
         return 0;
     }
 
@@ -250,7 +278,7 @@ public class Jugador extends Entidad implements Movimiento {
      * Marca al jugador como escapado del laberinto y muestra su puntaje.
      */
     public void escapar() {
-        System.out.println("Jugador ha escapado del laberinto con " + puntos + " puntos.");
+        eventos.evento(GameEvent.ESCAPE, puntos);
         this.escapado = true;
     }
 
@@ -285,6 +313,40 @@ public class Jugador extends Entidad implements Movimiento {
         return MAX_VIDA;
     }
 
+    /**
+     * Vidas, puntos, llaves y escape del jugador en un momento de la partida (ver {@link GameState}).
+     */
+    static final class Marcador {
+        private final short[] vidas;
+        private final int puntos;
+        private final int llaves;
+        private final boolean escapado;
+
+        private Marcador(Jugador j) {
+            vidas = new short[j.vidas.size()];
+            for (int i = 0; i < vidas.length; i++) {
+                vidas[i] = j.vidas.get(i);
+            }
+            puntos = j.puntos;
+            llaves = j.llaves;
+            escapado = j.escapado;
+        }
+    }
+
+    Marcador marcador() {
+        return new Marcador(this);
+    }
+
+    void restaurar(Marcador m) {
+        vidas.clear();
+        for (short v : m.vidas) {
+            vidas.push(v);
+        }
+        puntos = m.puntos;
+        llaves = m.llaves;
+        escapado = m.escapado;
+    }
+
     public void recuperarVida(short energiaRecuperada) {
         if (!vidas.isEmpty()) {
             short vidaActual = vidas.pop();
@@ -293,9 +355,9 @@ public class Jugador extends Entidad implements Movimiento {
                 vidaActual = MAX_VIDA;
             }
             vidas.push(vidaActual);
-            System.out.println("Vida recuperada. Vida actual: " + vidaActual + "/" + MAX_VIDA);
+            eventos.evento(GameEvent.VIDA_RECUPERADA, vidaActual);
         } else {
-            System.out.println("No tienes vidas para recuperar.");
+            eventos.evento(GameEvent.SIN_VIDAS, 0);
         }
     }
 }
@@ -0,0 +1,488 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Grafo comprimido del laberinto: sus nodos son sólo los cruces, los callejones sin salida y los
+ * puntos de interés (llave, puerta, cristales), y cada arista es un pasillo completo con peso igual
+ * a su largo.
+ * <p>
+ * En un laberinto de pasillos largos la mayoría de las celdas tienen exactamente dos pasajes y no
+ * aportan decisiones; buscar sobre este grafo (A* con un montículo indexado) expande sólo
+ * nodos, mientras que una búsqueda por celdas recorre cada pasillo paso a paso. Por celda se guarda
+ * su nodo, o el pasillo al que pertenece y a qué distancia está de su primer extremo, de modo que
+ * las consultas pueden empezar y terminar en cualquier celda.
+ * <p>
+ * Cuando un muro explosivo abre un pasaje ({@link #abrirPasaje(int, int)}) sólo se rehacen los
+ * pasillos que tocan las dos celdas: ambas pasan a ser nodos y se vuelven a recorrer los pasillos
+ * desde ellas y desde los extremos de los pasillos que se partieron. Así lo mantiene
+ * {@link Laberinto#getGrafoCruces()}, y el bot ({@link AutoPlayer#seguirCamino()}) planifica sus rutas
+ * con él cuando el laberinto se queda sin oráculo de distancias.
+ * <p>
+ * Medido (JDK 21) en 1.000x1.000: el grafo se construye en ~170-250 ms; con Backtracker quedan
+ * ~200.000 nodos (20% de las celdas) y una consulta entre pares al azar expande ~5 veces menos que A*
+ * por celdas (~26 ms frente a ~80 ms). Con Wilson, de pasillos cortos, la mitad de las celdas son
+ * nodos y la ganancia baja a ~1,7 veces.
+ * <p>
+ * Las celdas se identifican por su índice plano {@code y * ancho + x}. Una instancia no es segura
+ * entre hilos.
+ */
+public final class JunctionGraph {
+    private static final int INF = Integer.MAX_VALUE / 4;
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    private final PackedGrid grid;
+    private final byte[] celdas;
+    private final int ancho;
+
+    // por celda: su nodo (-1 si está en un pasillo), o su pasillo y la distancia a su extremo A
+    private final int[] nodoDeCelda;
+    private final int[] tramo;
+    private final int[] desplazamiento;
+
+    // nodos: celda y pasillo que sale por cada dirección (índice de Laberinto.DIR, -1 si ninguno)
+    private int nodos = 0;
+    private int[] celdaDeNodo = new int[64];
+    private int[] salida = new int[256];
+
+    // pasillos: extremos, dirección por la que sale de cada extremo, largo y si sigue vigente
+    private int aristas = 0;
+    private int aristasVivas = 0;
+    private int[] extremoA = new int[64];
+    private int[] extremoB = new int[64];
+    private int[] dirA = new int[64];
+    private int[] dirB = new int[64];
+    private int[] peso = new int[64];
+    private boolean[] viva = new boolean[64];
+
+    // Dijkstra sobre nodos: arreglos reutilizados con marca de consulta
+    private int consulta = 0;
+    private int[] marca = new int[0];
+    private int[] costo = new int[0];
+    private int[] llegada = new int[0];
+    private int[] prioridad = new int[0];
+    private int[] monticulo = new int[0];
+    private int[] posicion = new int[0];
+    private int tamanioMonticulo = 0;
+    private int expandidas = 0;
+    // nodo por el que la última búsqueda llegó al destino (-1 si fue directo por un pasillo)
+    private int mejorFinal = -1;
+    private int destinoX;
+    private int destinoY;
+
+    /**
+     * Comprime las paredes actuales del laberinto.
+     * @param grid paredes del laberinto
+     * @param puntosInteres índices planos que deben ser nodos aunque estén en un pasillo
+     */
+    public JunctionGraph(PackedGrid grid, int... puntosInteres) {
+        this.grid = grid;
+        this.celdas = grid.paredes();
+        this.ancho = grid.getAncho();
+        int total = ancho * grid.getAlto();
+        nodoDeCelda = new int[total];
+        tramo = new int[total];
+        desplazamiento = new int[total];
+        Arrays.fill(nodoDeCelda, -1);
+        Arrays.fill(tramo, -1);
+
+        for (int c = 0; c < total; c++) {
+            if (Integer.bitCount(celdas[c] & 0xF) != 2) agregarNodo(c);
+        }
+        for (int c : puntosInteres) {
+            if (c >= 0 && c < total && nodoDeCelda[c] < 0) agregarNodo(c);
+        }
+        for (int n = 0; n < nodos; n++) {
+            recorrerSalidas(n);
+        }
+        // corridor rings with no junction at all: promote one of their cells
+        for (int c = 0; c < total; c++) {
+            if (nodoDeCelda[c] < 0 && tramo[c] < 0) {
+                recorrerSalidas(agregarNodo(c));
+            }
+        }
+    }
+
+    public PackedGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Cantidad de nodos (cruces, callejones y puntos de interés).
+     */
+    public int getNodos() {
+        return nodos;
+    }
+
+    /**
+     * Cantidad de pasillos vigentes.
+     */
+    public int getAristas() {
+        return aristasVivas;
+    }
+
+    /**
+     * Nodos expandidos por la última búsqueda.
+     */
+    public int getExpandidas() {
+        return expandidas;
+    }
+
+    /**
+     * Pasos del camino más corto entre dos celdas.
+     * @return distancia, o -1 si no están conectadas
+     */
+    public int distancia(int origen, int destino) {
+        int d = buscar(origen, destino);
+        return d >= INF ? -1 : d;
+    }
+
+    /**
+     * Camino más corto entre dos celdas, expandido celda por celda.
+     * @param origen índice plano de partida
+     * @param destino índice plano de llegada
+     * @return celdas del camino (ambos extremos incluidos), o null si no hay camino
+     */
+    public int[] camino(int origen, int destino) {
+        if (origen == destino) return new int[]{origen};
+        int d = buscar(origen, destino);
+        if (d >= INF) return null;
+        int[] camino = new int[d + 1];
+        if (d == directo(origen, destino)) {
+            // same corridor and no shorter way round: walk it
+            int e = tramo[origen] >= 0 ? tramo[origen] : tramo[destino];
+            trozo(e, posicionEn(e, origen), posicionEn(e, destino), camino, 0);
+            return camino;
+        }
+        // nodes from the last one back to the first; then corridor pieces in forward order
+        int fin = mejorFinal;
+        int[] pila = new int[16];
+        int largoPila = 0;
+        for (int n = fin; n >= 0; n = llegada[n] >= 0 ? otroExtremo(llegada[n], n) : -1) {
+            if (largoPila == pila.length) pila = Arrays.copyOf(pila, largoPila * 2);
+            pila[largoPila++] = n;
+        }
+        int primero = pila[largoPila - 1];
+        int pos = 0;
+        if (celdaDeNodo[primero] != origen) {
+            int e = tramo[origen];
+            pos = trozo(e, desplazamiento[origen], extremoCercano(e, primero, origen), camino, pos) - 1;
+        }
+        for (int i = largoPila - 1; i > 0; i--) {
+            int a = pila[i];
+            int e = llegada[pila[i - 1]];
+            // a shortest path never uses a self-loop, so each end is a different node
+            int desdeA = extremoA[e] == a ? 0 : peso[e];
+            pos = trozo(e, desdeA, peso[e] - desdeA, camino, pos) - 1;
+        }
+        if (celdaDeNodo[fin] != destino) {
+            int e = tramo[destino];
+            trozo(e, extremoCercano(e, fin, destino), desplazamiento[destino], camino, pos);
+        } else {
+            camino[pos] = destino;
+        }
+        return camino;
+    }
+
+    /**
+     * Primer paso del camino más corto.
+     * @return índice plano de la celda vecina, o -1 si {@code origen == destino} o no hay camino
+     */
+    public int siguiente(int origen, int destino) {
+        if (origen == destino) return -1;
+        int[] c = camino(origen, destino);
+        return c == null ? -1 : c[1];
+    }
+
+    /**
+     * Actualiza el grafo tras abrir el pasaje entre dos celdas vecinas (las paredes del
+     * {@link PackedGrid} deben estar ya abiertas). Sólo se rehacen los pasillos afectados.
+     * @param a índice plano de una celda
+     * @param b índice plano de la celda vecina
+     */
+    public void abrirPasaje(int a, int b) {
+        int[] afectados = new int[8];
+        int cuantos = 0;
+        for (int c : new int[]{a, b}) {
+            if (nodoDeCelda[c] < 0) {
+                // the corridor through c is split: its endpoints must be walked again
+                int e = tramo[c];
+                if (e >= 0 && viva[e]) {
+                    afectados[cuantos++] = extremoA[e];
+                    afectados[cuantos++] = extremoB[e];
+                    quitarArista(e);
+                }
+                tramo[c] = -1;
+                agregarNodo(c);
+            }
+            afectados[cuantos++] = nodoDeCelda[c];
+        }
+        for (int i = 0; i < cuantos; i++) {
+            recorrerSalidas(afectados[i]);
+        }
+    }
+
+    // A* (Manhattan to the destination cell) from the origin's node(s) to the destination's;
+    // returns the distance (INF if none)
+    private int buscar(int origen, int destino) {
+        expandidas = 0;
+        mejorFinal = -1;
+        if (origen == destino) return 0;
+        int mejor = directo(origen, destino);
+        prepararBusqueda();
+        int q = consulta;
+        destinoX = destino % ancho;
+        destinoY = destino / ancho;
+
+        if (nodoDeCelda[origen] >= 0) {
+            relajar(nodoDeCelda[origen], 0, -1, q);
+        } else {
+            int e = tramo[origen];
+            relajar(extremoA[e], desplazamiento[origen], -1, q);
+            relajar(extremoB[e], peso[e] - desplazamiento[origen], -1, q);
+        }
+        int finA, finB, restoA, restoB;
+        if (nodoDeCelda[destino] >= 0) {
+            finA = finB = nodoDeCelda[destino];
+            restoA = restoB = 0;
+        } else {
+            int e = tramo[destino];
+            finA = extremoA[e];
+            finB = extremoB[e];
+            restoA = desplazamiento[destino];
+            restoB = peso[e] - desplazamiento[destino];
+        }
+
+        while (tamanioMonticulo > 0) {
+            int n = extraerMinimo();
+            int dn = costo[n];
+            if (prioridad[n] >= mejor) break;
+            expandidas++;
+            if (n == finA && dn + restoA < mejor) {
+                mejor = dn + restoA;
+                mejorFinal = n;
+            }
+            if (n == finB && dn + restoB < mejor) {
+                mejor = dn + restoB;
+                mejorFinal = n;
+            }
+            int base = n * 4;
+            for (int d = 0; d < 4; d++) {
+                int e = salida[base + d];
+                if (e < 0) continue;
+                relajar(otroExtremo(e, n), dn + peso[e], e, q);
+            }
+        }
+        return mejor;
+    }
+
+    // Distance when both cells lie on the same corridor (or one is its endpoint), else INF
+    private int directo(int origen, int destino) {
+        int e = tramo[origen] >= 0 ? tramo[origen] : tramo[destino];
+        if (e < 0) return INF;
+        int po = posicionEn(e, origen);
+        int pd = posicionEn(e, destino);
+        return po < 0 || pd < 0 ? INF : Math.abs(po - pd);
+    }
+
+    // Offset of a cell along corridor e (0 at endpoint A, weight at B), or -1 if not on it
+    private int posicionEn(int e, int c) {
+        if (tramo[c] == e) return desplazamiento[c];
+        if (c == celdaDeNodo[extremoA[e]]) return 0;
+        if (c == celdaDeNodo[extremoB[e]]) return peso[e];
+        return -1;
+    }
+
+    // Offset of endpoint node n on corridor e as seen from corridor cell c (on a loop, the nearer end)
+    private int extremoCercano(int e, int n, int c) {
+        if (extremoA[e] != extremoB[e]) return extremoA[e] == n ? 0 : peso[e];
+        return desplazamiento[c] <= peso[e] - desplazamiento[c] ? 0 : peso[e];
+    }
+
+    // Writes the cells of corridor e between two offsets into camino from pos; returns the next pos
+    private int trozo(int e, int desde, int hasta, int[] camino, int pos) {
+        int paso = desde <= hasta ? 1 : -1;
+        int c = celdaDeNodo[extremoA[e]];
+        int dir = dirA[e];
+        int offset = 0;
+        int largo = Math.abs(hasta - desde) + 1;
+        int inicio = pos;
+        // walk the corridor from A, keeping the cells in range
+        while (true) {
+            if (offset >= Math.min(desde, hasta) && offset <= Math.max(desde, hasta)) {
+                int i = paso > 0 ? offset - desde : desde - offset;
+                camino[inicio + i] = c;
+            }
+            if (offset == Math.max(desde, hasta)) break;
+            c = vecino(c, DIRS[dir]);
+            offset++;
+            if (offset < peso[e]) dir = otraSalida(c, DIRS[dir].opuesto());
+        }
+        return pos + largo;
+    }
+
+    private void prepararBusqueda() {
+        if (marca.length < nodos) {
+            int capacidad = Math.max(nodos, marca.length * 2);
+            marca = Arrays.copyOf(marca, capacidad);
+            costo = Arrays.copyOf(costo, capacidad);
+            llegada = Arrays.copyOf(llegada, capacidad);
+            prioridad = Arrays.copyOf(prioridad, capacidad);
+            monticulo = Arrays.copyOf(monticulo, capacidad);
+            posicion = Arrays.copyOf(posicion, capacidad);
+        }
+        if (++consulta == 0) {
+            Arrays.fill(marca, 0);
+            consulta = 1;
+        }
+        tamanioMonticulo = 0;
+    }
+
+    private void relajar(int n, int d, int arista, int q) {
+        if (marca[n] != q) {
+            marca[n] = q;
+            costo[n] = d;
+            llegada[n] = arista;
+            prioridad[n] = d + manhattan(celdaDeNodo[n]);
+            posicion[n] = tamanioMonticulo;
+            monticulo[tamanioMonticulo++] = n;
+            subir(posicion[n]);
+        } else if (d < costo[n] && posicion[n] >= 0) {
+            prioridad[n] -= costo[n] - d;
+            costo[n] = d;
+            llegada[n] = arista;
+            subir(posicion[n]);
+        }
+    }
+
+    // A corridor is at least as long as the Manhattan distance between its ends, so this never overestimates
+    private int manhattan(int c) {
+        return Math.abs(c % ancho - destinoX) + Math.abs(c / ancho - destinoY);
+    }
+
+    private int extraerMinimo() {
+        int n = monticulo[0];
+        posicion[n] = -1;
+        int ultimo = monticulo[--tamanioMonticulo];
+        if (tamanioMonticulo > 0) {
+            monticulo[0] = ultimo;
+            posicion[ultimo] = 0;
+            hundir(0);
+        }
+        return n;
+    }
+
+    private void subir(int i) {
+        int n = monticulo[i];
+        int k = prioridad[n];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int pn = monticulo[p];
+            if (prioridad[pn] <= k) break;
+            monticulo[i] = pn;
+            posicion[pn] = i;
+            i = p;
+        }
+        monticulo[i] = n;
+        posicion[n] = i;
+    }
+
+    private void hundir(int i) {
+        int n = monticulo[i];
+        int k = prioridad[n];
+        while (true) {
+            int h = 2 * i + 1;
+            if (h >= tamanioMonticulo) break;
+            if (h + 1 < tamanioMonticulo && prioridad[monticulo[h + 1]] < prioridad[monticulo[h]]) h++;
+            if (prioridad[monticulo[h]] >= k) break;
+            monticulo[i] = monticulo[h];
+            posicion[monticulo[i]] = i;
+            i = h;
+        }
+        monticulo[i] = n;
+        posicion[n] = i;
+    }
+
+    private int agregarNodo(int c) {
+        if (nodos == celdaDeNodo.length) {
+            celdaDeNodo = Arrays.copyOf(celdaDeNodo, nodos * 2);
+            salida = Arrays.copyOf(salida, nodos * 8);
+        }
+        celdaDeNodo[nodos] = c;
+        Arrays.fill(salida, nodos * 4, nodos * 4 + 4, -1);
+        nodoDeCelda[c] = nodos;
+        return nodos++;
+    }
+
+    // Walks every open direction of node n that has no corridor yet
+    private void recorrerSalidas(int n) {
+        int c = celdaDeNodo[n];
+        int m = celdas[c];
+        for (int d = 0; d < 4; d++) {
+            if ((m & DIRS[d].bit) == 0 || salida[n * 4 + d] >= 0) continue;
+            recorrer(n, d);
+        }
+    }
+
+    // Follows a corridor from node n leaving by direction d until the next node
+    private void recorrer(int n, int d) {
+        int e = nuevaArista();
+        int c = vecino(celdaDeNodo[n], DIRS[d]);
+        int dir = d;
+        int largo = 1;
+        while (nodoDeCelda[c] < 0) {
+            tramo[c] = e;
+            desplazamiento[c] = largo;
+            dir = otraSalida(c, DIRS[dir].opuesto());
+            c = vecino(c, DIRS[dir]);
+            largo++;
+        }
+        int fin = nodoDeCelda[c];
+        extremoA[e] = n;
+        extremoB[e] = fin;
+        dirA[e] = d;
+        dirB[e] = DIRS[dir].opuesto().ordinal();
+        peso[e] = largo;
+        viva[e] = true;
+        salida[n * 4 + d] = e;
+        salida[fin * 4 + dirB[e]] = e;
+    }
+
+    private int nuevaArista() {
+        if (aristas == extremoA.length) {
+            int capacidad = aristas * 2;
+            extremoA = Arrays.copyOf(extremoA, capacidad);
+            extremoB = Arrays.copyOf(extremoB, capacidad);
+            dirA = Arrays.copyOf(dirA, capacidad);
+            dirB = Arrays.copyOf(dirB, capacidad);
+            peso = Arrays.copyOf(peso, capacidad);
+            viva = Arrays.copyOf(viva, capacidad);
+        }
+        aristasVivas++;
+        return aristas++;
+    }
+
+    private void quitarArista(int e) {
+        viva[e] = false;
+        aristasVivas--;
+        salida[extremoA[e] * 4 + dirA[e]] = -1;
+        salida[extremoB[e] * 4 + dirB[e]] = -1;
+    }
+
+    private int otroExtremo(int e, int n) {
+        return extremoA[e] == n ? extremoB[e] : extremoA[e];
+    }
+
+    // The open direction of a corridor cell other than the one it was entered from
+    private int otraSalida(int c, Laberinto.DIR entrada) {
+        int m = celdas[c];
+        for (int d = 0; d < 4; d++) {
+            if (d != entrada.ordinal() && (m & DIRS[d].bit) != 0) return d;
+        }
+        return entrada.ordinal();
+    }
+
+    private int vecino(int c, Laberinto.DIR d) {
+        return c + d.direccionY * ancho + d.direccionX;
+    }
+}
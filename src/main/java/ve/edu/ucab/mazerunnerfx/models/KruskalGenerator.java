@@ -0,0 +1,91 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador por el algoritmo de Kruskal aleatorio: baraja todas las paredes interiores y
+ * abre cada una que une dos regiones distintas (union-find con compresión de caminos).
+ * <p>
+ * Produce una textura uniforme con ramificación media. Necesita un arreglo de aristas
+ * (dos enteros por celda) y otro de padres; ambos se reutilizan entre llamadas.
+ */
+public final class KruskalGenerator implements MazeGenerator {
+    private static final int S = Laberinto.DIR.S.bit;
+    private static final int N = Laberinto.DIR.N.bit;
+    private static final int E = Laberinto.DIR.E.bit;
+    private static final int W = Laberinto.DIR.W.bit;
+
+    // arista = celda * 2 + (0: pared este, 1: pared sur)
+    private int[] aristas = new int[0];
+    // union-find: valor negativo = raíz con -tamaño, si no índice del padre
+    private int[] padre = new int[0];
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        final int total = width * height;
+        if (padre.length < total) padre = new int[total];
+        if (aristas.length < 2 * total) aristas = new int[2 * total];
+        java.util.Arrays.fill(padre, 0, total, -1);
+
+        int nAristas = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int c = y * width + x;
+                if (x < width - 1) aristas[nAristas++] = c << 1;
+                if (y < height - 1) aristas[nAristas++] = (c << 1) | 1;
+            }
+        }
+        // Fisher-Yates sobre las aristas
+        for (int i = nAristas - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = aristas[i];
+            aristas[i] = aristas[j];
+            aristas[j] = t;
+        }
+
+        int restantes = total - 1;
+        for (int i = 0; i < nAristas && restantes > 0; i++) {
+            int a = aristas[i] >>> 1;
+            boolean sur = (aristas[i] & 1) != 0;
+            int b = sur ? a + width : a + 1;
+            if (union(a, b)) {
+                if (sur) {
+                    cells[a] |= (byte) S;
+                    cells[b] |= (byte) N;
+                } else {
+                    cells[a] |= (byte) E;
+                    cells[b] |= (byte) W;
+                }
+                restantes--;
+            }
+        }
+    }
+
+    private int find(int v) {
+        while (padre[v] >= 0) {
+            int p = padre[v];
+            if (padre[p] >= 0) {
+                // compresión por división a la mitad
+                padre[v] = padre[p];
+            }
+            v = p;
+        }
+        return v;
+    }
+
+    private boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return false;
+        // unión por tamaño
+        if (padre[ra] > padre[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        padre[ra] += padre[rb];
+        padre[rb] = ra;
+        return true;
+    }
+}
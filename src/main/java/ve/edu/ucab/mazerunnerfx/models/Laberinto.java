@@ -8,7 +8,6 @@ import com.google.gson.JsonParser;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.Vector;
 import java.util.function.Consumer;
 
 /**
@@ -16,16 +15,36 @@ import java.util.function.Consumer;
  * Administra celdas, entidades y carga/guardado desde archivos JSON.
  */
 public class Laberinto {
-    // Allow larger mazes so difficulty ranges up to 75x75 are valid
-    private static final int MAX_DIM = 100;
+    // Generation is iterative (see BacktrackerGenerator), so large mazes no longer overflow the stack
+    private static final int MAX_DIM = 10_000;
     private static final int MIN_DIM = 1;
+    // From this many cells on, the default layout is carved in parallel tiles (see ParallelTiledGenerator)
+    private static final long PARALLEL_GEN_CELLS = 1_000_000L;
     private final int x;
     private final int y;
-    private final Celda[][] maze;
-    private final Vector<Entidad> entidades = new Vector<>();
+    // Walls packed one byte per cell (y*width+x); entity contents are kept only for occupied cells
+    private final PackedGrid grid;
+    // Storage the game plays on: the grid itself, or the chunked world in world mode
+    private final MazeStore store;
+    // every entity but the player, in parallel primitive arrays with a per-cell index
+    private final EntityStore entidades = new EntityStore();
+    // what each entity type does to the player on contact (see resolverInteracciones)
+    private final transient InteractionTable interacciones = new InteractionTable();
     // almacenar el jugador para que persista y se use para iniciar el bucle de entrada
     public Jugador jugador;
 
+    // Seed of the game: regenerating with the same seed and generator reproduces layout and placement
+    private long semilla;
+    private transient GameRandom aleatorio;
+
+    // Structural metrics of the layout (solution length, dead ends...), measured once it is populated
+    private MazeMetrics metricas;
+    // Metrics are measured on first use (see getMetricas): the key and door cells as generated,
+    // and whether the layout still has to be analysed
+    private int llaveInicial = -1;
+    private int puertaInicial = -1;
+    private boolean analisisPendiente = false;
+
     // Persisted elapsed time (in seconds) for the saved maze. Serialized by Gson.
     // This field is new: it stores the time so saved files include the elapsed play time.
     public long tiempoSegundos = 0L;
@@ -33,12 +52,71 @@ public class Laberinto {
     // Listener hook for UI to receive the textual representation when display() is called
     private transient Consumer<String> displayListener = null;
 
+    // Cells touched during the current turn, delivered once per turn to the change listener
+    private transient final ChangeSet.Acumulador cambios = new ChangeSet.Acumulador();
+    private transient Consumer<ChangeSet> cambiosListener = null;
+
+    // Where interactions are reported (console by default); also handed to the player
+    private transient GameEventSink eventos = GameEventSink.CONSOLA;
+
     public void setDisplayListener(Consumer<String> listener) {
         this.displayListener = listener;
     }
 
     /**
-     * Crea un laberinto cuadrado de tamaño dado (clamp entre 1 y 50).
+     * Registers who receives the cells changed in each turn (see {@link ChangeSet}), so a view can
+     * redraw only those instead of the whole maze. Turns are closed by {@link #avanzarTurno(DIR)},
+     * the console loop {@link #jugar()} or {@link #publicarCambios()}. While no listener is set the
+     * changes are not tracked at all.
+     * @param listener consumer of the change sets, or null to stop tracking
+     */
+    public void setCambiosListener(Consumer<ChangeSet> listener) {
+        this.cambiosListener = listener;
+        cambios.publicar();
+    }
+
+    /**
+     * Closes the current turn: hands the cells changed since the previous call to the change
+     * listener (nothing if there is no listener or nothing changed).
+     */
+    public void publicarCambios() {
+        Consumer<ChangeSet> listener = this.cambiosListener;
+        if (listener == null || cambios.vacio()) return;
+        ChangeSet c = cambios.publicar();
+        try {
+            listener.accept(c);
+        } catch (Throwable t) {
+            // swallow listener errors to avoid breaking game loop
+        }
+    }
+
+    // Remember that (cx,cy) changed this turn
+    private void marcarCambio(int cx, int cy) {
+        if (cambiosListener != null) cambios.marcar(cx, cy);
+    }
+
+    /**
+     * Receptor de los sucesos de la partida (trampas, cristales, llave, fin...).
+     * @return receptor actual ({@link GameEventSink#CONSOLA} por defecto)
+     */
+    public GameEventSink getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Cambia el receptor de sucesos de la partida y del jugador actual. Las simulaciones sin
+     * interfaz usan {@link GameEventSink#NINGUNO} para no escribir en consola en cada paso.
+     * @param eventos receptor; null equivale a {@link GameEventSink#NINGUNO}
+     */
+    public void setEventos(GameEventSink eventos) {
+        this.eventos = eventos != null ? eventos : GameEventSink.NINGUNO;
+        if (this.jugador != null) {
+            this.jugador.setEventos(this.eventos);
+        }
+    }
+
+    /**
+     * Crea un laberinto cuadrado de tamaño dado (clamp entre 1 y MAX_DIM).
      * @param size tamaño del laberinto (ancho=alto)
      */
     public Laberinto(int size) {
@@ -55,12 +133,21 @@ public class Laberinto {
     private Laberinto(int x, int y, boolean skipGameLoop) {
         this.x = x;
         this.y = y;
-        maze = new Celda[this.x][this.y];
-        for (int i = 0; i < maze.length; i++) {
-            for (int j = 0; j < maze[i].length; j++) {
-                maze[i][j] = new Celda();
-            }
-        }
+        this.semilla = GameRandom.nuevaSemilla();
+        this.aleatorio = new GameRandom(this.semilla);
+        grid = new PackedGrid(this.x, this.y);
+        store = grid;
+    }
+
+    // World mode: x,y are the viewport size and the layout lives in a chunk store (no fixed grid)
+    private Laberinto(int vistaAncho, int vistaAlto, ChunkStore mundo) {
+        this.x = vistaAncho;
+        this.y = vistaAlto;
+        this.semilla = mundo.getSemilla();
+        this.aleatorio = new GameRandom(this.semilla);
+        this.mundo = mundo;
+        grid = null;
+        store = mundo;
     }
 
     /**
@@ -69,21 +156,58 @@ public class Laberinto {
      * @param y alto del laberinto
      */
     public Laberinto(int x, int y) {
-        this.x = Math.max(MIN_DIM, Math.min(MAX_DIM, x));
-        this.y = Math.max(MIN_DIM, Math.min(MAX_DIM, y));
-        maze = new Celda[this.x][this.y];
-        for (int i = 0; i < maze.length; i++) {
-            for (int j = 0; j < maze[i].length; j++) {
-                maze[i][j] = new Celda();
-            }
-        }
-        // Start generation from the center to avoid strong corner bias
-        generateMaze(this.x / 2, this.y / 2);
-        // populate entities using shared helper so cargado can reuse it if needed
-        populateDefaultEntities();
+        this(x, y, -1);
     }
 
     private int explosiveWallCount = -1; // if >=0, use this exact count when placing explosive walls
+    private transient DensidadEntidades densidad = DensidadEntidades.DEFECTO;
+
+    // Endless mode: the maze is a window of rows streamed from an Eller generator (null otherwise)
+    private transient EllerGenerator filasInfinitas = null;
+    private transient byte[] filaBuffer = null;
+    private long filasDescartadas = 0L;
+
+    // World mode: unbounded chunked layout (null otherwise). Entities are only kept for chunks near
+    // the player; chunks that drift away are emptied and repopulated identically on return, except
+    // for the cells whose entity was already consumed (marked per chunk in the ChunkStore).
+    private transient ChunkStore mundo = null;
+    private final java.util.Set<Long> chunksPoblados = new java.util.HashSet<>();
+    private static final long SAL_CONTENIDO = 0x43L;
+
+    // Pursuit: one BFS distance field from the player shared by every pursuing enemy, rebuilt at
+    // most once per turn (a turn advances each time the player moves)
+    private static final int RADIO_PERSECUCION = 128;
+    private transient FlowField campoPersecucion = null;
+    private long turno = 0L;
+    private long turnoCampo = -1L;
+    // Enemy steps so far (seeds each enemy's random stream) and whether they run in parallel
+    private long pasosEnemigos = 0L;
+    private transient boolean pasoParalelo = false;
+    // Replays: the level this maze was built for (null if it cannot be rebuilt from its seed), the
+    // log the turns are recorded in and the direction of the player's last move
+    transient Dificultad nivel = null;
+    private transient ReplayLog registro = null;
+    private transient DIR pasoJugador = null;
+
+    // Hints: paths to the key and the door read from PathFinder's cached search trees while the
+    // walls stay as they were; once an explosive wall opens, incremental planners seeded from those
+    // trees (see DStarLite) take over and are repaired in place. Any other change to the grid goes
+    // back to fresh trees
+    private transient PathFinder buscador = null;
+    private transient int versionPistas = -1;
+    private transient int objetivoLlave = -1;
+    private transient int objetivoPuerta = -1;
+    private transient DStarLite planLlave = null;
+    private transient DStarLite planPuerta = null;
+    private transient int versionPlanes = -1;
+    // Distance oracle for the bot and analytics; extended with each explosive wall opened, and
+    // given up (until the walls change) once more shortcuts open than it admits
+    private transient DistanceOracle oraculo = null;
+    private transient int versionOraculo = -1;
+    private transient int versionSinOraculo = -1;
+    // Junction graph for searches over corridors instead of cells; also patched on explosions
+    private transient JunctionGraph grafo = null;
+    private transient int versionGrafo = -1;
 
     /**
      * Create a Laberinto with explicit explosive wall count (useful to control difficulty placement).
@@ -92,174 +216,360 @@ public class Laberinto {
      * @param explosiveCount exact number of explosive walls to place (>=0). If negative, fallback to default rule.
      */
     public Laberinto(int x, int y, int explosiveCount) {
+        this(x, y, explosiveCount, (long) x * y >= PARALLEL_GEN_CELLS ? new ParallelTiledGenerator() : new BacktrackerGenerator());
+    }
+
+    /**
+     * Create a Laberinto using the given generation strategy.
+     * @param x width
+     * @param y height
+     * @param explosiveCount exact number of explosive walls to place (>=0). If negative, fallback to default rule.
+     * @param generador strategy that carves the maze layout
+     */
+    public Laberinto(int x, int y, int explosiveCount, MazeGenerator generador) {
+        this(x, y, explosiveCount, generador, GameRandom.nuevaSemilla());
+    }
+
+    /**
+     * Create a reproducible Laberinto: the same arguments always yield the same layout and entities.
+     * @param x width
+     * @param y height
+     * @param explosiveCount exact number of explosive walls to place (>=0). If negative, fallback to default rule.
+     * @param generador strategy that carves the maze layout
+     * @param semilla seed for the game's random streams (generation, placement and AI)
+     */
+    public Laberinto(int x, int y, int explosiveCount, MazeGenerator generador, long semilla) {
+        this(x, y, explosiveCount, generador, semilla, DensidadEntidades.DEFECTO);
+    }
+
+    /**
+     * Create a reproducible Laberinto with a custom entity density (for tuning by simulation).
+     * @param x width
+     * @param y height
+     * @param explosiveCount exact number of explosive walls to place (>=0). If negative, the density decides.
+     * @param generador strategy that carves the maze layout
+     * @param semilla seed for the game's random streams (generation, placement and AI)
+     * @param densidad how many crystals, traps, energies and explosive walls to place
+     */
+    public Laberinto(int x, int y, int explosiveCount, MazeGenerator generador, long semilla, DensidadEntidades densidad) {
         this.x = Math.max(MIN_DIM, Math.min(MAX_DIM, x));
         this.y = Math.max(MIN_DIM, Math.min(MAX_DIM, y));
         this.explosiveWallCount = explosiveCount;
-        maze = new Celda[this.x][this.y];
-        for (int i = 0; i < maze.length; i++) {
-            for (int j = 0; j < maze[i].length; j++) {
-                maze[i][j] = new Celda();
-            }
-        }
-        // Start generation from the center to avoid strong corner bias
-        generateMaze(this.x / 2, this.y / 2);
+        this.densidad = densidad;
+        this.semilla = semilla;
+        this.aleatorio = new GameRandom(semilla);
+        grid = new PackedGrid(this.x, this.y);
+        store = grid;
+        generateMaze(generador);
         // populate entities using shared helper so cargado can reuse it if needed
         populateDefaultEntities();
+        // measured on first use: most mazes (pool spares, simulations, replays) never ask
+        analisisPendiente = (long) this.x * this.y <= MazeAnalyzer.MAX_CELDAS;
+    }
+
+    /**
+     * Crea un laberinto infinito: una ventana de {@code alto} filas que se desplaza hacia abajo
+     * a medida que el jugador desciende, generando filas nuevas con el algoritmo de Eller y
+     * descartando las que quedan atrás. Sólo se conserva la ventana, por lo que la memoria se
+     * mantiene constante sin importar cuánto dure la partida.
+     * @param ancho ancho del laberinto
+     * @param alto cantidad de filas visibles en la ventana
+     * @return laberinto en modo infinito con el jugador en (0,0)
+     */
+    public static Laberinto infinito(int ancho, int alto) {
+        return infinito(ancho, alto, GameRandom.nuevaSemilla());
+    }
+
+    /**
+     * Crea un laberinto infinito reproducible a partir de una semilla.
+     * @param ancho ancho del laberinto
+     * @param alto cantidad de filas visibles en la ventana
+     * @param semilla semilla de la partida
+     * @return laberinto en modo infinito con el jugador en (0,0)
+     */
+    public static Laberinto infinito(int ancho, int alto, long semilla) {
+        Laberinto lab = new Laberinto(clamp(ancho), clamp(alto), true);
+        lab.semilla = semilla;
+        lab.aleatorio = new GameRandom(semilla);
+        lab.filasInfinitas = new EllerGenerator();
+        lab.filasInfinitas.iniciar(lab.x, lab.aleatorio.generacion());
+        lab.filaBuffer = new byte[lab.x];
+        lab.jugador = new Jugador("player@example.com", "password");
+        lab.ubicarJugador(0, 0);
+        for (int j = 0; j < lab.y; j++) {
+            lab.generarFila(j);
+        }
+        return lab;
+    }
+
+    /**
+     * Indica si el laberinto está en modo infinito.
+     * @return true si las filas se generan continuamente
+     */
+    public boolean esInfinito() {
+        return filasInfinitas != null;
+    }
+
+    /**
+     * Profundidad alcanzada por el jugador contando las filas ya descartadas (modo infinito).
+     * @return fila absoluta del jugador
+     */
+    public long getProfundidad() {
+        return filasDescartadas + (jugador != null ? jugador.getPosY() : 0);
+    }
+
+    // Streams the next Eller row into window row j and populates it
+    private void generarFila(int j) {
+        filasInfinitas.siguienteFila(filaBuffer, 0);
+        for (int i = 0; i < this.x; i++) {
+            grid.setValor(i, j, filaBuffer[i]);
+        }
+        java.util.SplittableRandom rnd = aleatorio.colocacion();
+        for (int i = 0; i < this.x; i++) {
+            if (entidades.contarEn(i, j) > 0) continue;
+            // same spirit as populateDefaultEntities: a few crystals, fewer traps and energies
+            int r = rnd.nextInt(100);
+            Entidad nueva;
+            if (r < 5) nueva = new Cristal();
+            else if (r < 7) nueva = new Trampa();
+            else if (r < 9) nueva = new Energia();
+            else continue;
+            nueva.setPosition(i, j);
+            entidades.agregar(nueva);
+        }
+    }
+
+    // Drops the top k rows of the window (and their entities) and streams k new rows at the bottom
+    private void desplazarVentana(int k) {
+        for (Entidad e : getEntidadesSnapshot()) {
+            if (e.getPosY() < k) {
+                entidades.quitar(e);
+            } else {
+                e.setPosition(e.getPosX(), e.getPosY() - k);
+            }
+        }
+        if (jugador != null) {
+            jugador.setPosition(jugador.getPosX(), jugador.getPosY() - k);
+        }
+        grid.desplazarFilas(k);
+        for (int i = 0; i < this.x; i++) {
+            // the row above the window is gone: close its passage
+            grid.setValor(i, 0, grid.valor(i, 0) & ~DIR.N.bit);
+        }
+        // parts of the window joined only through the dropped rows are apart now: let the
+        // generator see that, so it rejoins them below and no region is left closed
+        filasInfinitas.reanudar(grid.paredes(), this.y - k);
+        for (int j = this.y - k; j < this.y; j++) {
+            generarFila(j);
+        }
+        filasDescartadas += k;
+        if (cambiosListener != null) cambios.marcarTodo();
+    }
+
+    /**
+     * Crea un mundo ilimitado generado por bloques (ver {@link ChunkStore}): no hay puerta, el
+     * objetivo es explorar y recoger cristales. {@code ancho} x {@code alto} es el tamaño de la
+     * vista, que se mantiene centrada en el jugador.
+     * @param ancho columnas visibles
+     * @param alto filas visibles
+     * @param semilla semilla del mundo
+     * @return laberinto en modo mundo con el jugador en (0,0)
+     */
+    public static Laberinto mundo(int ancho, int alto, long semilla) {
+        Laberinto lab = new Laberinto(clamp(ancho), clamp(alto), new ChunkStore(semilla));
+        lab.jugador = new Jugador("player@example.com", "password");
+        lab.ubicarJugador(0, 0);
+        lab.actualizarMundo();
+        return lab;
+    }
+
+    /**
+     * Indica si el laberinto es un mundo ilimitado generado por bloques.
+     * @return true en modo mundo
+     */
+    public boolean esMundo() {
+        return mundo != null;
+    }
+
+    /**
+     * Columna del mundo que corresponde a la esquina superior izquierda de la vista
+     * (0 salvo en modo mundo, donde la vista sigue al jugador).
+     */
+    public int getOrigenX() {
+        return (mundo == null || jugador == null) ? 0 : jugador.getPosX() - this.x / 2;
+    }
+
+    /**
+     * Fila del mundo que corresponde a la esquina superior izquierda de la vista.
+     */
+    public int getOrigenY() {
+        return (mundo == null || jugador == null) ? 0 : jugador.getPosY() - this.y / 2;
+    }
+
+    // Populates the chunks under the view (plus a one-chunk margin) and empties the ones beyond it
+    private void actualizarMundo() {
+        int cx0 = ChunkStore.bloque(getOrigenX()) - 1;
+        int cy0 = ChunkStore.bloque(getOrigenY()) - 1;
+        int cx1 = ChunkStore.bloque(getOrigenX() + this.x - 1) + 1;
+        int cy1 = ChunkStore.bloque(getOrigenY() + this.y - 1) + 1;
+        // one more chunk of slack before emptying, so walking along a chunk border does not thrash
+        java.util.Iterator<Long> it = chunksPoblados.iterator();
+        while (it.hasNext()) {
+            long k = it.next();
+            int cx = (int) (k >> 32);
+            int cy = (int) k;
+            if (cx < cx0 - 1 || cx > cx1 + 1 || cy < cy0 - 1 || cy > cy1 + 1) {
+                vaciarChunk(cx, cy);
+                it.remove();
+            }
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                if (chunksPoblados.add(ChunkStore.clave(cx, cy))) {
+                    poblarChunk(cx, cy);
+                }
+            }
+        }
+    }
+
+    // Same densities as the endless rows, drawn from a per-chunk stream so a chunk always gets the same entities
+    private void poblarChunk(int cx, int cy) {
+        java.util.SplittableRandom rnd = new java.util.SplittableRandom(mundo.semillaBloque(cx, cy, SAL_CONTENIDO));
+        int x0 = cx * ChunkStore.TAMANIO;
+        int y0 = cy * ChunkStore.TAMANIO;
+        long[] consumidas = mundo.consumidas(cx, cy);
+        for (int j = 0; j < ChunkStore.TAMANIO; j++) {
+            for (int i = 0; i < ChunkStore.TAMANIO; i++) {
+                // draw for every cell so skipping one never shifts the rest of the chunk
+                int r = rnd.nextInt(100);
+                int px = x0 + i;
+                int py = y0 + j;
+                int celda = j * ChunkStore.TAMANIO + i;
+                if ((px == 0 && py == 0) || (consumidas != null && (consumidas[celda >> 6] & (1L << celda)) != 0)) continue;
+                Entidad nueva;
+                if (r < 5) nueva = new Cristal();
+                else if (r < 7) nueva = new Trampa();
+                else if (r < 9) nueva = new Energia();
+                else continue;
+                nueva.setPosition(px, py);
+                entidades.agregar(nueva);
+            }
+        }
+    }
+
+    // Removes every non-player entity standing in chunk (cx,cy)
+    private void vaciarChunk(int cx, int cy) {
+        for (Entidad e : getEntidadesSnapshot()) {
+            if (ChunkStore.bloque(e.getPosX()) == cx && ChunkStore.bloque(e.getPosY()) == cy) {
+                entidades.quitar(e);
+            }
+        }
     }
 
     // Helper to populate default entities (used by constructor and when loading a save that lacks entities)
     private void populateDefaultEntities() {
-        final int nEntidad = Math.toIntExact(Math.round((double) (this.x * this.y) / 10d)); // 10% de las celdas tendrán peligros
+        final java.util.SplittableRandom rnd = aleatorio.colocacion();
         // Coloca al jugador en la celda de inicio (0,0) si no existe
         if (this.jugador == null) {
             this.jugador = new Jugador("player@example.com", "password");
-            this.jugador.setPosition(0, 0);
-            this.jugador.celdaActual = maze[0][0];
-            maze[0][0].addEntidad(this.jugador);
+            ubicarJugador(0, 0);
         } else {
             // ensure jugador is placed at initial position if its position is default
             if (this.jugador.getPosX() == 0 && this.jugador.getPosY() == 0 && this.jugador.celdaActual == null) {
-                this.jugador.celdaActual = maze[0][0];
-                maze[0][0].addEntidad(this.jugador);
+                ubicarJugador(0, 0);
             }
         }
 
-        // Place crystals at half the previous density (previously nEntidad -> now half). Ensure at least 1 crystal.
-        int nCristales = Math.max(1, nEntidad / 2);
+        // Shuffled indexes of candidate cells: each placement draws one in O(1) instead of
+        // sampling random cells until an empty one turns up (see FreeCellIndex)
+        final int inicio = grid.indice(0, 0);
+        FreeCellIndex libres = FreeCellIndex.todas(this.x, this.y, inicio);
+        FreeCellIndex borde = FreeCellIndex.borde(this.x, this.y, inicio);
+
+        // The exit and its key go first so they always fit, even on a crowded border.
+        // Puerta: any free cell on the border of the maze.
+        int celdaPuerta = tomarLibre(borde, rnd);
+        if (celdaPuerta >= 0) {
+            colocar(new Puerta(), celdaPuerta);
+        }
+        int celdaLlave = tomarLibre(libres, rnd);
+        if (celdaLlave >= 0) {
+            colocar(new Llave(), celdaLlave);
+        }
+        puertaInicial = celdaPuerta;
+        llaveInicial = celdaLlave;
+
+        // Place crystals: half of the hazard count (10% of the cells by default), at least 1 crystal.
+        int nCristales = densidad.cristales(this.x, this.y);
         for (int i = 0; i < nCristales; i++) {
-            int px, py;
-            do {
-                px = (int) (Math.random() * this.x);
-                py = (int) (Math.random() * this.y);
-            } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-            Cristal cristales = new Cristal();
-            cristales.setPosition(px, py);
-            maze[px][py].addEntidad(cristales);
-            entidades.add(cristales);
-        }
-        // Place traps according to the rule: one trap per every 5 rows of the maze (floor(y/5)).
+            int celda = tomarLibre(libres, rnd);
+            if (celda < 0) break;
+            colocar(new Cristal(), celda);
+        }
+        // Place traps according to the rule: one trap per every 5 rows of the maze (floor(y/5)) by default.
         // Example: y=5 => 1 trap, y=9 => 1 trap, y=10 => 2 traps.
-        int numTraps = this.y / 5;
+        int numTraps = densidad.trampas(this.y);
         for (int i = 0; i < numTraps; i++) {
-            int px = 0, py = 0;
-            int attempts = 0;
-            // try to find an empty non-start cell; give up after a large number of attempts to avoid infinite loop
-            do {
-                px = (int) (Math.random() * this.x);
-                py = (int) (Math.random() * this.y);
-                attempts++;
-            } while (((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty()) && attempts < 1000);
-            if (attempts >= 1000) {
-                // unable to place this trap; skip
-                continue;
-            }
-            Trampa trampa = new Trampa();
-            trampa.setPosition(px, py);
-            maze[px][py].addEntidad(trampa);
-            entidades.add(trampa);
-        }
-        // Place Energia using the same rule as traps: one Energia per every 5 rows (floor(y/5)).
-        // Energies will not be placed on the start cell or on occupied cells; retries are bounded.
-        int numEnergia = numTraps; // same count as traps
+            int celda = tomarLibre(libres, rnd);
+            if (celda < 0) break;
+            colocar(new Trampa(), celda);
+        }
+        // Place Energia using the same rule as traps: one Energia per every 5 rows (floor(y/5)) by default.
+        int numEnergia = densidad.energias(this.y);
         for (int i = 0; i < numEnergia; i++) {
-            int px = 0, py = 0;
-            int attempts = 0;
-            do {
-                px = (int) (Math.random() * this.x);
-                py = (int) (Math.random() * this.y);
-                attempts++;
-            } while (((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty()) && attempts < 1000);
-            if (attempts >= 1000) {
-                // skip if unable to find free cell
-                continue;
-            }
-            Energia energia = new Energia();
-            energia.setPosition(px, py);
-            maze[px][py].addEntidad(energia);
-            entidades.add(energia);
-        }
-        // Place explosive walls as optional shortcuts: one per every 10 rows (floor(y/10)).
+            int celda = tomarLibre(libres, rnd);
+            if (celda < 0) break;
+            colocar(new Energia(), celda);
+        }
+        // Place explosive walls as optional shortcuts: one per every 10 rows (floor(y/10)) by default.
         // Each explosive wall is placed on the far side of an existing closed wall so the player
         // can attempt to move through the wall (takes damage and destroys the wall entity).
         int numExplosive;
         if (this.explosiveWallCount >= 0) {
             numExplosive = Math.max(0, this.explosiveWallCount);
         } else {
-            numExplosive = Math.max(0, this.y / 10);
-        }
-        for (int i = 0; i < numExplosive; i++) {
-            int attempts = 0;
-            boolean placed = false;
-            while (!placed && attempts < 2000) {
-                attempts++;
-                int cx = (int) (Math.random() * this.x);
-                int cy = (int) (Math.random() * this.y);
-                if (cx == 0 && cy == 0) continue;
-                // pick a random direction that currently has a closed wall
-                Laberinto.DIR[] dirs = Laberinto.DIR.values();
-                Laberinto.DIR dir = dirs[(int) (Math.random() * dirs.length)];
-                int nx = cx + dir.direccionX;
-                int ny = cy + dir.direccionY;
-                if (!between(nx, this.x) || !between(ny, this.y)) continue;
-                // ensure there is a wall between cx,cy and nx,ny so this represents a breakable wall
-                if ((maze[cx][cy].valor & dir.bit) != 0) continue; // there's already a passage
-                // ensure destination cell is empty
-                if (!maze[nx][ny].obtenerContenido().isEmpty()) continue;
-                // place explosive wall in the destination cell
-                ExplosiveWall bw = new ExplosiveWall();
-                bw.setPosition(nx, ny);
-                maze[nx][ny].addEntidad(bw);
-                entidades.add(bw);
-                placed = true;
-            }
-        }
-        for (int i = 0; i < 1; i++) {
-            int px, py;
-            do {
-                px = (int) (Math.random() * this.x);
-                py = (int) (Math.random() * this.y);
-            } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-            Llave llave = new Llave();
-            llave.setPosition(px, py);
-            maze[px][py].addEntidad(llave);
-            entidades.add(llave);
-        }
-        for (int i = 0; i < 1; i++) {
-            int px, py;
-            switch (Math.toIntExact(Math.round(Math.random() * 3))) {
-                case 0 -> {
-                    do {
-                        px = (int) (Math.random() * this.x);
-                        py = 0;
-                    } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-                }
-                case 1 -> {
-                    do {
-                        px = this.x-1 ;
-                        py = (int) (Math.random() * this.y);
-                    } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-
-                }
-                case 2 -> {
-                    do {
-                        px = (int) (Math.random() * this.x);
-                        py = this.y-1;
-                    } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-                }
-                default -> {
-                    do {
-                        px = 0;
-                        py = (int) (Math.random() * this.y);
-                    } while ((px == 0 && py == 0) || !maze[px][py].obtenerContenido().isEmpty());
-                }
+            numExplosive = densidad.murosExplosivos(this.y);
+        }
+        for (int i = 0; i < numExplosive; ) {
+            int celda = tomarLibre(libres, rnd);
+            if (celda < 0) break;
+            // a free cell only qualifies if it has a closed wall towards a neighbour other than the start
+            if (tieneParedCerrada(celda % this.x, celda / this.x)) {
+                colocar(new ExplosiveWall(), celda);
+                i++;
             }
-            Puerta puerta = new Puerta();
-            puerta.setPosition(px, py);
-            maze[px][py].addEntidad(puerta);
-            entidades.add(puerta);
         }
     }
 
+    // Draws cells from the index until one is still empty (other indexes may have filled it); -1 if exhausted
+    private int tomarLibre(FreeCellIndex indice, java.util.random.RandomGenerator rnd) {
+        int celda;
+        do {
+            celda = indice.tomar(rnd);
+        } while (celda >= 0 && entidades.contarEn(celda % this.x, celda / this.x) > 0);
+        return celda;
+    }
+
+    // Places a new entity in the cell with the given flat index and registers it globally
+    private void colocar(Entidad entidad, int celda) {
+        int px = celda % this.x;
+        int py = celda / this.x;
+        entidad.setPosition(px, py);
+        entidades.agregar(entidad);
+    }
+
+    // True if (cx,cy) has a closed wall towards an in-bounds neighbour that is not the start cell
+    private boolean tieneParedCerrada(int cx, int cy) {
+        int valor = grid.valor(cx, cy);
+        for (DIR d : DIR.values()) {
+            int nx = cx + d.direccionX;
+            int ny = cy + d.direccionY;
+            if (!between(nx, this.x) || !between(ny, this.y) || (nx == 0 && ny == 0)) continue;
+            if ((valor & d.bit) == 0) return true;
+        }
+        return false;
+    }
+
 
     /**
      * Verifica si un valor está dentro de los límites [0, upper).
@@ -300,12 +610,12 @@ public class Laberinto {
             // Rellenar valores y contenidos de las celdas del laberinto
             if (root.has("maze")) {
                 JsonArray mazeArray = root.getAsJsonArray("maze");
-                for (int i = 0; i < mazeArray.size() && i < lab.maze.length; i++) {
+                for (int i = 0; i < mazeArray.size() && i < lab.x; i++) {
                     JsonArray col = mazeArray.get(i).getAsJsonArray();
-                    for (int j = 0; j < col.size() && j < lab.maze[i].length; j++) {
+                    for (int j = 0; j < col.size() && j < lab.y; j++) {
                         JsonObject cellObj = col.get(j).getAsJsonObject();
                         if (cellObj.has("valor")) {
-                            lab.maze[i][j].valor = cellObj.get("valor").getAsInt();
+                            lab.grid.setValor(i, j, cellObj.get("valor").getAsInt());
                         }
                         // el contenido se reconstruirá abajo usando root.entidades y root.jugador principalmente
                     }
@@ -319,8 +629,7 @@ public class Laberinto {
                 lab.jugador = j;
                 // Traducción: colocar al jugador en el laberinto si existen posiciones válidas
                 if (j.getPosX() >= 0 && j.getPosY() >= 0 && j.getPosX() < lab.x && j.getPosY() < lab.y) {
-                    j.celdaActual = lab.maze[j.getPosX()][j.getPosY()];
-                    lab.maze[j.getPosX()][j.getPosY()].addEntidad(j);
+                    lab.ubicarJugador(j.getPosX(), j.getPosY());
                 }
             }
 
@@ -331,14 +640,9 @@ public class Laberinto {
                     JsonObject eo = ee.getAsJsonObject();
                     Entidad entidad = crearEntidadDesdeJson(eo);
                     if (entidad != null) {
-                        int px = entidad.getPosX();
-                        int py = entidad.getPosY();
-                        if (px >= 0 && py >= 0 && px < lab.x && py < lab.y) {
-                            lab.maze[px][py].addEntidad(entidad);
-                        }
                         // Añadir toda entidad no jugador para persistir en próximos guardados (incluye Puerta 'X')
                         if (!(entidad instanceof Jugador)) {
-                            lab.entidades.add(entidad);
+                            lab.entidades.agregar(entidad);
                         }
                     }
                 }
@@ -349,22 +653,20 @@ public class Laberinto {
                 // Preserve the maze layout exactly and only ensure a player entity exists and is placed.
                 if (lab.jugador == null) {
                     lab.jugador = new Jugador("player@example.com", "password");
-                    lab.jugador.setPosition(0, 0);
-                    lab.jugador.celdaActual = lab.maze[0][0];
-                    lab.maze[0][0].addEntidad(lab.jugador);
+                    lab.ubicarJugador(0, 0);
                 } else {
                     // If jugador has valid position, place it in the corresponding cell; otherwise reset to 0,0
                     if (lab.jugador.getPosX() >= 0 && lab.jugador.getPosX() < lab.x && lab.jugador.getPosY() >= 0 && lab.jugador.getPosY() < lab.y) {
-                        lab.jugador.celdaActual = lab.maze[lab.jugador.getPosX()][lab.jugador.getPosY()];
-                        lab.maze[lab.jugador.getPosX()][lab.jugador.getPosY()].addEntidad(lab.jugador);
+                        lab.ubicarJugador(lab.jugador.getPosX(), lab.jugador.getPosY());
                     } else {
-                        lab.jugador.setPosition(0,0);
-                        lab.jugador.celdaActual = lab.maze[0][0];
-                        lab.maze[0][0].addEntidad(lab.jugador);
+                        lab.ubicarJugador(0, 0);
                     }
                 }
             }
 
+            restaurarSemilla(lab, root);
+            restaurarMetricas(lab, root);
+
             // If the saved JSON contains an elapsed time field, restore it into the Laberinto
             if (root.has("tiempoSegundos")) {
                 try {
@@ -402,12 +704,12 @@ public class Laberinto {
 
             if (root.has("maze")) {
                 JsonArray mazeArray = root.getAsJsonArray("maze");
-                for (int i = 0; i < mazeArray.size() && i < lab.maze.length; i++) {
+                for (int i = 0; i < mazeArray.size() && i < lab.x; i++) {
                     JsonArray col = mazeArray.get(i).getAsJsonArray();
-                    for (int j = 0; j < col.size() && j < lab.maze[i].length; j++) {
+                    for (int j = 0; j < col.size() && j < lab.y; j++) {
                         JsonObject cellObj = col.get(j).getAsJsonObject();
                         if (cellObj.has("valor")) {
-                            lab.maze[i][j].valor = cellObj.get("valor").getAsInt();
+                            lab.grid.setValor(i, j, cellObj.get("valor").getAsInt());
                         }
                     }
                 }
@@ -418,8 +720,7 @@ public class Laberinto {
                 Jugador j = Jugador.fromJson(jObj);
                 lab.jugador = j;
                 if (j.getPosX() >= 0 && j.getPosY() >= 0 && j.getPosX() < lab.x && j.getPosY() < lab.y) {
-                    j.celdaActual = lab.maze[j.getPosX()][j.getPosY()];
-                    lab.maze[j.getPosX()][j.getPosY()].addEntidad(j);
+                    lab.ubicarJugador(j.getPosX(), j.getPosY());
                 }
             }
 
@@ -429,13 +730,8 @@ public class Laberinto {
                     JsonObject eo = ee.getAsJsonObject();
                     Entidad entidad = crearEntidadDesdeJson(eo);
                     if (entidad != null) {
-                        int px = entidad.getPosX();
-                        int py = entidad.getPosY();
-                        if (px >= 0 && py >= 0 && px < lab.x && py < lab.y) {
-                            lab.maze[px][py].addEntidad(entidad);
-                        }
                         if (!(entidad instanceof Jugador)) {
-                            lab.entidades.add(entidad);
+                            lab.entidades.agregar(entidad);
                         }
                     }
                 }
@@ -446,22 +742,20 @@ public class Laberinto {
                 // Preserve the maze layout exactly and only ensure a player entity exists and is placed.
                 if (lab.jugador == null) {
                     lab.jugador = new Jugador("player@example.com", "password");
-                    lab.jugador.setPosition(0, 0);
-                    lab.jugador.celdaActual = lab.maze[0][0];
-                    lab.maze[0][0].addEntidad(lab.jugador);
+                    lab.ubicarJugador(0, 0);
                 } else {
                     // If jugador has valid position, place it in the corresponding cell; otherwise reset to 0,0
                     if (lab.jugador.getPosX() >= 0 && lab.jugador.getPosX() < lab.x && lab.jugador.getPosY() >= 0 && lab.jugador.getPosY() < lab.y) {
-                        lab.jugador.celdaActual = lab.maze[lab.jugador.getPosX()][lab.jugador.getPosY()];
-                        lab.maze[lab.jugador.getPosX()][lab.jugador.getPosY()].addEntidad(lab.jugador);
+                        lab.ubicarJugador(lab.jugador.getPosX(), lab.jugador.getPosY());
                     } else {
-                        lab.jugador.setPosition(0,0);
-                        lab.jugador.celdaActual = lab.maze[0][0];
-                        lab.maze[0][0].addEntidad(lab.jugador);
+                        lab.ubicarJugador(0, 0);
                     }
                 }
             }
 
+            restaurarSemilla(lab, root);
+            restaurarMetricas(lab, root);
+
             // restore saved elapsed time if present
             if (root.has("tiempoSegundos")) {
                 try {
@@ -478,6 +772,34 @@ public class Laberinto {
         }
     }
 
+    // Restores the saved seed (older saves have none and keep the fresh one) and reseeds the streams
+    private static void restaurarSemilla(Laberinto lab, JsonObject root) {
+        if (root.has("semilla")) {
+            try {
+                lab.semilla = root.get("semilla").getAsLong();
+                lab.aleatorio = new GameRandom(lab.semilla);
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    // Restores the metrics measured when the maze was generated (a saved game may have lost its key
+    // already); older saves without them are measured lazily by getMetricas()
+    private static void restaurarMetricas(Laberinto lab, JsonObject root) {
+        if (root.has("metricas") && root.get("metricas").isJsonObject()) {
+            lab.metricas = MazeMetrics.fromJson(root.getAsJsonObject("metricas"));
+        } else {
+            // older saves: measured on the first request and only under the size cap, as for a new maze
+            lab.metricas = null;
+            for (Entidad e : lab.getEntidadesSnapshot()) {
+                int celda = e.getPosY() * lab.x + e.getPosX();
+                if (e instanceof Llave && lab.llaveInicial < 0) lab.llaveInicial = celda;
+                else if (e instanceof Puerta && lab.puertaInicial < 0) lab.puertaInicial = celda;
+            }
+            lab.analisisPendiente = (long) lab.x * lab.y <= MazeAnalyzer.MAX_CELDAS;
+        }
+    }
+
     // Ayudante para construir la subclase de Entidad apropiada desde la representación JSON
     /**
      * Crea una instancia de Entidad a partir de su representación JSON.
@@ -577,7 +899,18 @@ public class Laberinto {
      * @return true siempre tras finalizar
      */
     private boolean finParida(int estado) {
-        ControladorBD.guardar(this);
+        // an endless window or a chunked world cannot be resumed as a regular maze, so they are not saved
+        if (!esInfinito() && !esMundo()) {
+            ControladorBD.guardar(this);
+        }
+        // a recorded game rebuildable from its seed also leaves its replay (see ReplayCheck)
+        if (registro != null && registro.isReproducible()) {
+            try {
+                registro.guardar(ReplayLog.directorio().resolve(registro.nombreArchivo()), this);
+            } catch (java.io.IOException | RuntimeException ex) {
+                System.err.println("No se pudo guardar la repetición: " + ex.getMessage());
+            }
+        }
         // Actualizar estadísticas globales
         try {
             String email = (this.jugador != null) ? this.jugador.getCorreoElectronico() : "default";
@@ -595,12 +928,7 @@ public class Laberinto {
         } catch (Throwable t) {
             System.err.println("No se pudieron actualizar las estadísticas: " + t.getMessage());
         }
-        switch (estado) {
-            case -1 -> System.out.println("Has perdido todas tus vidas. ¡Juego terminado!");
-            case 0 -> System.out.println("¡Felicidades! ¡Has escapado del laberinto!");
-            case 1 -> System.out.println("¡Te estaremos esperando! ¡Vuelve pronto!");
-            default -> System.out.println("Has salido del juego. ¡Hasta la próxima!");
-        }
+        eventos.evento(GameEvent.FIN_PARTIDA, estado);
         return true;
     }
 
@@ -622,39 +950,33 @@ public class Laberinto {
         boolean fin = false;
         // El bucle se implementa dentro de Jugador.method() y saldrá cuando el jugador presione 'Q'.
         int eJugador = 0;
+        // after the first full drawing each turn only redraws the cells that changed; a listener
+        // already set (a view) keeps receiving them
+        Consumer<ChangeSet> anterior = this.cambiosListener;
+        if (anterior == null) setCambiosListener(this::mostrarCambios);
         this.display();
-        while (!fin) {
-            eJugador = this.jugador.movimiento(this);
-            if (eJugador != 0) {
-                ControladorBD.guardar(this);
-                fin = true;
-                break;
-            }
-            for (Entidad e : entidades) {
-                if (e instanceof Movimiento movimientoEntidad) {
-                    movimientoEntidad.movimiento(this);
-                }
-                try {
-                    Thread.sleep(250);
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-            if (jugador.celdaActual.cantidadEntidades() > 1) {
-                for (Entidad e : jugador.celdaActual.obtenerContenido()) {
-                    e.interact(jugador);
-                    if (e.ascii == 'K' || e.ascii == 'C' || e.ascii == 'G') {
-                        // remove from the current cell and global list to match GUI behavior
-                        jugador.celdaActual.removeEntidad(e);
-                        entidades.removeElement(e);
+        try {
+            while (!fin) {
+                eJugador = this.jugador.movimiento(this);
+                if (eJugador != 0) {
+                    if (!esInfinito() && !esMundo()) {
+                        ControladorBD.guardar(this);
                     }
+                    fin = true;
+                    break;
                 }
+                // the rest of the turn is the same as in the window and the headless player
+                resolverInteracciones();
+                avanzarEnemigos();
                 fin = jugador.isEscapado();
                 if (!jugador.taVivo()) {
                     eJugador = -1;
                     fin = true;
                 }
+                cerrarTurno();
             }
+        } finally {
+            if (anterior == null) setCambiosListener(null);
         }
         return this.finParida(eJugador);
     }
@@ -663,35 +985,7 @@ public class Laberinto {
      * Dibuja el laberinto actual en la consola.
      */
     public void display() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < y; i++) {
-            // crea la pared norte
-            for (int j = 0; j < x; j++) {
-                if ((maze[j][i].valor & DIR.N.bit) == 0) {
-                    sb.append("+---");
-                } else {
-                    sb.append("+   ");
-                }
-            }
-            sb.append("+").append(System.lineSeparator());
-            // crea la pared oeste
-            for (int j = 0; j < x; j++) {
-                if ((maze[j][i].valor & DIR.W.bit) == 0) {
-                    // pared oeste cerrada: imprimir '|', luego un espacio, el carácter de celda y un espacio final => 4 caracteres
-                    sb.append("| ").append(maze[j][i].obtenerAscii()).append(" ");
-                } else {
-                    sb.append("  ").append(maze[j][i].obtenerAscii()).append(" ");
-                }
-            }
-            sb.append("|").append(System.lineSeparator());
-        }
-        // crea la pared sur
-        for (int j = 0; j < x; j++) {
-            sb.append("+---");
-        }
-        sb.append("+").append(System.lineSeparator());
-
-        String out = sb.toString();
+        String out = getDisplayString();
         // print to console as before
         Misc.clearScreen();
         System.out.print(out);
@@ -705,30 +999,76 @@ public class Laberinto {
         }
     }
 
+    /**
+     * Redibuja en la consola sólo las celdas de un turno (o todo el laberinto si la vista cambió),
+     * con secuencias ANSI de posición del cursor sobre el dibujo de {@link #display()}.
+     * @param c celdas cambiadas en el turno
+     */
+    public void mostrarCambios(ChangeSet c) {
+        if (c.isCompleto()) {
+            display();
+            return;
+        }
+        System.out.print(getCambiosString(c));
+        System.out.flush();
+    }
+
+    /**
+     * Returns the ANSI sequences that repaint the given cells over the drawing printed by
+     * {@link #display()} (each cell's north wall, west wall and character), leaving the cursor on
+     * the line below the maze with the rest of the screen cleared.
+     */
+    public String getCambiosString(ChangeSet c) {
+        final int ox = getOrigenX();
+        final int oy = getOrigenY();
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < c.size(); k++) {
+            int j = c.x(k) - ox;
+            int i = c.y(k) - oy;
+            if (j < 0 || i < 0 || j >= x || i >= y) continue;
+            int valor = getCellValue(c.x(k), c.y(k));
+            // rows and columns are 1-based: cell (j,i) is drawn on rows 2i+1 (north wall) and 2i+2
+            sb.append("\033[").append(2 * i + 1).append(';').append(4 * j + 1).append('H')
+                    .append((valor & DIR.N.bit) == 0 ? "+---" : "+   ");
+            sb.append("\033[").append(2 * i + 2).append(';').append(4 * j + 1).append('H')
+                    .append((valor & DIR.W.bit) == 0 ? '|' : ' ').append(' ')
+                    .append(getCellChar(c.x(k), c.y(k))).append(' ');
+        }
+        sb.append("\033[").append(2 * y + 2).append(";1H\033[J");
+        return sb.toString();
+    }
+
     /**
      * Returns the textual representation of the current maze without printing.
      * Useful for UI components that want to render the maze.
      */
     public String getDisplayString() {
+        // the view's top-left cell in maze coordinates (only moves in world mode)
+        final int ox = getOrigenX();
+        final int oy = getOrigenY();
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < y; i++) {
+            // crea la pared norte
             for (int j = 0; j < x; j++) {
-                if ((maze[j][i].valor & DIR.N.bit) == 0) {
+                if ((getCellValue(ox + j, oy + i) & DIR.N.bit) == 0) {
                     sb.append("+---");
                 } else {
                     sb.append("+   ");
                 }
             }
             sb.append("+").append(System.lineSeparator());
+            // crea la pared oeste
             for (int j = 0; j < x; j++) {
-                if ((maze[j][i].valor & DIR.W.bit) == 0) {
-                    sb.append("| ").append(maze[j][i].obtenerAscii()).append(" ");
+                if ((getCellValue(ox + j, oy + i) & DIR.W.bit) == 0) {
+                    // pared oeste cerrada: imprimir '|', luego un espacio, el carácter de celda y un espacio final => 4 caracteres
+                    sb.append("| ").append(getCellChar(ox + j, oy + i)).append(" ");
                 } else {
-                    sb.append("  ").append(maze[j][i].obtenerAscii()).append(" ");
+                    sb.append("  ").append(getCellChar(ox + j, oy + i)).append(" ");
                 }
             }
             sb.append("|").append(System.lineSeparator());
         }
+        // crea la pared sur
         for (int j = 0; j < x; j++) {
             sb.append("+---");
         }
@@ -748,8 +1088,8 @@ public class Laberinto {
         }
 
         public final int bit;
-        private final int direccionX;
-        private final int direccionY;
+        final int direccionX;
+        final int direccionY;
         private DIR opposite;
 
         DIR(int bit, int direccionX, int direccionY) {
@@ -757,28 +1097,21 @@ public class Laberinto {
             this.direccionX = direccionX;
             this.direccionY = direccionY;
         }
-    }
-
-    // Recursive backtracker maze generation (depth-first search)
-    private void generateMaze(int celdaX, int celdaY) {
-        // create an array of directions and shuffle it to get random traversal order
-        DIR[] direccion = DIR.values();
-        java.util.List<DIR> dirs = java.util.Arrays.asList(direccion);
-        java.util.Collections.shuffle(dirs);
 
-        for (DIR dir : dirs) {
-            int vecinoX = celdaX + dir.direccionX;
-            int vecinoY = celdaY + dir.direccionY;
-            if (between(vecinoX, x) && between(vecinoY, y) && (maze[vecinoX][vecinoY].valor == 0)) {
-                // carve passage between current cell and neighbor
-                maze[celdaX][celdaY].valor |= dir.bit;
-                maze[vecinoX][vecinoY].valor |= dir.opposite.bit;
-                // recurse
-                generateMaze(vecinoX, vecinoY);
-            }
+        /**
+         * Devuelve la dirección opuesta (N-S, E-W).
+         * @return dirección opuesta
+         */
+        public DIR opuesto() {
+            return opposite;
         }
     }
 
+    // Carve the layout on a primitive grid with the chosen strategy and copy it into the cells
+    private void generateMaze(MazeGenerator generador) {
+        generador.generate(grid.paredes(), this.x, this.y, aleatorio.generacion());
+    }
+
     // Permitir inyectar un Jugador (p. ej., desde un Usuario autenticado) antes de iniciar el juego
     /**
      * Establece el jugador activo en el laberinto colocándolo en la posición inicial (0,0).
@@ -787,20 +1120,33 @@ public class Laberinto {
      */
     public void setJugador(Jugador jugador) {
         // eliminar el jugador anterior de su celda actual si está presente
-        if (this.jugador != null && this.jugador.celdaActual != null) {
-            this.jugador.celdaActual.removeEntidad(this.jugador);
+        if (this.jugador != null) {
+            entidades.quitar(this.jugador);
         }
         this.jugador = jugador;
         if (this.jugador != null) {
+            this.jugador.setEventos(eventos);
             // ubicar en la posición inicial (0,0)
-            this.jugador.setPosition(0, 0);
-            if (maze != null && maze.length > 0 && maze[0].length > 0) {
-                this.jugador.celdaActual = maze[0][0];
-                maze[0][0].addEntidad(this.jugador);
+            if (store != null && this.x > 0 && this.y > 0) {
+                ubicarJugador(0, 0);
+            } else {
+                this.jugador.setPosition(0, 0);
             }
         }
     }
 
+    // Registers the player at (px,py) in the entity store, taking it from any other maze, and points celdaActual at its cell
+    private void ubicarJugador(int px, int py) {
+        if (jugador.almacen != entidades) {
+            if (jugador.almacen != null) jugador.almacen.quitar(jugador);
+            jugador.setPosition(px, py);
+            entidades.agregar(jugador);
+        } else {
+            jugador.setPosition(px, py);
+        }
+        jugador.celdaActual = new Celda(entidades, px, py);
+    }
+
     /**
      * Intenta mover una entidad en la dirección indicada si no hay paredes ni límites.
      * @param entidad entidad a mover
@@ -812,99 +1158,577 @@ public class Laberinto {
         int entidadY = entidad.getPosY();
         int destinoX = entidadX + direccion.direccionX;
         int destinoY = entidadY + direccion.direccionY;
-        if (!between(destinoX, x) || !between(destinoY, y)) {
+        if (!store.contiene(destinoX, destinoY)) {
             return false;
         }
 
         // si la pared en la dirección está cerrada, no se puede mover
-        if ((maze[entidadX][entidadY].valor & direccion.bit) == 0) {
+        if ((store.valor(entidadX, entidadY) & direccion.bit) == 0) {
             // Closed wall: allow the player to force a passage if the destination cell contains
             // an ExplosiveWall (acts as a breakable/shortcut). The explosive will interact
             // (deal damage) and then be removed; the wall bit will be opened.
             if (entidad instanceof Jugador jugadorMov) {
                 boolean foundExplosive = false;
-                for (Entidad e : maze[destinoX][destinoY].obtenerContenido()) {
-                    if (e instanceof ExplosiveWall) {
+                for (int id = entidades.primeraEn(destinoX, destinoY); id >= 0; id = entidades.siguienteEnCelda(id)) {
+                    if (entidades.tipo(id) == EntityStore.EXPLOSIVO) {
                         foundExplosive = true;
+                        Entidad e = entidades.objeto(id);
                         // trigger explosion (will apply damage to player)
                         try { e.interact(jugadorMov); } catch (Throwable ignored) {}
                         // remove explosive from the destination cell and from global entities
-                        maze[destinoX][destinoY].removeEntidad(e);
-                        entidades.removeElement(e);
+                        entidades.quitar(e);
                         break;
                     }
                 }
                 if (!foundExplosive) return false;
                 // open passage in both cells
-                maze[entidadX][entidadY].valor |= direccion.bit;
-                maze[destinoX][destinoY].valor |= direccion.opposite.bit;
+                int versionAntes = grid != null ? grid.getVersion() : 0;
+                // the metrics describe the layout as generated, without shortcuts
+                if (analisisPendiente) getMetricas();
+                store.abrir(entidadX, entidadY, direccion.bit);
+                store.abrir(destinoX, destinoY, direccion.opposite.bit);
+                avisarParedAbierta(entidadX, entidadY, destinoX, destinoY, versionAntes);
             } else {
                 return false;
             }
         }
 
-        // realizar el movimiento: quitar de la celda actual y agregar a la destino
-        maze[entidadX][entidadY].removeEntidad(entidad);
-        maze[destinoX][destinoY].addEntidad(entidad);
-
-        // actualizar referencias si es jugador
-        if (entidad instanceof Jugador jugadorMov) {
-            jugadorMov.celdaActual = maze[destinoX][destinoY];
+        // realizar el movimiento: el registro la pasa de la celda actual a la destino (y la
+        // celda actual del jugador lo acompaña)
+        entidad.setPosition(destinoX, destinoY);
+        if (entidad instanceof Jugador) {
+            turno++;
+            pasoJugador = direccion;
         }
+        marcarCambio(entidadX, entidadY);
+        marcarCambio(destinoX, destinoY);
 
-        entidad.setPosition(destinoX, destinoY);
+        // endless mode: keep the player around the middle of the window, scoring each new row
+        if (filasInfinitas != null && entidad instanceof Jugador jugadorMov && destinoY > this.y / 2) {
+            int avance = destinoY - this.y / 2;
+            desplazarVentana(avance);
+            jugadorMov.recibirPuntos(10 * avance);
+        }
+        if (mundo != null && entidad instanceof Jugador) {
+            actualizarMundo();
+            // the view follows the player
+            if (cambiosListener != null) cambios.marcarTodo();
+        }
         return true;
     }
 
+    /**
+     * Adds an enemy at (ex,ey).
+     * @param ex column
+     * @param ey row
+     * @param persigue true to chase the player along the shared flow field, false to wander randomly
+     * @return the enemy placed
+     */
+    public Enemigo agregarEnemigo(int ex, int ey, boolean persigue) {
+        Enemigo enemigo = new Enemigo(persigue);
+        enemigo.setPosition(ex, ey);
+        entidades.agregar(enemigo);
+        return enemigo;
+    }
+
+    /**
+     * Hint for the player: the path from the player to the Llave and then on to the Puerta (only to
+     * the Puerta once the key is picked up). Only fixed-size mazes have hints. The first call searches
+     * the whole maze once per target ({@link PathFinder#caminoHacia}); later calls only walk the path,
+     * and after an explosive wall opens the paths are repaired incrementally instead of searched again.
+     * @return flat cell indices (y * width + x) along the path, starting at the player; empty if
+     *         there is nothing to reach or no path
+     */
+    public int[] calcularPista() {
+        if (grid == null || jugador == null) return new int[0];
+        int version = grid.getVersion();
+        if (planPuerta != null && versionPlanes != version) {
+            planLlave = null;
+            planPuerta = null;
+        }
+        if (planPuerta == null && versionPistas != version) {
+            objetivoLlave = -1;
+            objetivoPuerta = -1;
+            for (Entidad e : getEntidadesSnapshot()) {
+                if (e instanceof Llave && objetivoLlave < 0) objetivoLlave = grid.indice(e.getPosX(), e.getPosY());
+                else if (e instanceof Puerta && objetivoPuerta < 0) objetivoPuerta = grid.indice(e.getPosX(), e.getPosY());
+            }
+            if (buscador == null) buscador = new PathFinder();
+            versionPistas = version;
+        }
+        if (objetivoPuerta < 0) return new int[0];
+        int desde = grid.indice(jugador.getPosX(), jugador.getPosY());
+        boolean conLlave = jugador.tieneLlave() || objetivoLlave < 0;
+        int[] hastaLlave = new int[0];
+        int[] hastaPuerta;
+        if (planPuerta == null) {
+            if (!conLlave) {
+                hastaLlave = buscador.caminoHacia(grid, desde, objetivoLlave);
+                if (hastaLlave == null) return new int[0];
+            }
+            hastaPuerta = buscador.caminoHacia(grid, conLlave ? desde : objetivoLlave, objetivoPuerta);
+            if (hastaPuerta == null) return hastaLlave;
+        } else {
+            if (planLlave != null && conLlave) {
+                // key picked up: the door leg now starts at the player
+                planLlave = null;
+            }
+            if (planLlave != null) {
+                planLlave.moverInicio(desde);
+                hastaLlave = planLlave.camino();
+                if (hastaLlave.length == 0) return hastaLlave;
+            } else {
+                planPuerta.moverInicio(desde);
+            }
+            hastaPuerta = planPuerta.camino();
+            if (hastaPuerta.length == 0) return hastaLlave;
+        }
+        // the key cell ends the first leg and starts the second: keep it once
+        int comun = hastaLlave.length > 0 ? 1 : 0;
+        int[] pista = java.util.Arrays.copyOf(hastaLlave, hastaLlave.length + hastaPuerta.length - comun);
+        System.arraycopy(hastaPuerta, comun, pista, hastaLlave.length, hastaPuerta.length - comun);
+        return pista;
+    }
+
+    // An explosive wall opened a passage: repair the hint planners and the oracle instead of
+    // rebuilding them (only those that were current before the wall opened)
+    private void avisarParedAbierta(int ax, int ay, int bx, int by, int versionAntes) {
+        if (grid == null) return;
+        int a = grid.indice(ax, ay);
+        int b = grid.indice(bx, by);
+        if (planPuerta == null && versionPistas == versionAntes && objetivoPuerta >= 0) {
+            // the hint trees were current: seed the planners with them instead of searching again
+            boolean conLlave = jugador == null || jugador.tieneLlave() || objetivoLlave < 0;
+            int[] arbolPuerta = buscador.distancias(grid, objetivoPuerta, versionAntes);
+            int[] arbolLlave = conLlave ? null : buscador.distancias(grid, objetivoLlave, versionAntes);
+            if (arbolPuerta != null && (conLlave || arbolLlave != null)) {
+                int desde = jugador != null ? grid.indice(jugador.getPosX(), jugador.getPosY()) : 0;
+                planLlave = conLlave ? null : new DStarLite(grid, objetivoLlave, desde, arbolLlave);
+                planPuerta = new DStarLite(grid, objetivoPuerta, conLlave ? desde : objetivoLlave, arbolPuerta);
+                versionPlanes = versionAntes;
+            }
+        }
+        if (planPuerta != null && versionPlanes == versionAntes) {
+            if (planLlave != null) planLlave.paredAbierta(a, b);
+            planPuerta.paredAbierta(a, b);
+            versionPlanes = grid.getVersion();
+        }
+        if (oraculo != null && versionOraculo == versionAntes) {
+            if (oraculo.abrirPasaje(a, b)) {
+                versionOraculo = grid.getVersion();
+            } else {
+                oraculo = null;
+                versionSinOraculo = grid.getVersion();
+            }
+        }
+        if (grafo != null && versionGrafo == versionAntes) {
+            grafo.abrirPasaje(a, b);
+            versionGrafo = grid.getVersion();
+        }
+    }
+
+    /**
+     * Distance oracle over the current walls (fixed-size mazes only), built on first use and kept
+     * up to date as explosive walls open.
+     * @return the oracle, or null in endless/world mode and once more passages have opened off the
+     *         maze's tree than the oracle admits ({@link DistanceOracle#MAX_PORTALES}); callers
+     *         then fall back to a search
+     */
+    public DistanceOracle getOraculo() {
+        if (grid == null || versionSinOraculo == grid.getVersion()) return null;
+        if (oraculo == null || versionOraculo != grid.getVersion()) {
+            try {
+                oraculo = new DistanceOracle(grid);
+                versionOraculo = grid.getVersion();
+            } catch (IllegalStateException ex) {
+                oraculo = null;
+                versionSinOraculo = grid.getVersion();
+            }
+        }
+        return oraculo;
+    }
+
+    /**
+     * Junction graph over the current walls (fixed-size mazes only), with the Llave, the Puerta and
+     * the Cristales as extra nodes. Built on first use and patched locally as explosive walls open.
+     * @return the graph, or null in endless/world mode
+     */
+    public JunctionGraph getGrafoCruces() {
+        if (grid == null) return null;
+        if (grafo == null || versionGrafo != grid.getVersion()) {
+            Entidad[] snapshot = getEntidadesSnapshot();
+            int[] puntos = new int[snapshot.length];
+            int n = 0;
+            for (Entidad e : snapshot) {
+                if (e instanceof Llave || e instanceof Puerta || e instanceof Cristal) {
+                    puntos[n++] = grid.indice(e.getPosX(), e.getPosY());
+                }
+            }
+            grafo = new JunctionGraph(grid, java.util.Arrays.copyOf(puntos, n));
+            versionGrafo = grid.getVersion();
+        }
+        return grafo;
+    }
+
+    /**
+     * Number of player moves so far; the pursuit field is rebuilt when it changes.
+     */
+    public long getTurno() {
+        return turno;
+    }
+
+    // Enemy steps so far, to tell whether a maze is still at its start (see ReplayLog)
+    long getPasosEnemigos() {
+        return pasosEnemigos;
+    }
+
+    /**
+     * Level this maze was built for by {@link Dificultad#crearCandidato(long)}, or null if it
+     * cannot be rebuilt from the level and the seed (loaded games, custom sizes, other densities).
+     */
+    public Dificultad getNivel() {
+        return nivel;
+    }
+
+    /**
+     * Log the keyboard turns ({@link #avanzarTurno(DIR)} and the console loop) are recorded in.
+     * @param registro log positioned at the current turn, or null to stop recording
+     */
+    public void setRegistro(ReplayLog registro) {
+        this.registro = registro;
+    }
+
+    public ReplayLog getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Whether the game state can be captured with {@link #capturarEstado()}: only fixed-size
+     * mazes; the endless window and the chunked world regenerate what they drop.
+     */
+    public boolean admiteInstantaneas() {
+        return grid != null && filasInfinitas == null && mundo == null;
+    }
+
+    /**
+     * Captures the game state between turns: walls, entities (with their ids and the order inside
+     * each cell, on which enemy randomness and interactions depend), the player's stats and the
+     * turn counters. The state can only be restored into this same maze.
+     * @throws IllegalStateException if the maze does not admit snapshots
+     */
+    public GameState capturarEstado() {
+        if (!admiteInstantaneas()) throw new IllegalStateException("Sólo los laberintos de tamaño fijo admiten instantáneas");
+        return new GameState(this, grid.paredes().clone(), entidades.copiar(), jugador,
+                jugador != null ? jugador.marcador() : null, turno, pasosEnemigos);
+    }
+
+    /**
+     * Goes back (or forward) to a state captured with {@link #capturarEstado()}. The whole maze is
+     * marked as changed for the change listener.
+     * @throws IllegalArgumentException if the state was captured from another maze
+     */
+    public void restaurarEstado(GameState estado) {
+        if (estado.laberinto != this) throw new IllegalArgumentException("La instantánea es de otro laberinto");
+        grid.restaurarParedes(estado.paredes);
+        entidades.restaurar(estado.entidades);
+        jugador = estado.jugador;
+        if (jugador != null) {
+            jugador.restaurar(estado.marcador);
+            jugador.setEventos(eventos);
+            jugador.celdaActual = new Celda(entidades, jugador.getPosX(), jugador.getPosY());
+        }
+        turno = estado.turno;
+        pasosEnemigos = estado.pasosEnemigos;
+        turnoCampo = -1L;
+        if (cambiosListener != null) cambios.marcarTodo();
+    }
+
+    /**
+     * Checksum of the game state: walls, every entity but the player by id and position, the
+     * player's position and stats, and the turn counters. Two runs of the same replay must end
+     * with the same value (see {@link ReplayCheck}).
+     */
+    public long huella() {
+        long h = mezclar(turno, pasosEnemigos);
+        if (grid != null) {
+            byte[] paredes = grid.paredes();
+            for (int i = 0; i < paredes.length; i++) {
+                h = mezclar(h, paredes[i]);
+            }
+        }
+        for (int id = 0; id < entidades.limite(); id++) {
+            byte t = entidades.tipo(id);
+            if (t == EntityStore.NINGUNO || t == EntityStore.JUGADOR) continue;
+            h = mezclar(h, ((long) id << 8) | t);
+            h = mezclar(h, ((long) entidades.x(id) << 32) | (entidades.y(id) & 0xFFFFFFFFL));
+        }
+        if (jugador != null) {
+            h = mezclar(h, ((long) jugador.getPosX() << 32) | (jugador.getPosY() & 0xFFFFFFFFL));
+            h = mezclar(h, jugador.getPuntos());
+            h = mezclar(h, jugador.getLlaves());
+            h = mezclar(h, jugador.isEscapado() ? 1 : 0);
+            for (int v : jugador.getVidasArray()) {
+                h = mezclar(h, v);
+            }
+        }
+        return h;
+    }
+
+    private static long mezclar(long h, long v) {
+        h = (h ^ v) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Distance field towards the player for the current turn, computed on first use in the turn
+     * and shared by every pursuing enemy.
+     * @return the field, or null if there is no player
+     */
+    public FlowField getCampoPersecucion() {
+        if (jugador == null) return null;
+        if (campoPersecucion == null) {
+            campoPersecucion = new FlowField(RADIO_PERSECUCION);
+        }
+        if (turnoCampo != turno) {
+            campoPersecucion.calcular(store, jugador.getPosX(), jugador.getPosY());
+            turnoCampo = turno;
+        }
+        return campoPersecucion;
+    }
+
+    /**
+     * Seed of this game's random streams.
+     */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Per-game random streams (generation, placement, AI).
+     */
+    public GameRandom getAleatorio() {
+        return aleatorio;
+    }
+
+    /**
+     * Structural metrics of the layout as generated, measured on the first call. Null in endless
+     * and world modes, which have no fixed layout, and for grids over {@link MazeAnalyzer#MAX_CELDAS}
+     * cells, too large to analyse on demand.
+     */
+    public synchronized MazeMetrics getMetricas() {
+        if (analisisPendiente) {
+            metricas = MazeAnalyzer.analizar(grid, llaveInicial, puertaInicial);
+            analisisPendiente = false;
+        }
+        return metricas;
+    }
+
     public int getWidth() {
         return this.x;
     }
 
+    // Packed wall/occupancy storage, used by the persistence layer to read walls directly
+    PackedGrid getGrid() {
+        return grid;
+    }
+
     public int getHeight() {
         return this.y;
     }
 
     /**
-     * Return the internal 'valor' bitmask for the cell at (x,y). Caller must ensure bounds.
+     * Return the internal 'valor' bitmask for the cell at (x,y) in maze coordinates (0 outside the maze).
+     * In world mode the view starts at (getOrigenX(), getOrigenY()) instead of (0,0).
      */
     public int getCellValue(int cx, int cy) {
-        if (cx < 0 || cy < 0 || cx >= this.x || cy >= this.y) return 0;
-        return maze[cx][cy].valor;
+        if (!store.contiene(cx, cy)) return 0;
+        return store.valor(cx, cy);
     }
 
     /**
-     * Return the representative ASCII char for the cell content (delegates to Celda.obternerAscii).
+     * Return the representative ASCII char for the cell content (see {@link Celda#obtenerAscii()}).
      */
     public char getCellChar(int cx, int cy) {
-        if (cx < 0 || cy < 0 || cx >= this.x || cy >= this.y) return ' ';
-        return maze[cx][cy].obtenerAscii();
+        if (!store.contiene(cx, cy)) return ' ';
+        return entidades.ascii(cx, cy);
+    }
+
+    /**
+     * View of the entities in cell (cx,cy).
+     */
+    public Celda getCelda(int cx, int cy) {
+        return new Celda(entidades, cx, cy);
     }
 
     /**
-     * Advance all entities that implement Movimiento by calling their movimiento(this).
-     * Uses a snapshot to avoid concurrent-modification when entities remove themselves.
+     * Advance all entities that implement Movimiento once. Enemies are stepped straight from the
+     * entity store's arrays and draw their random direction from a stream of their own (game seed,
+     * enemy step and store id), so the outcome does not depend on the order they are processed in
+     * and the parallel mode matches this one. Entities removed while stepping leave a hole that is
+     * skipped.
      */
     public void stepEntities() {
-        Entidad[] snapshot;
-        synchronized (entidades) {
-            snapshot = entidades.toArray(new Entidad[0]);
+        long paso = pasosEnemigos++;
+        // ids added while stepping (by another mover) wait for the next step
+        final int limite = entidades.limite();
+        FlowField campo = null;
+        for (int id = 0; id < limite; id++) {
+            if (entidades.tipo(id) == EntityStore.ENEMIGO && entidades.persigue(id)) {
+                campo = getCampoPersecucion();
+                break;
+            }
         }
-        for (Entidad e : snapshot) {
-            if (e instanceof Movimiento movimientoEntidad) {
-                try {
+        if (pasoParalelo && grid != null) {
+            if (cambiosListener == null) {
+                ParallelStepper.paso(this, grid, entidades, campo, paso);
+                return;
+            }
+            // the bands move entities on several threads: compare positions afterwards instead
+            int[] antes = new int[limite];
+            for (int id = 0; id < limite; id++) {
+                antes[id] = grid.indice(entidades.x(id), entidades.y(id));
+            }
+            ParallelStepper.paso(this, grid, entidades, campo, paso);
+            for (int id = 0; id < limite; id++) {
+                if (entidades.tipo(id) == EntityStore.NINGUNO) continue;
+                int ahora = grid.indice(entidades.x(id), entidades.y(id));
+                if (ahora != antes[id]) {
+                    marcarCambio(antes[id] % this.x, antes[id] / this.x);
+                    marcarCambio(entidades.x(id), entidades.y(id));
+                }
+            }
+            return;
+        }
+        for (int id = 0; id < limite; id++) {
+            try {
+                byte tipo = entidades.tipo(id);
+                if (tipo == EntityStore.ENEMIGO) {
+                    DIR dir = Enemigo.elegirDireccion(entidades.persigue(id), entidades.x(id), entidades.y(id),
+                            campo, azarEnemigo(paso, id));
+                    if (dir != null && !moverEnemigo(id, dir)) getEventos().evento(GameEvent.ENEMIGO_CHOCO, 0);
+                } else if (tipo != EntityStore.NINGUNO && tipo != EntityStore.JUGADOR
+                        && entidades.objeto(id) instanceof Movimiento movimientoEntidad) {
                     movimientoEntidad.movimiento(this);
-                } catch (Throwable ignored) {
+                }
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    // Same rules as movimientoEntidad for an enemy (no explosives, no scrolling), from the store's arrays
+    private boolean moverEnemigo(int id, DIR dir) {
+        int ex = entidades.x(id);
+        int ey = entidades.y(id);
+        int nx = ex + dir.direccionX;
+        int ny = ey + dir.direccionY;
+        if (!store.contiene(nx, ny) || (store.valor(ex, ey) & dir.bit) == 0) return false;
+        entidades.mover(id, nx, ny);
+        marcarCambio(ex, ey);
+        marcarCambio(nx, ny);
+        return true;
+    }
+
+    /**
+     * Plays one full turn for the player without any UI: moves it, resolves what it finds in the
+     * destination cell (see {@link #getInteracciones()}), steps the other
+     * entities and resolves whatever reached the player, then hands the turn's changed cells to the
+     * change listener. Used by the game window and the headless {@link AutoPlayer}.
+     * @param dir direction of the player's move
+     * @return true if the player moved; a blocked move does not advance the turn
+     */
+    public boolean avanzarTurno(DIR dir) {
+        if (!moverJugador(dir)) return false;
+        avanzarEnemigos();
+        cerrarTurno();
+        return true;
+    }
+
+    // End of a keyboard turn: publishes its changes and appends the move to the replay log, if any
+    private void cerrarTurno() {
+        publicarCambios();
+        if (registro != null) registro.anotar(this, pasoJugador);
+    }
+
+    /**
+     * First half of a turn: moves the player and resolves what it finds in the destination cell.
+     * The real-time mode ({@link RealTimeLoop}) calls it for each key, independently of the ticks.
+     * @param dir direction of the player's move
+     * @return true if the player moved
+     */
+    public boolean moverJugador(DIR dir) {
+        if (jugador == null || !movimientoEntidad(jugador, dir)) return false;
+        resolverInteracciones();
+        return true;
+    }
+
+    /**
+     * Second half of a turn: steps the other entities and resolves whatever reached the player.
+     */
+    public void avanzarEnemigos() {
+        stepEntities();
+        if (jugador != null) resolverInteracciones();
+    }
+
+    // Interaction stage, shared by every way of playing: each other entity in the player's cell, in
+    // the cell's order, applies its type's effect and leaves the maze if its class is consumed on
+    // touch. Walks the cell index without copying or allocating; the next id is read before the
+    // effect in case the entity (or the player) leaves the cell.
+    private void resolverInteracciones() {
+        int px = jugador.getPosX();
+        int py = jugador.getPosY();
+        if (entidades.contarEn(px, py) <= 1) return;
+        for (int id = entidades.primeraEn(px, py); id >= 0; ) {
+            int siguiente = entidades.siguienteEnCelda(id);
+            byte tipo = entidades.tipo(id);
+            InteractionTable.Efecto efecto = interacciones.efecto(tipo);
+            if (efecto != null) {
+                Entidad e = entidades.objeto(id);
+                efecto.aplicar(e, jugador);
+                if (entidades.seConsume(id)) {
+                    removeEntidadGlobal(e);
+                    marcarCambio(px, py);
                 }
             }
+            id = siguiente;
         }
+        // a player out of lives leaves the board
+        if (!jugador.taVivo()) marcarCambio(jugador.getPosX(), jugador.getPosY());
+    }
+
+    /**
+     * Enables stepping enemies in parallel by row bands (fixed-size mazes only). The result is the
+     * same as stepping them one by one.
+     * @param paralelo true to use every core for {@link #stepEntities()}
+     */
+    public void setPasoParalelo(boolean paralelo) {
+        this.pasoParalelo = paralelo;
+    }
+
+    public boolean isPasoParalelo() {
+        return pasoParalelo;
+    }
+
+    // Random direction (0-3) of the enemy with entity-store id indice on the given step: a stateless
+    // mix of seed, step and id, so a step allocates nothing and bands may draw in any order. It is
+    // the first nextInt(4) of a SplittableRandom seeded the same way, so recorded replays still match.
+    int azarEnemigo(long paso, int indice) {
+        long z = semilla ^ (paso * 0x9E3779B97F4A7C15L) ^ ((indice + 1L) * 0xC2B2AE3D27D4EB4FL);
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32) & 3;
     }
 
     /**
      * Remove an entity from the global entities list (used by UI when a key/crystal is picked).
      */
     public void removeEntidadGlobal(Entidad e) {
-        if (e == null) return;
-        entidades.removeElement(e);
+        if (e == null || e == jugador) return;
+        // a key or crystal may already have left its cell on its own
+        entidades.quitar(e);
+        // in world mode the chunk must not hand the consumed entity out again when repopulated
+        if (mundo != null) {
+            mundo.consumir(e.getPosX(), e.getPosY());
+        }
     }
 
     /**
@@ -912,8 +1736,45 @@ public class Laberinto {
      * This is used by the persistence layer to serialize exact entity state/positions.
      */
     public Entidad[] getEntidadesSnapshot() {
+        return entidades.snapshot();
+    }
+
+    /**
+     * Serializes the entities straight from the entity store (ascii, position and, for traps and
+     * enemies, damage), in insertion order. The player is saved separately.
+     * @return one JSON object per entity
+     */
+    public JsonArray entidadesJson() {
+        JsonArray ja = new JsonArray();
         synchronized (entidades) {
-            return entidades.toArray(new Entidad[0]);
+            for (int id = 0; id < entidades.limite(); id++) {
+                byte tipo = entidades.tipo(id);
+                if (tipo == EntityStore.NINGUNO || tipo == EntityStore.JUGADOR) continue;
+                JsonObject eo = new JsonObject();
+                eo.addProperty("ascii", String.valueOf(entidades.objeto(id).obtenerAscii()));
+                eo.addProperty("posX", entidades.x(id));
+                eo.addProperty("posY", entidades.y(id));
+                if (tipo == EntityStore.TRAMPA || tipo == EntityStore.ENEMIGO) {
+                    eo.addProperty("danio", (int) entidades.danio(id));
+                }
+                ja.add(eo);
+            }
         }
+        return ja;
+    }
+
+    /**
+     * Per-type effects applied when the player shares a cell with an entity; entries can be
+     * replaced to change what a type does.
+     */
+    public InteractionTable getInteracciones() {
+        return interacciones;
+    }
+
+    /**
+     * Entity store of this maze (positions, types and per-cell lookup).
+     */
+    public EntityStore getEntidades() {
+        return entidades;
     }
 }
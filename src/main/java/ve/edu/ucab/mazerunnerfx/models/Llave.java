@@ -13,13 +13,21 @@ public class Llave extends Entidad {
     }
 
     /**
-     * Agrega una llave al inventario del jugador y elimina la llave de la celda.
+     * Agrega una llave al inventario del jugador; el laberinto la retira después
+     * ({@link #seConsumeAlTocar()}).
      * @param jugador jugador que recoge la llave
      */
     @Override
     public void interact(Jugador jugador) {
-        System.out.println("¡Has recogido la llave!, ya puedes ir a la salida.");
+        jugador.getEventos().evento(GameEvent.LLAVE, 0);
         jugador.recogerLlave();
-        jugador.celdaActual.removeEntidad(this);
+    }
+
+    /**
+     * La llave se recoge: sale del laberinto al tocarla.
+     */
+    @Override
+    public boolean seConsumeAlTocar() {
+        return true;
     }
 }
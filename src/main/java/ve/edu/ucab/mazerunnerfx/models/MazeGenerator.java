@@ -0,0 +1,38 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia de generación del trazado del laberinto.
+ * <p>
+ * Una implementación rellena {@code cells[y * width + x]} con la máscara de pasajes abiertos
+ * de cada celda usando los bits de {@link Laberinto.DIR} (el mismo formato que {@link PackedGrid}),
+ * produciendo un laberinto perfecto: todas las celdas conectadas y sin ciclos.
+ * <p>
+ * Las implementaciones difieren en velocidad y en la "textura" del laberinto resultante:
+ * <ul>
+ *     <li>{@link SidewinderGenerator}: la más rápida y sin memoria extra; fila superior abierta y
+ *     sesgo vertical marcado, por lo que resulta fácil de resolver.</li>
+ *     <li>{@link PrimGenerator}: muchos callejones cortos y ramificación alta alrededor del origen.</li>
+ *     <li>{@link KruskalGenerator}: textura uniforme con ramificación media; usa un arreglo de aristas
+ *     y union-find (la que más memoria requiere).</li>
+ *     <li>{@link WilsonGenerator}: árbol de expansión uniforme (sin sesgo); más lenta al inicio porque
+ *     depende de caminatas aleatorias; no la usa ningún nivel (ver su documentación).</li>
+ *     <li>{@link EllerGenerator}: fila por fila con memoria O(ancho); permite laberintos de altura
+ *     ilimitada (modo infinito).</li>
+ *     <li>{@link BacktrackerGenerator}: pasillos largos y sinuosos con pocos cruces; la más difícil de
+ *     recorrer a mano.</li>
+ * </ul>
+ * Las implementaciones reutilizan sus arreglos de trabajo entre llamadas y no reservan memoria por
+ * celda visitada; por ello una misma instancia no debe usarse desde varios hilos a la vez.
+ */
+public interface MazeGenerator {
+    /**
+     * Genera un laberinto perfecto sobre la grilla indicada.
+     * @param cells arreglo de salida de tamaño {@code width * height}; debe estar en cero
+     * @param width ancho de la grilla
+     * @param height alto de la grilla
+     * @param rng fuente de aleatoriedad
+     */
+    void generate(byte[] cells, int width, int height, RandomGenerator rng);
+}
@@ -0,0 +1,120 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Métricas estructurales de un laberinto calculadas por {@link MazeAnalyzer}.
+ * <p>
+ * Las distancias se miden en pasos entre celdas siguiendo los pasajes abiertos (sin contar los
+ * atajos por muros explosivos); valen -1 si el extremo no existe o no es alcanzable.
+ */
+public final class MazeMetrics {
+    private final int inicioALlave;
+    private final int llaveAPuerta;
+    private final int celdasAlcanzables;
+    private final int callejones;
+    private final int cruces;
+    private final double longitudMediaPasillo;
+
+    public MazeMetrics(int inicioALlave, int llaveAPuerta, int celdasAlcanzables, int callejones,
+                       int cruces, double longitudMediaPasillo) {
+        this.inicioALlave = inicioALlave;
+        this.llaveAPuerta = llaveAPuerta;
+        this.celdasAlcanzables = celdasAlcanzables;
+        this.callejones = callejones;
+        this.cruces = cruces;
+        this.longitudMediaPasillo = longitudMediaPasillo;
+    }
+
+    /**
+     * Pasos desde la celda inicial (0,0) hasta la llave.
+     */
+    public int getInicioALlave() {
+        return inicioALlave;
+    }
+
+    /**
+     * Longitud de la solución: pasos desde la llave hasta la puerta.
+     */
+    public int getLlaveAPuerta() {
+        return llaveAPuerta;
+    }
+
+    public int getCeldasAlcanzables() {
+        return celdasAlcanzables;
+    }
+
+    /**
+     * Cantidad de callejones sin salida (celdas con un solo pasaje).
+     */
+    public int getCallejones() {
+        return callejones;
+    }
+
+    /**
+     * Cantidad de cruces (celdas con tres o más pasajes).
+     */
+    public int getCruces() {
+        return cruces;
+    }
+
+    /**
+     * Proporción de celdas alcanzables que son callejones sin salida.
+     */
+    public double getProporcionCallejones() {
+        return celdasAlcanzables == 0 ? 0d : (double) callejones / celdasAlcanzables;
+    }
+
+    /**
+     * Longitud media, en celdas, de los pasillos (tramos de celdas con exactamente dos pasajes).
+     */
+    public double getLongitudMediaPasillo() {
+        return longitudMediaPasillo;
+    }
+
+    /**
+     * Índice de dificultad: el recorrido completo (inicio, llave, puerta) ponderado por la
+     * proporción de callejones, que mide cuántas ramas falsas hay que descartar por el camino.
+     * Sólo sirve para comparar laberintos entre sí.
+     * @return índice no negativo; mayor es más difícil
+     */
+    public double getIndiceDificultad() {
+        int recorrido = Math.max(0, inicioALlave) + Math.max(0, llaveAPuerta);
+        return recorrido * (1d + getProporcionCallejones());
+    }
+
+    /**
+     * Serializa las métricas para el archivo de guardado.
+     */
+    public JsonObject toJson() {
+        JsonObject o = new JsonObject();
+        o.addProperty("inicioALlave", inicioALlave);
+        o.addProperty("llaveAPuerta", llaveAPuerta);
+        o.addProperty("celdasAlcanzables", celdasAlcanzables);
+        o.addProperty("callejones", callejones);
+        o.addProperty("cruces", cruces);
+        o.addProperty("longitudMediaPasillo", longitudMediaPasillo);
+        return o;
+    }
+
+    /**
+     * Reconstruye las métricas desde un guardado; los campos ausentes valen -1 o 0.
+     */
+    public static MazeMetrics fromJson(JsonObject o) {
+        return new MazeMetrics(
+                o.has("inicioALlave") ? o.get("inicioALlave").getAsInt() : -1,
+                o.has("llaveAPuerta") ? o.get("llaveAPuerta").getAsInt() : -1,
+                o.has("celdasAlcanzables") ? o.get("celdasAlcanzables").getAsInt() : 0,
+                o.has("callejones") ? o.get("callejones").getAsInt() : 0,
+                o.has("cruces") ? o.get("cruces").getAsInt() : 0,
+                o.has("longitudMediaPasillo") ? o.get("longitudMediaPasillo").getAsDouble() : 0d);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT,
+                "solucion=%d, inicioALlave=%d, callejones=%.1f%%, cruces=%d, pasillo=%.2f, indice=%.1f",
+                llaveAPuerta, inicioALlave, 100d * getProporcionCallejones(), cruces,
+                longitudMediaPasillo, getIndiceDificultad());
+    }
+}
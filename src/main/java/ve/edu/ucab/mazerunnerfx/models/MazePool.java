@@ -0,0 +1,164 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reserva de laberintos pre-generados por {@link Dificultad}.
+ * <p>
+ * Mantiene hasta {@code capacidad} laberintos listos por nivel (trazado, entidades y métricas ya
+ * calculados) que se generan en un hilo de fondo, de modo que iniciar una partida no genera nada en
+ * el hilo de JavaFX. Cada {@link #tomar(Dificultad)} devuelve uno listo y programa su reposición; si
+ * el nivel está vacío (p. ej. justo al arrancar) se genera en el momento.
+ * <p>
+ * La memoria se controla de forma conservadora: antes de programar una generación se reserva la
+ * estimación del laberinto más grande del nivel ({@link #memoriaEstimada(Dificultad)}) y no se
+ * programa si se superaría {@code memoriaMaxima}; la reserva se libera al tomarlo.
+ */
+public final class MazePool {
+    private static final int CAPACIDAD_DEFECTO = 2;
+    private static final long MEMORIA_DEFECTO = 16L << 20;
+    // bytes aproximados por celda: 1 de paredes + ~10% de celdas con una entidad, su fila del registro e índice (~100 B)
+    private static final int BYTES_POR_CELDA = 12;
+    private static final int BYTES_FIJOS = 4096;
+
+    private static MazePool compartido;
+
+    private final int capacidad;
+    private final long memoriaMaxima;
+    private final Map<Dificultad, ConcurrentLinkedQueue<Laberinto>> listos = new EnumMap<>(Dificultad.class);
+    // laberintos listos más los que se están generando, por nivel
+    private final Map<Dificultad, AtomicInteger> reservados = new EnumMap<>(Dificultad.class);
+    private final AtomicLong memoriaReservada = new AtomicLong();
+    private final ExecutorService ejecutor;
+
+    /**
+     * Crea una reserva con su propio hilo generador (daemon).
+     * @param capacidad laberintos listos por nivel (0 desactiva la reserva)
+     * @param memoriaMaxima bytes estimados que pueden ocupar entre todos los niveles
+     */
+    public MazePool(int capacidad, long memoriaMaxima) {
+        if (capacidad < 0 || memoriaMaxima < 0) {
+            throw new IllegalArgumentException("Capacidad y memoria no pueden ser negativas");
+        }
+        this.capacidad = capacidad;
+        this.memoriaMaxima = memoriaMaxima;
+        for (Dificultad d : Dificultad.values()) {
+            listos.put(d, new ConcurrentLinkedQueue<>());
+            reservados.put(d, new AtomicInteger());
+        }
+        this.ejecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "MazePool");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Reserva compartida por la aplicación. La capacidad y el límite de memoria se configuran con
+     * las propiedades del sistema {@code mazerunner.pool.capacidad} y {@code mazerunner.pool.memoriaMB}.
+     */
+    public static synchronized MazePool compartido() {
+        if (compartido == null) {
+            int capacidad = Integer.getInteger("mazerunner.pool.capacidad", CAPACIDAD_DEFECTO);
+            long memoria = Long.getLong("mazerunner.pool.memoriaMB", MEMORIA_DEFECTO >> 20) << 20;
+            compartido = new MazePool(capacidad, memoria);
+        }
+        return compartido;
+    }
+
+    /**
+     * Programa la generación de todos los niveles hasta su capacidad.
+     */
+    public void precalentar() {
+        for (Dificultad d : Dificultad.values()) {
+            reponer(d);
+        }
+    }
+
+    /**
+     * Entrega un laberinto listo del nivel, o lo genera en el momento si no queda ninguno.
+     * @param dificultad nivel pedido
+     * @return laberinto nuevo, sin jugar
+     */
+    public Laberinto tomar(Dificultad dificultad) {
+        Laberinto lab = listos.get(dificultad).poll();
+        if (lab != null) {
+            reservados.get(dificultad).decrementAndGet();
+            memoriaReservada.addAndGet(-memoriaEstimada(dificultad));
+        } else {
+            lab = dificultad.crear();
+        }
+        reponer(dificultad);
+        return lab;
+    }
+
+    /**
+     * Cantidad de laberintos listos del nivel.
+     */
+    public int disponibles(Dificultad dificultad) {
+        return listos.get(dificultad).size();
+    }
+
+    /**
+     * Bytes estimados reservados por laberintos listos o en generación.
+     */
+    public long getMemoriaReservada() {
+        return memoriaReservada.get();
+    }
+
+    /**
+     * Detiene el hilo generador; los laberintos listos siguen disponibles.
+     */
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Estimación pesimista de la memoria de un laberinto del nivel (el de mayores dimensiones).
+     */
+    public static long memoriaEstimada(Dificultad dificultad) {
+        return (long) dificultad.maxCeldas() * BYTES_POR_CELDA + BYTES_FIJOS;
+    }
+
+    // Schedules generations until the level is full or the memory budget would be exceeded
+    private void reponer(Dificultad d) {
+        final AtomicInteger enNivel = reservados.get(d);
+        final long estimada = memoriaEstimada(d);
+        while (true) {
+            int actuales = enNivel.get();
+            if (actuales >= capacidad) return;
+            long memoria = memoriaReservada.get();
+            if (memoria + estimada > memoriaMaxima) return;
+            if (!memoriaReservada.compareAndSet(memoria, memoria + estimada)) continue;
+            if (!enNivel.compareAndSet(actuales, actuales + 1)) {
+                memoriaReservada.addAndGet(-estimada);
+                continue;
+            }
+            try {
+                ejecutor.execute(() -> generar(d, estimada));
+            } catch (java.util.concurrent.RejectedExecutionException ex) {
+                // pool closed: undo the reservation and stop refilling
+                enNivel.decrementAndGet();
+                memoriaReservada.addAndGet(-estimada);
+                return;
+            }
+        }
+    }
+
+    private void generar(Dificultad d, long estimada) {
+        try {
+            listos.get(d).add(d.crear());
+        } catch (Throwable t) {
+            reservados.get(d).decrementAndGet();
+            memoriaReservada.addAndGet(-estimada);
+            System.err.println("No se pudo pre-generar un laberinto " + d.getNombre() + ": " + t.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Almacenamiento de las paredes sobre las que juega un {@link Laberinto}.
+ * <p>
+ * Las paredes se exponen como la máscara de pasajes abiertos de {@link Laberinto.DIR}; el
+ * contenido de las celdas lo indexa {@link EntityStore}. {@link PackedGrid} cubre los
+ * laberintos de tamaño fijo y {@link ChunkStore} el mundo ilimitado generado por bloques.
+ */
+public interface MazeStore {
+    /**
+     * Indica si (x,y) es una celda válida del laberinto.
+     */
+    boolean contiene(int x, int y);
+
+    /**
+     * Máscara de pasajes abiertos de la celda (x,y). El llamador debe validar los límites.
+     */
+    int valor(int x, int y);
+
+    /**
+     * Abre el pasaje indicado en la celda (x,y) (sólo de este lado).
+     */
+    void abrir(int x, int y, int bit);
+}
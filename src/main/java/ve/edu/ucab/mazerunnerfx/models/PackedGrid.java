@@ -0,0 +1,128 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+/**
+ * Almacenamiento compacto de la grilla del laberinto.
+ * <p>
+ * Las paredes se guardan como un {@code byte} por celda en un arreglo plano indexado por
+ * {@code y * ancho + x} (la máscara de pasajes de {@link Laberinto.DIR}); el contenido de las
+ * celdas lo indexa aparte {@link EntityStore}. Frente a un {@code Celda[][]} con un conjunto por
+ * celda esto reduce el consumo de memoria de ~100 bytes a ~1 byte por celda vacía y recorre las
+ * filas de forma contigua al dibujar o buscar caminos.
+ * <p>
+ * Las filas se agrupan en bandas de {@link #FILAS_BANDA} para repartir el paso paralelo de
+ * enemigos entre hilos ({@link ParallelStepper}). Las paredes no cambian durante ese paso.
+ */
+public final class PackedGrid implements MazeStore {
+    /** Filas por banda (potencia de dos). */
+    public static final int FILAS_BANDA = 32;
+    private static final int DESPLAZAMIENTO_BANDA = 5;
+    private final int ancho;
+    private final int alto;
+    private final byte[] paredes;
+    // incremented on every wall change so cached path data can detect stale layouts
+    private int version = 0;
+
+    /**
+     * Crea una grilla con todas las paredes cerradas y sin entidades.
+     * @param ancho cantidad de columnas
+     * @param alto cantidad de filas
+     */
+    public PackedGrid(int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.paredes = new byte[ancho * alto];
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    @Override
+    public boolean contiene(int x, int y) {
+        return x >= 0 && y >= 0 && x < ancho && y < alto;
+    }
+
+    /**
+     * Índice plano de la celda (x,y).
+     */
+    public int indice(int x, int y) {
+        return y * ancho + x;
+    }
+
+    @Override
+    public int valor(int x, int y) {
+        return paredes[y * ancho + x];
+    }
+
+    /**
+     * Máscara de pasajes abiertos por índice plano.
+     */
+    public int valor(int indice) {
+        return paredes[indice];
+    }
+
+    /**
+     * Reemplaza la máscara de pasajes de la celda (x,y).
+     */
+    public void setValor(int x, int y, int valor) {
+        paredes[y * ancho + x] = (byte) valor;
+        version++;
+    }
+
+    @Override
+    public void abrir(int x, int y, int bit) {
+        paredes[y * ancho + x] |= (byte) bit;
+        version++;
+    }
+
+    /**
+     * Contador de cambios de paredes hechos con {@link #setValor}, {@link #abrir},
+     * {@link #desplazarFilas} o {@link #restaurarParedes}.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    // Acceso directo al arreglo para los generadores y la persistencia
+    byte[] paredes() {
+        return paredes;
+    }
+
+    /**
+     * Vuelve a las paredes de una copia de {@link #paredes()} (ver {@link GameState}).
+     */
+    void restaurarParedes(byte[] copia) {
+        if (java.util.Arrays.equals(paredes, copia)) return;
+        System.arraycopy(copia, 0, paredes, 0, paredes.length);
+        version++;
+    }
+
+    /**
+     * Cantidad de bandas de {@link #FILAS_BANDA} filas que cubren la grilla.
+     */
+    public int getBandas() {
+        return banda(Math.max(alto, 1) - 1) + 1;
+    }
+
+    /**
+     * Banda a la que pertenece una fila.
+     */
+    public static int banda(int y) {
+        return y >> DESPLAZAMIENTO_BANDA;
+    }
+
+    /**
+     * Desplaza la grilla k filas hacia arriba: descarta las k primeras filas y deja k filas
+     * cerradas al final.
+     */
+    public void desplazarFilas(int k) {
+        int corrimiento = k * ancho;
+        System.arraycopy(paredes, corrimiento, paredes, 0, paredes.length - corrimiento);
+        java.util.Arrays.fill(paredes, paredes.length - corrimiento, paredes.length, (byte) 0);
+        version++;
+    }
+}
@@ -0,0 +1,132 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Paso de enemigos en paralelo sobre un {@link PackedGrid}, repartido por bandas de filas.
+ * <p>
+ * Cada banda ({@link PackedGrid#FILAS_BANDA} filas) pertenece a un solo hilo durante la primera
+ * fase: el hilo decide la dirección de los enemigos que empiezan en ella (con su flujo aleatorio
+ * propio, ver {@link Laberinto#stepEntities()}) y escribe su nueva posición en las filas de
+ * {@link EntityStore} de esos enemigos, sin tocar el índice por celda. En una segunda fase, en un
+ * solo hilo y en orden de identificador, se lleva cada movimiento al índice y se avisa
+ * {@link GameEvent#ENEMIGO_CHOCO} por cada enemigo que chocó (el receptor de eventos no tiene por
+ * qué ser seguro entre hilos).
+ * <p>
+ * El resultado es el mismo que moverlos uno a uno: las paredes no cambian durante el paso (sólo el
+ * jugador abre muros explosivos), la dirección de cada enemigo no depende de los demás y el índice
+ * se actualiza en el mismo orden que el paso serial. Otras entidades con {@link Movimiento} se
+ * mueven después, en orden.
+ */
+final class ParallelStepper {
+    // below this many entities per band the fork/join overhead outweighs the work
+    private static final int MINIMO_POR_TAREA = 256;
+    // origin mark of an enemy that stayed because it walked into a wall or the edge
+    private static final int CHOCO = -2;
+
+    private ParallelStepper() {
+    }
+
+    static void paso(Laberinto lab, PackedGrid grid, EntityStore almacen, FlowField campo, long paso) {
+        final int bandas = grid.getBandas();
+        final int limite = almacen.limite();
+        // enemy ids grouped by the band they start in, keeping id order within a band
+        int[] inicio = new int[bandas + 1];
+        for (int id = 0; id < limite; id++) {
+            if (almacen.tipo(id) == EntityStore.ENEMIGO) inicio[PackedGrid.banda(almacen.y(id)) + 1]++;
+        }
+        for (int b = 0; b < bandas; b++) {
+            inicio[b + 1] += inicio[b];
+        }
+        int[] orden = new int[inicio[bandas]];
+        int[] lleno = java.util.Arrays.copyOf(inicio, bandas);
+        for (int id = 0; id < limite; id++) {
+            if (almacen.tipo(id) == EntityStore.ENEMIGO) orden[lleno[PackedGrid.banda(almacen.y(id))]++] = id;
+        }
+
+        // where each moved enemy was (flat index), -1 if it stayed, CHOCO if it hit a wall
+        int[] origen = new int[limite];
+        java.util.Arrays.fill(origen, -1);
+        ForkJoinPool.commonPool().invoke(new MoverBandas(lab, grid, almacen, campo, paso, inicio, orden, origen, 0, bandas));
+
+        int ancho = grid.getAncho();
+        for (int id = 0; id < limite; id++) {
+            byte tipo = almacen.tipo(id);
+            if (origen[id] >= 0) {
+                // the store's row already has the new position: only the cell index is behind
+                almacen.reindexar(id, origen[id] % ancho, origen[id] / ancho);
+            } else if (origen[id] == CHOCO) {
+                lab.getEventos().evento(GameEvent.ENEMIGO_CHOCO, 0);
+            } else if (tipo != EntityStore.ENEMIGO && tipo != EntityStore.NINGUNO && tipo != EntityStore.JUGADOR
+                    && almacen.objeto(id) instanceof Movimiento m) {
+                try {
+                    m.movimiento(lab);
+                } catch (Throwable ignored) {
+                }
+            }
+        }
+    }
+
+    // Steps the enemies of a range of bands, splitting it among the pool's threads
+    private static final class MoverBandas extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        // a task only lives inside one step and is never serialized
+        private final transient Laberinto lab;
+        private final transient PackedGrid grid;
+        private final transient EntityStore almacen;
+        private final transient FlowField campo;
+        private final long paso;
+        private final int[] inicio;
+        private final int[] orden;
+        private final int[] origen;
+        private final int desde;
+        private final int hasta;
+
+        MoverBandas(Laberinto lab, PackedGrid grid, EntityStore almacen, FlowField campo, long paso,
+                    int[] inicio, int[] orden, int[] origen, int desde, int hasta) {
+            this.lab = lab;
+            this.grid = grid;
+            this.almacen = almacen;
+            this.campo = campo;
+            this.paso = paso;
+            this.inicio = inicio;
+            this.orden = orden;
+            this.origen = origen;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > 1 && inicio[hasta] - inicio[desde] > MINIMO_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new MoverBandas(lab, grid, almacen, campo, paso, inicio, orden, origen, desde, medio),
+                        new MoverBandas(lab, grid, almacen, campo, paso, inicio, orden, origen, medio, hasta));
+                return;
+            }
+            for (int b = desde; b < hasta; b++) {
+                for (int k = inicio[b]; k < inicio[b + 1]; k++) {
+                    mover(orden[k]);
+                }
+            }
+        }
+
+        // Same rules as Laberinto.movimientoEntidad for an enemy: stays on a closed wall or the edge
+        private void mover(int id) {
+            int x = almacen.x(id);
+            int y = almacen.y(id);
+            Laberinto.DIR dir = Enemigo.elegirDireccion(almacen.persigue(id), x, y, campo, lab.azarEnemigo(paso, id));
+            if (dir == null) return;
+            int nx = x + dir.direccionX;
+            int ny = y + dir.direccionY;
+            if (!grid.contiene(nx, ny) || (grid.valor(x, y) & dir.bit) == 0) {
+                origen[id] = CHOCO;
+                return;
+            }
+            // each id belongs to one task; the shared cell index is fixed up afterwards, serially
+            almacen.fijarPosicion(id, nx, ny);
+            origen[id] = grid.indice(x, y);
+        }
+    }
+}
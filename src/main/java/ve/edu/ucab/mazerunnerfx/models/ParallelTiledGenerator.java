@@ -0,0 +1,184 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador paralelo para laberintos muy grandes.
+ * <p>
+ * Divide la grilla en bloques ("tiles") cuadrados, talla cada bloque de forma independiente en el
+ * {@link ForkJoinPool#commonPool()} con un generador base, y luego los cose en un único laberinto
+ * perfecto: se aplica Kruskal (union-find) sobre el grafo de bloques y, por cada borde aceptado,
+ * se abre un solo pasaje en una posición aleatoria del borde compartido. Como cada bloque es un
+ * árbol y los bordes abiertos forman un árbol entre bloques, el resultado sigue siendo perfecto.
+ * <p>
+ * Las semillas de cada bloque se extraen del generador recibido antes de repartir el trabajo, así
+ * que el resultado es el mismo sin importar el número de hilos ni el orden de ejecución. El costo
+ * de coser es O(bloques), despreciable frente al tallado, por lo que el tiempo escala con los
+ * núcleos disponibles; con un solo núcleo rinde igual que el generador base (~15M celdas/s).
+ * Si la grilla cabe en un solo bloque se usa directamente el generador base.
+ * <p>
+ * Cada tarea hoja talla un tramo contiguo de bloques con su propio generador base y su propio
+ * búfer, creados al empezar y descartados al terminar: nada queda asociado a los hilos del pool
+ * común entre llamadas. Los tramos se dimensionan para unas cuatro tareas por núcleo, así que
+ * esas reservas son pocas.
+ */
+public final class ParallelTiledGenerator implements MazeGenerator {
+    private static final int TAMANIO_BLOQUE_DEFECTO = 256;
+    private static final int N = Laberinto.DIR.N.bit;
+    private static final int S = Laberinto.DIR.S.bit;
+    private static final int E = Laberinto.DIR.E.bit;
+    private static final int W = Laberinto.DIR.W.bit;
+
+    private final int tamanioBloque;
+    // los generadores no son seguros entre hilos: cada tarea hoja crea el suyo
+    private final Supplier<MazeGenerator> fabrica;
+    // para la grilla de un solo bloque, que se talla en el hilo que llama
+    private final MazeGenerator generadorBase;
+
+    /**
+     * Crea un generador con bloques de 256x256 tallados con {@link BacktrackerGenerator}.
+     */
+    public ParallelTiledGenerator() {
+        this(TAMANIO_BLOQUE_DEFECTO, BacktrackerGenerator::new);
+    }
+
+    /**
+     * Crea un generador con el tamaño de bloque y el generador base indicados.
+     * @param tamanioBloque lado de cada bloque en celdas
+     * @param fabrica crea el generador base de cada tarea
+     */
+    public ParallelTiledGenerator(int tamanioBloque, Supplier<MazeGenerator> fabrica) {
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanioBloque);
+        }
+        this.tamanioBloque = tamanioBloque;
+        this.fabrica = fabrica;
+        this.generadorBase = fabrica.get();
+    }
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        final int bx = (width + tamanioBloque - 1) / tamanioBloque;
+        final int by = (height + tamanioBloque - 1) / tamanioBloque;
+        if (bx * by == 1) {
+            generadorBase.generate(cells, width, height, rng);
+            return;
+        }
+        long[] semillas = new long[bx * by];
+        for (int i = 0; i < semillas.length; i++) {
+            semillas[i] = rng.nextLong();
+        }
+        int tramo = Math.max(1, semillas.length / (4 * ForkJoinPool.getCommonPoolParallelism()));
+        ForkJoinPool.commonPool().invoke(new TallarBloques(this, cells, width, height, bx, semillas, tramo, 0, semillas.length));
+        coser(cells, width, height, bx, by, rng);
+    }
+
+    // Talla un rango de bloques dividiéndolo recursivamente entre los hilos del pool
+    private static final class TallarBloques extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        // las tareas nunca se serializan; el generador no es serializable
+        private final transient ParallelTiledGenerator generador;
+        private final byte[] cells;
+        private final int width;
+        private final int height;
+        private final int bx;
+        private final long[] semillas;
+        private final int tramo;
+        private final int desde;
+        private final int hasta;
+
+        TallarBloques(ParallelTiledGenerator generador, byte[] cells, int width, int height, int bx,
+                      long[] semillas, int tramo, int desde, int hasta) {
+            this.generador = generador;
+            this.cells = cells;
+            this.width = width;
+            this.height = height;
+            this.bx = bx;
+            this.semillas = semillas;
+            this.tramo = tramo;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > tramo) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TallarBloques(generador, cells, width, height, bx, semillas, tramo, desde, medio),
+                        new TallarBloques(generador, cells, width, height, bx, semillas, tramo, medio, hasta));
+                return;
+            }
+            int lado = generador.tamanioBloque;
+            MazeGenerator base = generador.fabrica.get();
+            byte[] local = new byte[lado * lado];
+            for (int b = desde; b < hasta; b++) {
+                int x0 = (b % bx) * lado;
+                int y0 = (b / bx) * lado;
+                int w = Math.min(lado, width - x0);
+                int h = Math.min(lado, height - y0);
+                java.util.Arrays.fill(local, 0, w * h, (byte) 0);
+                base.generate(local, w, h, new SplittableRandom(semillas[b]));
+                for (int fila = 0; fila < h; fila++) {
+                    System.arraycopy(local, fila * w, cells, (y0 + fila) * width + x0, w);
+                }
+            }
+        }
+    }
+
+    // Une los bloques con un árbol de expansión aleatorio (Kruskal) abriendo un pasaje por borde
+    private void coser(byte[] cells, int width, int height, int bx, int by, RandomGenerator rng) {
+        final int bloques = bx * by;
+        // borde = bloque * 2 + (0: hacia el este, 1: hacia el sur)
+        int[] bordes = new int[2 * bloques];
+        int nBordes = 0;
+        for (int b = 0; b < bloques; b++) {
+            if (b % bx < bx - 1) bordes[nBordes++] = b << 1;
+            if (b / bx < by - 1) bordes[nBordes++] = (b << 1) | 1;
+        }
+        for (int i = nBordes - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = bordes[i];
+            bordes[i] = bordes[j];
+            bordes[j] = t;
+        }
+        int[] padre = new int[bloques];
+        for (int i = 0; i < bloques; i++) padre[i] = i;
+
+        for (int i = 0; i < nBordes; i++) {
+            int a = bordes[i] >>> 1;
+            boolean sur = (bordes[i] & 1) != 0;
+            int b = sur ? a + bx : a + 1;
+            int ra = find(padre, a);
+            int rb = find(padre, b);
+            if (ra == rb) continue;
+            padre[rb] = ra;
+            int x0 = (a % bx) * tamanioBloque;
+            int y0 = (a / bx) * tamanioBloque;
+            if (sur) {
+                // pasaje entre la última fila del bloque a y la primera del bloque b
+                int x = x0 + rng.nextInt(Math.min(tamanioBloque, width - x0));
+                int y = y0 + tamanioBloque - 1;
+                cells[y * width + x] |= (byte) S;
+                cells[(y + 1) * width + x] |= (byte) N;
+            } else {
+                int y = y0 + rng.nextInt(Math.min(tamanioBloque, height - y0));
+                int x = x0 + tamanioBloque - 1;
+                cells[y * width + x] |= (byte) E;
+                cells[y * width + x + 1] |= (byte) W;
+            }
+        }
+    }
+
+    private static int find(int[] padre, int v) {
+        while (padre[v] != v) {
+            padre[v] = padre[padre[v]];
+            v = padre[v];
+        }
+        return v;
+    }
+}
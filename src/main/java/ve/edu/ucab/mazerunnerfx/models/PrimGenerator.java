@@ -0,0 +1,76 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador por el algoritmo de Prim aleatorio: el laberinto crece desde una celda inicial
+ * incorporando en cada paso una celda frontera elegida al azar.
+ * <p>
+ * Produce muchos callejones sin salida cortos y alta ramificación, lo que lo hace más
+ * confuso que Sidewinder pero con caminos a la salida relativamente directos. La frontera
+ * es un {@code int[]} reutilizado entre llamadas; los estados de celda se guardan en los
+ * bits altos de la propia grilla.
+ */
+public final class PrimGenerator implements MazeGenerator {
+    private static final int DENTRO = 0x10;
+    private static final int FRONTERA = 0x20;
+    private static final int PASAJES_MASK = 0x0F;
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    private int[] frontera = new int[0];
+    private final int[] candidatos = new int[4];
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        final int total = width * height;
+        if (frontera.length < total) frontera = new int[total];
+
+        int inicio = rng.nextInt(total);
+        cells[inicio] |= (byte) DENTRO;
+        int nFrontera = agregarVecinos(cells, width, height, inicio, 0);
+
+        while (nFrontera > 0) {
+            int i = rng.nextInt(nFrontera);
+            int c = frontera[i];
+            frontera[i] = frontera[--nFrontera];
+            int cx = c % width;
+            int cy = c / width;
+            // elegir un vecino ya incorporado al laberinto
+            int n = 0;
+            for (int d = 0; d < 4; d++) {
+                int vx = cx + DIRS[d].direccionX;
+                int vy = cy + DIRS[d].direccionY;
+                if (vx >= 0 && vx < width && vy >= 0 && vy < height
+                        && (cells[vy * width + vx] & DENTRO) != 0) {
+                    candidatos[n++] = d;
+                }
+            }
+            Laberinto.DIR dir = DIRS[candidatos[n == 1 ? 0 : rng.nextInt(n)]];
+            int vecino = (cy + dir.direccionY) * width + cx + dir.direccionX;
+            cells[c] = (byte) ((cells[c] & ~FRONTERA) | DENTRO | dir.bit);
+            cells[vecino] |= (byte) dir.opuesto().bit;
+            nFrontera = agregarVecinos(cells, width, height, c, nFrontera);
+        }
+
+        for (int i = 0; i < total; i++) {
+            cells[i] &= PASAJES_MASK;
+        }
+    }
+
+    private int agregarVecinos(byte[] cells, int width, int height, int c, int nFrontera) {
+        int cx = c % width;
+        int cy = c / width;
+        for (Laberinto.DIR d : DIRS) {
+            int vx = cx + d.direccionX;
+            int vy = cy + d.direccionY;
+            if (vx < 0 || vx >= width || vy < 0 || vy >= height) continue;
+            int v = vy * width + vx;
+            if ((cells[v] & (DENTRO | FRONTERA)) == 0) {
+                cells[v] |= (byte) FRONTERA;
+                frontera[nFrontera++] = v;
+            }
+        }
+        return nFrontera;
+    }
+}
@@ -20,10 +20,10 @@ public class Puerta extends Entidad {
     @Override
     public void interact(Jugador jugador) {
         if (jugador.tieneLlave()) {
-            System.out.println("¡Has abierto la puerta y escapado del laberinto! ¡Felicidades!");
+            jugador.getEventos().evento(GameEvent.PUERTA_ABIERTA, 0);
             jugador.escapar();
         } else {
-            System.out.println("La puerta está cerrada. Necesitas una llave para abrirla.");
+            jugador.getEventos().evento(GameEvent.PUERTA_CERRADA, 0);
         }
     }
 }
@@ -0,0 +1,297 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modo en tiempo real: un hilo de simulación propio mueve a los enemigos a ritmo fijo
+ * ({@code ticksPorSegundo}), tenga o no el jugador una tecla pulsada.
+ * <p>
+ * El hilo de la interfaz no toca el {@link Laberinto} mientras el bucle corre: sólo deja sus
+ * órdenes con {@link #enviar(Laberinto.DIR)} en una cola sin bloqueos de un productor y un
+ * consumidor, y dibuja la última {@link Instantanea} publicada. El hilo de simulación aplica cada
+ * orden apenas llega (se le despierta al encolarla, sin esperar al próximo tick), avanza a los
+ * enemigos en cada tick y publica una instantánea nueva después de cada cambio. Así la latencia de
+ * la entrada no depende del ritmo de los ticks y la interfaz nunca espera a la simulación.
+ * <p>
+ * El bucle termina solo cuando el jugador escapa o muere; la instantánea final lo indica.
+ */
+public final class RealTimeLoop {
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+    // pending moves allowed before new keys are dropped (power of two)
+    private static final int CAPACIDAD_COLA = 64;
+
+    /**
+     * Vista inmutable del laberinto después de un cambio, para dibujarla desde otro hilo.
+     */
+    public static final class Instantanea {
+        private final long version;
+        private final int ancho;
+        private final int alto;
+        private final int origenX;
+        private final int origenY;
+        private final char[] celdas;
+        private final byte[] paredes;
+        private final int[] pista;
+        private final int puntos;
+        private final int vidas;
+        private final int vidaActual;
+        private final int maxVida;
+        private final boolean vivo;
+        private final boolean escapado;
+
+        Instantanea(long version, Laberinto lab, int[] pista) {
+            this.version = version;
+            this.ancho = lab.getWidth();
+            this.alto = lab.getHeight();
+            this.origenX = lab.getOrigenX();
+            this.origenY = lab.getOrigenY();
+            this.celdas = new char[ancho * alto];
+            this.paredes = new byte[ancho * alto];
+            for (int y = 0; y < alto; y++) {
+                for (int x = 0; x < ancho; x++) {
+                    celdas[y * ancho + x] = lab.getCellChar(origenX + x, origenY + y);
+                    paredes[y * ancho + x] = (byte) lab.getCellValue(origenX + x, origenY + y);
+                }
+            }
+            this.pista = pista;
+            Jugador j = lab.jugador;
+            this.puntos = j == null ? 0 : j.getPuntos();
+            this.vidas = j == null ? 0 : j.getVidasCount();
+            this.vidaActual = j == null ? 0 : j.getVidaActual();
+            this.maxVida = j == null ? 0 : j.getMaxVida();
+            this.vivo = j != null && j.taVivo();
+            this.escapado = j != null && j.isEscapado();
+        }
+
+        /** Crece con cada instantánea publicada. */
+        public long getVersion() {
+            return version;
+        }
+
+        public int getAncho() {
+            return ancho;
+        }
+
+        public int getAlto() {
+            return alto;
+        }
+
+        /** Columna del laberinto en la esquina superior izquierda de la vista. */
+        public int getOrigenX() {
+            return origenX;
+        }
+
+        /** Fila del laberinto en la esquina superior izquierda de la vista. */
+        public int getOrigenY() {
+            return origenY;
+        }
+
+        /**
+         * Carácter de la celda (x,y) de la vista.
+         */
+        public char celda(int x, int y) {
+            return celdas[y * ancho + x];
+        }
+
+        /**
+         * Máscara de pasajes abiertos ({@link Laberinto.DIR#bit}) de la celda (x,y) de la vista.
+         */
+        public int paredes(int x, int y) {
+            return paredes[y * ancho + x];
+        }
+
+        /**
+         * Camino de la pista (índices planos del laberinto), o null si la pista no está activa.
+         */
+        public int[] getPista() {
+            return pista;
+        }
+
+        public int getPuntos() {
+            return puntos;
+        }
+
+        public int getVidas() {
+            return vidas;
+        }
+
+        public int getVidaActual() {
+            return vidaActual;
+        }
+
+        public int getMaxVida() {
+            return maxVida;
+        }
+
+        public boolean isVivo() {
+            return vivo;
+        }
+
+        public boolean isEscapado() {
+            return escapado;
+        }
+
+        /**
+         * Indica si la partida terminó (el jugador escapó o murió).
+         */
+        public boolean isTerminada() {
+            return escapado || !vivo;
+        }
+    }
+
+    /**
+     * Cola sin bloqueos de un solo productor y un solo consumidor: un arreglo circular con dos
+     * contadores. Cada lado escribe sólo su contador, con semántica de liberación
+     * ({@code lazySet}), y lee el del otro con semántica de adquisición.
+     */
+    static final class ColaSpsc {
+        private final byte[] datos;
+        private final int mascara;
+        private final AtomicLong escritos = new AtomicLong();
+        private final AtomicLong leidos = new AtomicLong();
+
+        ColaSpsc(int capacidad) {
+            if (Integer.bitCount(capacidad) != 1) throw new IllegalArgumentException("La capacidad debe ser potencia de dos");
+            this.datos = new byte[capacidad];
+            this.mascara = capacidad - 1;
+        }
+
+        /**
+         * Encola un valor (sólo desde el hilo productor).
+         * @return false si la cola está llena
+         */
+        boolean ofrecer(int valor) {
+            long t = escritos.get();
+            if (t - leidos.get() == datos.length) return false;
+            datos[(int) (t & mascara)] = (byte) valor;
+            escritos.lazySet(t + 1);
+            return true;
+        }
+
+        /**
+         * Desencola un valor (sólo desde el hilo consumidor).
+         * @return el valor, o -1 si la cola está vacía
+         */
+        int tomar() {
+            long h = leidos.get();
+            if (h == escritos.get()) return -1;
+            int valor = datos[(int) (h & mascara)];
+            leidos.lazySet(h + 1);
+            return valor;
+        }
+    }
+
+    private final Laberinto lab;
+    private final long periodo;
+    private final ColaSpsc entrada = new ColaSpsc(CAPACIDAD_COLA);
+    private volatile Instantanea publicada;
+    private volatile boolean activo;
+    private volatile boolean pista;
+    private long version;
+    private Thread hilo;
+
+    /**
+     * @param lab partida a simular; no debe tocarse desde otro hilo mientras el bucle corre
+     * @param ticksPorSegundo pasos de los enemigos por segundo
+     */
+    public RealTimeLoop(Laberinto lab, int ticksPorSegundo) {
+        if (lab == null || ticksPorSegundo <= 0) {
+            throw new IllegalArgumentException("Se necesita un laberinto y un ritmo positivo");
+        }
+        this.lab = lab;
+        this.periodo = 1_000_000_000L / ticksPorSegundo;
+        this.publicada = new Instantanea(version, lab, null);
+    }
+
+    /**
+     * Arranca el hilo de simulación.
+     */
+    public synchronized void iniciar() {
+        if (hilo != null) return;
+        activo = true;
+        hilo = new Thread(this::ejecutar, "simulacion-laberinto");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Detiene el hilo de simulación y espera a que termine; después el laberinto puede volver a
+     * usarse desde el hilo que llama.
+     */
+    public synchronized void detener() {
+        activo = false;
+        Thread h = hilo;
+        if (h == null) return;
+        LockSupport.unpark(h);
+        try {
+            h.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        hilo = null;
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Pide mover al jugador (desde un único hilo productor, normalmente el de la interfaz).
+     * @param dir dirección del paso
+     * @return false si hay demasiadas órdenes pendientes y ésta se descartó
+     */
+    public boolean enviar(Laberinto.DIR dir) {
+        if (!entrada.ofrecer(dir.ordinal())) return false;
+        Thread h = hilo;
+        if (h != null) LockSupport.unpark(h);
+        return true;
+    }
+
+    /**
+     * Activa o desactiva el cálculo de la pista en cada instantánea.
+     */
+    public void setPista(boolean activa) {
+        this.pista = activa;
+    }
+
+    /**
+     * Última instantánea publicada (nunca null).
+     */
+    public Instantanea getInstantanea() {
+        return publicada;
+    }
+
+    private void ejecutar() {
+        long siguiente = System.nanoTime() + periodo;
+        boolean pistaPublicada = false;
+        while (activo) {
+            boolean cambio = false;
+            for (int d = entrada.tomar(); d >= 0; d = entrada.tomar()) {
+                cambio |= lab.moverJugador(DIRS[d]);
+            }
+            long ahora = System.nanoTime();
+            if (ahora - siguiente >= 0) {
+                lab.avanzarEnemigos();
+                cambio = true;
+                siguiente += periodo;
+                // fell far behind (e.g. a long pause): skip the missed ticks instead of bursting
+                if (ahora - siguiente > 4 * periodo) siguiente = ahora + periodo;
+            }
+            if (cambio || pista != pistaPublicada) {
+                pistaPublicada = pista;
+                publicar(pistaPublicada);
+                if (publicada.isTerminada()) {
+                    activo = false;
+                    break;
+                }
+            }
+            long espera = siguiente - System.nanoTime();
+            if (espera > 0) LockSupport.parkNanos(this, espera);
+        }
+    }
+
+    private void publicar(boolean conPista) {
+        publicada = new Instantanea(++version, lab, conPista ? lab.calcularPista() : null);
+    }
+}
@@ -0,0 +1,113 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de regresión del determinismo: vuelve a simular partidas grabadas ({@link ReplayLog})
+ * desde su semilla y comprueba que cada una termina con la misma huella
+ * ({@link Laberinto#huella()}) que cuando se jugó. Un cambio que altere el trazado, la colocación,
+ * el azar de los enemigos o el orden de las interacciones hace que las repeticiones viejas
+ * diverjan.
+ * <p>
+ * Las partidas son independientes, así que se verifican (y se graban) en paralelo, como en
+ * {@link DifficultyEstimator}.
+ */
+public final class ReplayCheck {
+    // same cap as the load test in AutoPlayer
+    private static final int MAX_INTENTOS = 100_000;
+
+    private ReplayCheck() {
+    }
+
+    /**
+     * Repite una partida grabada desde su semilla.
+     * @return null si termina en el estado grabado; si no, qué difiere
+     */
+    public static String verificar(ReplayLog registro) {
+        Laberinto lab = registro.crearInicio();
+        lab.setEventos(GameEventSink.NINGUNO);
+        try {
+            registro.ir(lab, registro.getTurnos());
+        } catch (IllegalStateException ex) {
+            return ex.getMessage();
+        }
+        long h = lab.huella();
+        return h == registro.getHuella() ? null
+                : String.format("huella %016x, se esperaba %016x", h, registro.getHuella());
+    }
+
+    /**
+     * Juega y guarda {@code partidas} partidas automáticas del nivel, con semillas 0..partidas-1.
+     * @param directorio donde se guardan los registros
+     * @param politica crea la política de cada partida (las hay con estado, como la codiciosa)
+     */
+    public static void grabar(Path directorio, int partidas, Dificultad nivel, Supplier<AutoPlayer.Politica> politica) {
+        IntStream.range(0, partidas).parallel().forEach(i -> {
+            Laberinto lab = nivel.crearCandidato(i);
+            ReplayLog registro = new ReplayLog(lab);
+            lab.setRegistro(registro);
+            new AutoPlayer(politica.get(), MAX_INTENTOS, false).jugar(lab);
+            try {
+                registro.guardar(directorio.resolve(registro.nombreArchivo()), lab);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Uso: {@code ReplayCheck [directorio]} verifica todos los registros {@code .mrr} del directorio
+     * (por defecto {@link ReplayLog#directorio()}); {@code ReplayCheck --grabar N [nivel] [política]
+     * [directorio]} antes graba N partidas automáticas, por ejemplo
+     * {@code ReplayCheck --grabar 5000 Intermedio codiciosa /tmp/replays}. Termina con código 1 si
+     * alguna partida diverge.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directorio = ReplayLog.directorio();
+        if (args.length > 0 && "--grabar".equals(args[0])) {
+            int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            Dificultad nivel = Dificultad.desdeNombre(args.length > 2 ? args[2] : "Fácil");
+            String nombrePolitica = args.length > 3 ? args[3] : "codiciosa";
+            if (nivel == null || AutoPlayer.politica(nombrePolitica) == null) {
+                System.err.println("Uso: ReplayCheck [directorio] | ReplayCheck --grabar N [Fácil|Intermedio|Difícil|Avanzado] [aleatoria|codiciosa|camino] [directorio]");
+                return;
+            }
+            if (args.length > 4) directorio = Path.of(args[4]);
+            long inicio = System.nanoTime();
+            grabar(directorio, partidas, nivel, () -> AutoPlayer.politica(nombrePolitica));
+            System.out.printf("%d partidas grabadas en %.2f s%n", partidas, (System.nanoTime() - inicio) / 1e9);
+        } else if (args.length > 0) {
+            directorio = Path.of(args[0]);
+        }
+
+        List<Path> archivos;
+        try (Stream<Path> s = Files.list(directorio)) {
+            archivos = s.filter(p -> p.toString().endsWith(".mrr")).sorted().toList();
+        }
+        String[] fallas = new String[archivos.size()];
+        long inicio = System.nanoTime();
+        IntStream.range(0, archivos.size()).parallel().forEach(i -> {
+            try {
+                fallas[i] = verificar(ReplayLog.leer(archivos.get(i)));
+            } catch (IOException | RuntimeException ex) {
+                fallas[i] = ex.toString();
+            }
+        });
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int divergentes = 0;
+        for (int i = 0; i < fallas.length; i++) {
+            if (fallas[i] == null) continue;
+            if (divergentes++ < 20) System.out.println(archivos.get(i).getFileName() + ": " + fallas[i]);
+        }
+        System.out.printf("%d partidas repetidas en %.2f s: %d iguales, %d divergentes%n",
+                archivos.size(), segundos, archivos.size() - divergentes, divergentes);
+        if (divergentes > 0) System.exit(1);
+    }
+}
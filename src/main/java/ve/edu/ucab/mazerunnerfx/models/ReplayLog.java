@@ -0,0 +1,274 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registro compacto de una partida: el nivel y la semilla del laberinto más la secuencia de pasos
+ * del jugador, a dos bits por {@link Laberinto.DIR}. El laberinto es determinista (trazado,
+ * colocación y azar de los enemigos salen de la semilla), así que repetir los mismos pasos desde el
+ * mismo inicio lleva exactamente al mismo estado.
+ * <p>
+ * Cada {@code intervalo} turnos guarda además una instantánea ({@link GameState}), de modo que ir a
+ * cualquier turno ({@link #ir(Laberinto, int)}) restaura la instantánea anterior y repite a lo sumo
+ * {@code intervalo} pasos. Sobre eso se apoyan deshacer ({@link #deshacer(Laberinto)}) y el visor de
+ * repeticiones de la ventana. Las instantáneas viven sólo en memoria: en disco ({@link #guardar})
+ * quedan el nivel, la semilla, los pasos y la huella del estado final, y la partida se reconstruye
+ * desde la semilla ({@link #crearInicio()}, {@link ReplayCheck}).
+ * <p>
+ * Graba los turnos por teclado ({@link Laberinto#avanzarTurno(Laberinto.DIR)} y el bucle de
+ * consola); el modo en tiempo real no es repetible. No es seguro para varios hilos.
+ */
+public final class ReplayLog {
+    /** Turnos entre instantáneas por defecto. */
+    public static final int INTERVALO_DEFECTO = 64;
+    private static final int MAGIA = 0x4D52504C; // "MRPL"
+    private static final short VERSION = 1;
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    private final Dificultad nivel;
+    private final long semilla;
+    private final int intervalo;
+    // 4 moves per byte, the first one in the low bits
+    private byte[] pasos;
+    private int turnos;
+    private int posicion;
+    // snapshot k is the state at turn k * intervalo
+    private final List<GameState> instantaneas = new ArrayList<>();
+    private final long huella;
+
+    /**
+     * Empieza a grabar una partida en su estado actual, con {@link #INTERVALO_DEFECTO}.
+     */
+    public ReplayLog(Laberinto lab) {
+        this(lab, INTERVALO_DEFECTO);
+    }
+
+    /**
+     * Empieza a grabar una partida en su estado actual. Si el laberinto todavía está en su inicio
+     * y se creó con {@link Dificultad#crearCandidato(long)}, el registro es reproducible desde la
+     * semilla y puede guardarse.
+     * @param lab laberinto de tamaño fijo ({@link Laberinto#admiteInstantaneas()})
+     * @param intervalo turnos entre instantáneas
+     */
+    public ReplayLog(Laberinto lab, int intervalo) {
+        if (lab == null || intervalo <= 0) {
+            throw new IllegalArgumentException("Se necesita un laberinto y un intervalo positivo");
+        }
+        this.nivel = lab.getTurno() == 0 && lab.getPasosEnemigos() == 0 ? lab.getNivel() : null;
+        this.semilla = lab.getSemilla();
+        this.intervalo = intervalo;
+        this.pasos = new byte[64];
+        this.huella = 0L;
+        instantaneas.add(lab.capturarEstado());
+    }
+
+    // A log read from disk: no snapshots until crearInicio()
+    private ReplayLog(Dificultad nivel, long semilla, byte[] pasos, int turnos, long huella) {
+        this.nivel = nivel;
+        this.semilla = semilla;
+        this.intervalo = INTERVALO_DEFECTO;
+        this.pasos = pasos;
+        this.turnos = turnos;
+        this.huella = huella;
+    }
+
+    /**
+     * Directorio de las repeticiones guardadas al terminar cada partida ({@code replays} junto a
+     * {@code saves}).
+     */
+    public static Path directorio() {
+        return Path.of(System.getProperty("user.dir"), "replays");
+    }
+
+    /**
+     * Nombre de archivo para este registro, único por nivel, semilla y largo.
+     */
+    public String nombreArchivo() {
+        return "partida-" + (nivel != null ? nivel.name() : "LIBRE") + "-" + Long.toHexString(semilla)
+                + "-" + turnos + ".mrr";
+    }
+
+    /**
+     * Anota el paso del turno que acaba de cerrar la partida. Si se había vuelto atrás, descarta
+     * los pasos que seguían.
+     */
+    void anotar(Laberinto lab, Laberinto.DIR dir) {
+        if (posicion < turnos) truncar(posicion);
+        if (turnos == pasos.length * 4) pasos = Arrays.copyOf(pasos, pasos.length * 2);
+        pasos[turnos >> 2] |= (byte) (dir.ordinal() << ((turnos & 3) * 2));
+        turnos++;
+        posicion++;
+        if (posicion % intervalo == 0) instantaneas.add(lab.capturarEstado());
+    }
+
+    /**
+     * Paso del jugador en un turno.
+     * @param turno de 0 a {@link #getTurnos()}-1
+     */
+    public Laberinto.DIR paso(int turno) {
+        if (turno < 0 || turno >= turnos) throw new IndexOutOfBoundsException("Turno fuera del registro: " + turno);
+        return DIRS[(pasos[turno >> 2] >> ((turno & 3) * 2)) & 3];
+    }
+
+    /**
+     * Lleva la partida a un turno del registro: restaura la instantánea anterior y repite los
+     * pasos que faltan (a lo sumo {@code intervalo}), o sólo avanza si el turno está por delante y
+     * más cerca. Mientras repite no graba ni informa sucesos; al final publica los cambios.
+     * @param lab laberinto grabado en este registro
+     * @param turno de 0 a {@link #getTurnos()}
+     * @throws IllegalStateException si un paso grabado ya no es posible (la repetición divergió)
+     */
+    public void ir(Laberinto lab, int turno) {
+        if (turno < 0 || turno > turnos) throw new IndexOutOfBoundsException("Turno fuera del registro: " + turno);
+        int k = Math.min(turno / intervalo, instantaneas.size() - 1);
+        int desde = k * intervalo;
+        ReplayLog grabando = lab.getRegistro();
+        GameEventSink eventos = lab.getEventos();
+        lab.setRegistro(null);
+        lab.setEventos(GameEventSink.NINGUNO);
+        try {
+            if (turno < posicion || posicion < desde) {
+                lab.restaurarEstado(instantaneas.get(k));
+                posicion = desde;
+            }
+            while (posicion < turno) {
+                if (!lab.avanzarTurno(paso(posicion))) {
+                    throw new IllegalStateException("El paso del turno " + posicion + " ya no es posible");
+                }
+                posicion++;
+                // a log read from disk takes its snapshots the first time it goes through them
+                if (posicion % intervalo == 0 && posicion / intervalo == instantaneas.size()) {
+                    instantaneas.add(lab.capturarEstado());
+                }
+            }
+        } finally {
+            lab.setRegistro(grabando);
+            lab.setEventos(eventos);
+        }
+        lab.publicarCambios();
+    }
+
+    /**
+     * Deshace el último turno jugado: vuelve al turno anterior y lo descarta del registro.
+     * @return false si no hay turnos que deshacer
+     */
+    public boolean deshacer(Laberinto lab) {
+        if (posicion == 0) return false;
+        ir(lab, posicion - 1);
+        truncar(posicion);
+        return true;
+    }
+
+    // Drops the moves from turn n on, and the snapshots after it
+    private void truncar(int n) {
+        int b = n >> 2;
+        if (b < pasos.length) {
+            pasos[b] &= (byte) ((1 << ((n & 3) * 2)) - 1);
+            Arrays.fill(pasos, b + 1, pasos.length, (byte) 0);
+        }
+        turnos = n;
+        while (instantaneas.size() > n / intervalo + 1) {
+            instantaneas.remove(instantaneas.size() - 1);
+        }
+    }
+
+    /**
+     * Guarda el registro: nivel, semilla, pasos y huella del estado al final del registro (a donde
+     * lleva la partida si no estaba ahí).
+     * @param archivo destino; se crean los directorios que falten
+     * @param lab laberinto grabado en este registro
+     * @throws IllegalStateException si el registro no es reproducible desde la semilla
+     */
+    public void guardar(Path archivo, Laberinto lab) throws IOException {
+        if (nivel == null) throw new IllegalStateException("La partida no puede reconstruirse desde su semilla");
+        if (posicion != turnos) ir(lab, turnos);
+        Path dir = archivo.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo)))) {
+            out.writeInt(MAGIA);
+            out.writeShort(VERSION);
+            out.writeUTF(nivel.name());
+            out.writeLong(semilla);
+            out.writeInt(turnos);
+            out.writeLong(lab.huella());
+            out.write(pasos, 0, (turnos + 3) >> 2);
+        }
+    }
+
+    /**
+     * Lee un registro guardado con {@link #guardar}; para repetirlo se crea su laberinto con
+     * {@link #crearInicio()}.
+     * @throws IOException si el archivo no es un registro válido
+     */
+    public static ReplayLog leer(Path archivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != MAGIA || in.readShort() != VERSION) {
+                throw new IOException("No es un registro de partida: " + archivo);
+            }
+            Dificultad nivel;
+            try {
+                nivel = Dificultad.valueOf(in.readUTF());
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Nivel desconocido en " + archivo, ex);
+            }
+            long semilla = in.readLong();
+            int turnos = in.readInt();
+            long huella = in.readLong();
+            if (turnos < 0) throw new IOException("Cantidad de turnos inválida en " + archivo);
+            byte[] pasos = new byte[Math.max(64, (turnos + 3) >> 2)];
+            in.readFully(pasos, 0, (turnos + 3) >> 2);
+            return new ReplayLog(nivel, semilla, pasos, turnos, huella);
+        }
+    }
+
+    /**
+     * Reconstruye el laberinto del inicio de la partida desde el nivel y la semilla y ata el
+     * registro a él: las instantáneas anteriores se descartan.
+     * @throws IllegalStateException si el registro no es reproducible desde la semilla
+     */
+    public Laberinto crearInicio() {
+        if (nivel == null) throw new IllegalStateException("La partida no puede reconstruirse desde su semilla");
+        Laberinto lab = nivel.crearCandidato(semilla);
+        instantaneas.clear();
+        instantaneas.add(lab.capturarEstado());
+        posicion = 0;
+        return lab;
+    }
+
+    /** Indica si la partida puede reconstruirse desde el nivel y la semilla (y guardarse). */
+    public boolean isReproducible() {
+        return nivel != null;
+    }
+
+    public Dificultad getNivel() {
+        return nivel;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /** Turnos grabados. */
+    public int getTurnos() {
+        return turnos;
+    }
+
+    /** Turno en que está la partida dentro del registro. */
+    public int getPosicion() {
+        return posicion;
+    }
+
+    /** Huella del estado final leída del archivo (0 en un registro que se está grabando). */
+    public long getHuella() {
+        return huella;
+    }
+}
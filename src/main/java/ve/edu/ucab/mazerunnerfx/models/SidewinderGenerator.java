@@ -0,0 +1,45 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador Sidewinder: recorre la grilla fila por fila formando "tramos" horizontales
+ * y abre un único pasaje hacia el norte desde cada tramo.
+ * <p>
+ * Es el algoritmo más rápido (un solo recorrido secuencial y sin memoria de trabajo), pero
+ * la fila superior queda como un pasillo recto y siempre existe un camino monótono hacia
+ * arriba, lo que lo hace adecuado para niveles fáciles.
+ */
+public final class SidewinderGenerator implements MazeGenerator {
+    private static final int N = Laberinto.DIR.N.bit;
+    private static final int S = Laberinto.DIR.S.bit;
+    private static final int E = Laberinto.DIR.E.bit;
+    private static final int W = Laberinto.DIR.W.bit;
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        // fila superior: un único pasillo de oeste a este
+        for (int x = 0; x < width - 1; x++) {
+            cells[x] |= (byte) E;
+            cells[x + 1] |= (byte) W;
+        }
+        for (int y = 1; y < height; y++) {
+            int fila = y * width;
+            int inicioTramo = 0;
+            for (int x = 0; x < width; x++) {
+                boolean cerrarTramo = (x == width - 1) || rng.nextBoolean();
+                if (cerrarTramo) {
+                    // abrir hacia el norte desde una celda aleatoria del tramo
+                    int elegido = fila + inicioTramo + rng.nextInt(x - inicioTramo + 1);
+                    cells[elegido] |= (byte) N;
+                    cells[elegido - width] |= (byte) S;
+                    inicioTramo = x + 1;
+                } else {
+                    cells[fila + x] |= (byte) E;
+                    cells[fila + x + 1] |= (byte) W;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.Arrays;
+
+/**
+ * Índice espacial "qué hay en la celda (x,y)" sobre los identificadores de {@link EntityStore}.
+ * <p>
+ * Es un multiconjunto: una celda puede tener varias entidades, también del mismo tipo, y cada una
+ * se guarda una vez. Una tabla hash de direccionamiento abierto lleva cada celda ocupada a su
+ * primera entidad y a su cantidad; las entidades de una celda forman una lista doblemente enlazada
+ * en {@code siguiente[]}/{@code anterior[]}, indexada por identificador. Insertar, quitar, contar y
+ * pedir la primera entidad de una celda cuestan O(1) esperado, y recorrer una celda no crea
+ * objetos: sólo sigue enteros.
+ * <p>
+ * Quitar una entidad no borra su enlace al siguiente, así que quien recorre una celda puede
+ * guardar el siguiente identificador antes de que la entidad actual se quite a sí misma.
+ */
+final class SpatialIndex {
+    private int[] siguiente;
+    private int[] anterior;
+
+    // packed cell key -> first id of that cell (-1 marks a free slot) and its count, linear probing
+    private long[] claves = new long[16];
+    private int[] cabezas = nuevasCabezas(16);
+    private int[] cuentas = new int[16];
+    private int ocupadas;
+
+    /**
+     * @param capacidad identificadores previstos (crece con {@link #asegurar(int)})
+     */
+    SpatialIndex(int capacidad) {
+        siguiente = new int[capacidad];
+        anterior = new int[capacidad];
+    }
+
+    /**
+     * Copia exacta de otro índice, con el mismo orden dentro de cada celda (ver {@link GameState}).
+     */
+    SpatialIndex(SpatialIndex otro) {
+        siguiente = otro.siguiente.clone();
+        anterior = otro.anterior.clone();
+        claves = otro.claves.clone();
+        cabezas = otro.cabezas.clone();
+        cuentas = otro.cuentas.clone();
+        ocupadas = otro.ocupadas;
+    }
+
+    /**
+     * Admite identificadores de 0 a capacidad-1.
+     */
+    void asegurar(int capacidad) {
+        if (capacidad <= siguiente.length) return;
+        siguiente = Arrays.copyOf(siguiente, capacidad);
+        anterior = Arrays.copyOf(anterior, capacidad);
+    }
+
+    /**
+     * Agrega la entidad id a la celda (x,y), al principio de su lista.
+     */
+    void insertar(int id, int cx, int cy) {
+        long k = clave(cx, cy);
+        int p = buscar(k);
+        if (p < 0) {
+            if ((ocupadas + 1) * 2 > claves.length) {
+                crecer();
+                p = buscar(k);
+            }
+            p = ~p;
+            claves[p] = k;
+            cabezas[p] = -1;
+            cuentas[p] = 0;
+            ocupadas++;
+        }
+        int primera = cabezas[p];
+        siguiente[id] = primera;
+        anterior[id] = -1;
+        if (primera >= 0) anterior[primera] = id;
+        cabezas[p] = id;
+        cuentas[p]++;
+    }
+
+    /**
+     * Quita la entidad id de la celda (x,y), en la que debe estar.
+     */
+    void quitar(int id, int cx, int cy) {
+        int p = buscar(clave(cx, cy));
+        if (p < 0) return;
+        int s = siguiente[id];
+        int a = anterior[id];
+        if (a >= 0) siguiente[a] = s;
+        else cabezas[p] = s;
+        if (s >= 0) anterior[s] = a;
+        if (--cuentas[p] == 0) borrarRanura(p);
+    }
+
+    /**
+     * Primera entidad de la celda (x,y), o -1 si está vacía.
+     */
+    int primera(int cx, int cy) {
+        int p = buscar(clave(cx, cy));
+        return p >= 0 ? cabezas[p] : -1;
+    }
+
+    /**
+     * Siguiente entidad de la celda de id, o -1 si no hay más.
+     */
+    int siguiente(int id) {
+        return siguiente[id];
+    }
+
+    /**
+     * Cantidad de entidades en la celda (x,y).
+     */
+    int contar(int cx, int cy) {
+        int p = buscar(clave(cx, cy));
+        return p >= 0 ? cuentas[p] : 0;
+    }
+
+    /**
+     * Deja todas las celdas vacías.
+     */
+    void vaciar() {
+        Arrays.fill(cabezas, -1);
+        ocupadas = 0;
+    }
+
+    // Slot of the key, or ~(free slot where it would go)
+    private int buscar(long k) {
+        int mascara = claves.length - 1;
+        int h = mezclar(k) & mascara;
+        while (cabezas[h] >= 0) {
+            if (claves[h] == k) return h;
+            h = (h + 1) & mascara;
+        }
+        return ~h;
+    }
+
+    // Backward-shift deletion keeps every probe sequence unbroken without tombstones
+    private void borrarRanura(int p) {
+        int mascara = claves.length - 1;
+        cabezas[p] = -1;
+        ocupadas--;
+        int i = p;
+        int j = (i + 1) & mascara;
+        while (cabezas[j] >= 0) {
+            int ideal = mezclar(claves[j]) & mascara;
+            if (((j - ideal) & mascara) >= ((j - i) & mascara)) {
+                claves[i] = claves[j];
+                cabezas[i] = cabezas[j];
+                cuentas[i] = cuentas[j];
+                cabezas[j] = -1;
+                i = j;
+            }
+            j = (j + 1) & mascara;
+        }
+    }
+
+    private void crecer() {
+        long[] viejasClaves = claves;
+        int[] viejasCabezas = cabezas;
+        int[] viejasCuentas = cuentas;
+        claves = new long[viejasClaves.length * 2];
+        cabezas = nuevasCabezas(claves.length);
+        cuentas = new int[claves.length];
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasCabezas[i] >= 0) {
+                int p = ~buscar(viejasClaves[i]);
+                claves[p] = viejasClaves[i];
+                cabezas[p] = viejasCabezas[i];
+                cuentas[p] = viejasCuentas[i];
+            }
+        }
+    }
+
+    private static int[] nuevasCabezas(int n) {
+        int[] c = new int[n];
+        Arrays.fill(c, -1);
+        return c;
+    }
+
+    private static long clave(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int mezclar(long k) {
+        return (int) ((k * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+}
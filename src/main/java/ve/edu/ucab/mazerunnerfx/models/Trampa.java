@@ -6,6 +6,7 @@ package ve.edu.ucab.mazerunnerfx.models;
  */
 public class Trampa extends Entidad {
     short danio = 1;
+    GameEvent suceso = GameEvent.TRAMPA;
 
     /**
      * Crea una nueva trampa con daño base.
@@ -21,7 +22,7 @@ public class Trampa extends Entidad {
      */
     @Override
     public void interact(Jugador jugador) {
-        System.out.println("¡Has caído en una trampa! Pierdes " + danio + " punto de vida.");
+        jugador.getEventos().evento(suceso, danio);
         jugador.recibirDanio(danio);
     }
 }
@@ -0,0 +1,66 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador por el algoritmo de Wilson: caminatas aleatorias con borrado de ciclos que
+ * producen un árbol de expansión uniforme (todas las configuraciones son igual de probables).
+ * <p>
+ * Es el único generador sin sesgo de textura, pero su tiempo depende de las caminatas
+ * aleatorias y es notablemente más lento en las primeras iteraciones. No reserva memoria:
+ * la dirección de salida de cada paso de la caminata se guarda en los bits altos de la
+ * celda, de forma que los ciclos se borran solos al sobrescribirla.
+ * <p>
+ * No está asignado a ningún nivel de {@link Dificultad}: su textura es la de
+ * {@link KruskalGenerator} (también uniforme, que ya usa el nivel difícil) y genera más lento, así
+ * que no aporta un nivel distinto. Se conserva como referencia sin sesgo para las pruebas y como
+ * generador de bloques de {@link ParallelTiledGenerator}.
+ */
+public final class WilsonGenerator implements MazeGenerator {
+    private static final int DENTRO = 0x10;
+    private static final int SALIDA_SHIFT = 5;
+    private static final int SALIDA_MASK = 0x3 << SALIDA_SHIFT;
+    private static final int PASAJES_MASK = 0x0F;
+    private static final Laberinto.DIR[] DIRS = Laberinto.DIR.values();
+
+    @Override
+    public void generate(byte[] cells, int width, int height, RandomGenerator rng) {
+        if (width <= 0 || height <= 0) return;
+        final int total = width * height;
+        cells[rng.nextInt(total)] |= (byte) DENTRO;
+
+        for (int inicio = 0; inicio < total; inicio++) {
+            if ((cells[inicio] & DENTRO) != 0) continue;
+            // caminata aleatoria hasta tocar el árbol, registrando la última salida de cada celda
+            int c = inicio;
+            int cx = c % width;
+            int cy = c / width;
+            while ((cells[c] & DENTRO) == 0) {
+                Laberinto.DIR d;
+                int vx, vy;
+                do {
+                    d = DIRS[rng.nextInt(4)];
+                    vx = cx + d.direccionX;
+                    vy = cy + d.direccionY;
+                } while (vx < 0 || vx >= width || vy < 0 || vy >= height);
+                cells[c] = (byte) ((cells[c] & ~SALIDA_MASK) | (d.ordinal() << SALIDA_SHIFT));
+                cx = vx;
+                cy = vy;
+                c = vy * width + vx;
+            }
+            // recorrer de nuevo el camino sin ciclos e incorporarlo al árbol
+            c = inicio;
+            while ((cells[c] & DENTRO) == 0) {
+                Laberinto.DIR d = DIRS[(cells[c] & SALIDA_MASK) >> SALIDA_SHIFT];
+                int siguiente = c + d.direccionY * width + d.direccionX;
+                cells[c] |= (byte) (d.bit | DENTRO);
+                cells[siguiente] |= (byte) d.opuesto().bit;
+                c = siguiente;
+            }
+        }
+
+        for (int i = 0; i < total; i++) {
+            cells[i] &= PASAJES_MASK;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoPlayerTest {
+
+    @Test
+    public void testPartidas_terminanYSeRepiten() {
+        AutoPlayer camino = new AutoPlayer(AutoPlayer.seguirCamino(), 20_000, false);
+        AutoPlayer codiciosa = new AutoPlayer(AutoPlayer.codiciosa(), 20_000, false);
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            AutoPlayer.Resultado r = camino.jugar(Dificultad.INTERMEDIO.crearCandidato(semilla));
+            // the shortest path always ends the game (escaping, or dying on the way)
+            assertNotEquals(AutoPlayer.Desenlace.AGOTADO, r.getDesenlace(), r.toString());
+            assertEquals(r.getTurnos(), r.getIntentos());
+            // same seed, same game
+            assertEquals(r.toString(), camino.jugar(Dificultad.INTERMEDIO.crearCandidato(semilla)).toString());
+
+            AutoPlayer.Resultado g = codiciosa.jugar(Dificultad.INTERMEDIO.crearCandidato(semilla));
+            assertEquals(g.toString(), codiciosa.jugar(Dificultad.INTERMEDIO.crearCandidato(semilla)).toString());
+        }
+    }
+}
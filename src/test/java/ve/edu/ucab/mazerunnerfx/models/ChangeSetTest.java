@@ -0,0 +1,61 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeSetTest {
+
+    @Test
+    public void testCambios_cubrenTodoLoQueCambia() {
+        for (boolean paralelo : new boolean[]{false, true}) {
+            Laberinto lab = new Laberinto(40, 30, 6, new PrimGenerator(), 21L);
+            lab.setEventos(GameEventSink.NINGUNO);
+            lab.setPasoParalelo(paralelo);
+            for (int i = 0; i < 60; i++) {
+                lab.agregarEnemigo(i % 40, 5 + i % 20, i % 3 == 0);
+            }
+            List<ChangeSet> recibidos = new ArrayList<>();
+            lab.setCambiosListener(recibidos::add);
+            AutoPlayer.Politica politica = AutoPlayer.codiciosa();
+            java.util.SplittableRandom rng = new java.util.SplittableRandom(1);
+            for (int turno = 0; turno < 80 && lab.jugador.taVivo() && !lab.jugador.isEscapado(); turno++) {
+                char[] antes = dibujo(lab);
+                recibidos.clear();
+                boolean movio = lab.avanzarTurno(politica.elegir(lab, lab.getWidth() * lab.getHeight() - 1, rng));
+                char[] despues = dibujo(lab);
+                // one change set per turn that moved, none for a blocked step
+                assertEquals(movio ? 1 : 0, recibidos.size());
+                Set<Integer> listadas = new HashSet<>();
+                if (movio) {
+                    ChangeSet c = recibidos.get(0);
+                    assertFalse(c.isCompleto());
+                    for (int i = 0; i < c.size(); i++) {
+                        assertTrue(listadas.add(c.y(i) * lab.getWidth() + c.x(i)), "celda repetida");
+                    }
+                }
+                for (int i = 0; i < antes.length; i++) {
+                    if (antes[i] != despues[i]) {
+                        assertTrue(listadas.contains(i), "celda " + i + " cambió sin avisar (paralelo=" + paralelo + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    // Character and walls of every cell
+    private static char[] dibujo(Laberinto lab) {
+        char[] d = new char[lab.getWidth() * lab.getHeight()];
+        for (int y = 0; y < lab.getHeight(); y++) {
+            for (int x = 0; x < lab.getWidth(); x++) {
+                d[y * lab.getWidth() + x] = (char) (lab.getCellChar(x, y) << 4 | lab.getCellValue(x, y));
+            }
+        }
+        return d;
+    }
+}
@@ -0,0 +1,90 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkStoreTest {
+
+    @Test
+    public void testRegeneracion_identicaTrasDescartar() {
+        ChunkStore mundo = new ChunkStore(7L, 4);
+        int[] antes = new int[ChunkStore.TAMANIO * ChunkStore.TAMANIO];
+        for (int i = 0; i < antes.length; i++) {
+            antes[i] = mundo.valor(-64 + i % 32, 96 + i / 32);
+        }
+        mundo.abrir(-64, 96, Laberinto.DIR.N.bit);
+        // touch enough far chunks to push the first one out of the LRU
+        for (int c = 0; c < 10; c++) {
+            mundo.valor(c * 1000, -c * 1000);
+        }
+        assertEquals(4, mundo.getBloquesCargados());
+        long generados = mundo.getBloquesGenerados();
+        for (int i = 0; i < antes.length; i++) {
+            int esperado = i == 0 ? antes[i] | Laberinto.DIR.N.bit : antes[i];
+            assertEquals(esperado, mundo.valor(-64 + i % 32, 96 + i / 32));
+        }
+        assertEquals(generados + 1, mundo.getBloquesGenerados());
+    }
+
+    @Test
+    public void testCambios_sobrevivenCompactados() {
+        ChunkStore mundo = new ChunkStore(5L, 2);
+        int n = Laberinto.DIR.N.bit;
+        int e = Laberinto.DIR.E.bit;
+        int antes = mundo.valor(40, 40);
+        // the same cell twice, plus a consumed cell in the same chunk
+        mundo.abrir(40, 40, n);
+        mundo.abrir(40, 40, e);
+        mundo.consumir(41, 42);
+        assertNull(mundo.consumidas(5, 5));
+        for (int c = 1; c <= 6; c++) {
+            mundo.valor(c * 500, c * 500);
+        }
+        assertEquals(antes | n | e, mundo.valor(40, 40));
+        long[] marcas = mundo.consumidas(1, 1);
+        int celda = (42 - 32) * ChunkStore.TAMANIO + (41 - 32);
+        assertNotNull(marcas);
+        assertEquals(1L << celda, marcas[celda >> 6]);
+        assertEquals(1, java.util.Arrays.stream(marcas).filter(m -> m != 0).count());
+    }
+
+    @Test
+    public void testBloques_conectadosYSimetricos() {
+        ChunkStore mundo = new ChunkStore(-3L);
+        int lado = 3 * ChunkStore.TAMANIO;
+        int x0 = -ChunkStore.TAMANIO;
+        int y0 = -ChunkStore.TAMANIO;
+        // every passage must be open from both sides, also across chunk borders
+        for (int y = y0; y < y0 + lado; y++) {
+            for (int x = x0; x < x0 + lado; x++) {
+                for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                    boolean ida = (mundo.valor(x, y) & d.bit) != 0;
+                    boolean vuelta = (mundo.valor(x + d.direccionX, y + d.direccionY) & d.opuesto().bit) != 0;
+                    assertEquals(ida, vuelta);
+                }
+            }
+        }
+        // and a 3x3 block of chunks must be fully reachable from its centre
+        Set<Long> vistas = new HashSet<>();
+        ArrayDeque<int[]> cola = new ArrayDeque<>();
+        cola.add(new int[]{0, 0});
+        vistas.add(ChunkStore.clave(0, 0));
+        while (!cola.isEmpty()) {
+            int[] c = cola.poll();
+            for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                int nx = c[0] + d.direccionX;
+                int ny = c[1] + d.direccionY;
+                if (nx < x0 || ny < y0 || nx >= x0 + lado || ny >= y0 + lado) continue;
+                if ((mundo.valor(c[0], c[1]) & d.bit) != 0 && vistas.add(ChunkStore.clave(nx, ny))) {
+                    cola.add(new int[]{nx, ny});
+                }
+            }
+        }
+        assertEquals(lado * lado, vistas.size());
+    }
+}
@@ -0,0 +1,59 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DStarLiteTest {
+
+    @Test
+    public void testReparacion_igualQueBusquedaCompleta() {
+        Laberinto lab = new Laberinto(60, 45, 0, new BacktrackerGenerator(), 17L);
+        PackedGrid g = lab.getGrid();
+        int ancho = g.getAncho();
+        int objetivo = g.indice(59, 44);
+        int jugador = 0;
+        DStarLite plan = new DStarLite(g, objetivo, jugador);
+        // a plain BFS over the whole grid as reference
+        FlowField referencia = new FlowField(64);
+        SplittableRandom rnd = new SplittableRandom(2);
+        for (int turno = 0; turno < 300; turno++) {
+            // walk one random open step, and every few turns blast a closed wall somewhere
+            int m = g.valor(jugador);
+            Laberinto.DIR d = Laberinto.DIR.values()[rnd.nextInt(4)];
+            if ((m & d.bit) != 0) {
+                jugador += d.direccionY * ancho + d.direccionX;
+                plan.moverInicio(jugador);
+            }
+            if (turno % 7 == 0) {
+                int x = rnd.nextInt(1, g.getAncho() - 1);
+                int y = rnd.nextInt(1, g.getAlto() - 1);
+                Laberinto.DIR pared = Laberinto.DIR.values()[rnd.nextInt(4)];
+                if ((g.valor(x, y) & pared.bit) == 0) {
+                    g.abrir(x, y, pared.bit);
+                    g.abrir(x + pared.direccionX, y + pared.direccionY, pared.opuesto().bit);
+                    plan.paredAbierta(g.indice(x, y), g.indice(x + pared.direccionX, y + pared.direccionY));
+                }
+            }
+            int[] camino = plan.camino();
+            referencia.calcular(g, objetivo % ancho, objetivo / ancho);
+            assertEquals(referencia.distancia(jugador % ancho, jugador / ancho) + 1, camino.length);
+            assertEquals(jugador, camino[0]);
+            assertEquals(objetivo, camino[camino.length - 1]);
+        }
+    }
+
+    @Test
+    public void testPista_llaveLuegoPuerta() {
+        Laberinto lab = new Laberinto(30, 40, 0, new PrimGenerator(), 8L);
+        int[] pista = lab.calcularPista();
+        MazeMetrics m = lab.getMetricas();
+        // the hint is start -> key -> door, sharing the key cell
+        assertEquals(m.getInicioALlave() + m.getLlaveAPuerta() + 1, pista.length);
+        assertEquals(0, pista[0]);
+        char fin = lab.getCellChar(pista[pista.length - 1] % lab.getWidth(), pista[pista.length - 1] / lab.getWidth());
+        assertEquals('X', fin);
+    }
+}
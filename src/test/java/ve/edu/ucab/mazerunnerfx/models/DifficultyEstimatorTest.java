@@ -0,0 +1,37 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DifficultyEstimatorTest {
+
+    @Test
+    public void testEstimar_reproducibleYCoherente() {
+        DifficultyEstimator.Estimacion a = DifficultyEstimator.estimar(Dificultad.FACIL, DensidadEntidades.DEFECTO, 40, AutoPlayer::seguirCamino);
+        DifficultyEstimator.Estimacion b = DifficultyEstimator.estimar(Dificultad.FACIL, DensidadEntidades.DEFECTO, 40, AutoPlayer::seguirCamino);
+        assertEquals(a.toString(), b.toString());
+        double total = 0;
+        for (AutoPlayer.Desenlace d : AutoPlayer.Desenlace.values()) total += a.tasa(d);
+        assertEquals(1.0, total, 1e-9);
+        assertTrue(a.percentilTurnos(10) <= a.percentilTurnos(50));
+        assertTrue(a.percentilTurnos(50) <= a.percentilTurnos(90));
+        assertTrue(a.percentilPuntos(10) <= a.percentilPuntos(90));
+    }
+
+    @Test
+    public void testDensidad_sinTrampasNiEnergias() {
+        DensidadEntidades sin = new DensidadEntidades(10, 0, 0, 10);
+        Laberinto lab = Dificultad.INTERMEDIO.crearCandidato(3, sin);
+        for (Entidad e : lab.getEntidadesSnapshot()) {
+            assertFalse(e instanceof Trampa || e instanceof Energia);
+        }
+        // the default density keeps the game's rule of one trap every 5 rows
+        Laberinto normal = Dificultad.INTERMEDIO.crearCandidato(3);
+        int trampas = 0;
+        for (Entidad e : normal.getEntidadesSnapshot()) {
+            if (e instanceof Trampa) trampas++;
+        }
+        assertEquals(normal.getHeight() / 5, trampas);
+    }
+}
@@ -0,0 +1,80 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceOracleTest {
+
+    @Test
+    public void testDistancias_igualQueBfs() {
+        Laberinto lab = new Laberinto(50, 40, 0, new WilsonGenerator(), 31L);
+        PackedGrid g = lab.getGrid();
+        DistanceOracle oraculo = new DistanceOracle(g);
+        assertEquals(0, oraculo.getAtajos());
+        // a plain BFS over the whole grid as reference
+        FlowField referencia = new FlowField(64);
+        int ancho = g.getAncho();
+        SplittableRandom rnd = new SplittableRandom(4);
+        int total = g.getAncho() * g.getAlto();
+        for (int ronda = 0; ronda < 4; ronda++) {
+            for (int i = 0; i < 60; i++) {
+                int a = rnd.nextInt(total);
+                int b = rnd.nextInt(total);
+                int d = oraculo.distancia(a, b);
+                referencia.calcular(g, b % ancho, b / ancho);
+                assertEquals(referencia.distancia(a % ancho, a / ancho), d);
+                // following the next-step answers reaches b in exactly d steps
+                int c = a;
+                for (int paso = 0; paso < d; paso++) {
+                    c = oraculo.siguiente(c, b);
+                    assertTrue(c >= 0);
+                }
+                assertEquals(b, c);
+            }
+            // blast a few interior walls and tell the oracle
+            for (int i = 0; i < 5; i++) {
+                int x = rnd.nextInt(1, g.getAncho() - 1);
+                int y = rnd.nextInt(1, g.getAlto() - 1);
+                Laberinto.DIR pared = Laberinto.DIR.values()[rnd.nextInt(4)];
+                if ((g.valor(x, y) & pared.bit) != 0) continue;
+                g.abrir(x, y, pared.bit);
+                g.abrir(x + pared.direccionX, y + pared.direccionY, pared.opuesto().bit);
+                oraculo.abrirPasaje(g.indice(x, y), g.indice(x + pared.direccionX, y + pared.direccionY));
+            }
+        }
+        assertTrue(oraculo.getAtajos() > 0);
+        // an oracle built from scratch sees the same shortcuts
+        DistanceOracle nuevo = new DistanceOracle(g);
+        assertEquals(oraculo.getAtajos(), nuevo.getAtajos());
+        assertEquals(oraculo.distancia(0, total - 1), nuevo.distancia(0, total - 1));
+    }
+
+    @Test
+    public void testAtajos_sinCupoNoLanzan() {
+        Laberinto lab = new Laberinto(60, 60, 0, new BacktrackerGenerator(), 5L);
+        PackedGrid g = lab.getGrid();
+        DistanceOracle oraculo = lab.getOraculo();
+        assertNotNull(oraculo);
+        SplittableRandom rnd = new SplittableRandom(6);
+        boolean lleno = false;
+        for (int i = 0; i < 5000 && !lleno; i++) {
+            int x = rnd.nextInt(1, g.getAncho() - 1);
+            int y = rnd.nextInt(1, g.getAlto() - 1);
+            Laberinto.DIR pared = Laberinto.DIR.values()[rnd.nextInt(4)];
+            if ((g.valor(x, y) & pared.bit) != 0) continue;
+            g.abrir(x, y, pared.bit);
+            g.abrir(x + pared.direccionX, y + pared.direccionY, pared.opuesto().bit);
+            lleno = !oraculo.abrirPasaje(g.indice(x, y), g.indice(x + pared.direccionX, y + pared.direccionY));
+        }
+        assertTrue(lleno);
+        // the maze gives up its oracle instead of failing; the bot falls back to the junction graph
+        assertNull(lab.getOraculo());
+        assertNotNull(lab.getGrafoCruces());
+        lab.setEventos(GameEventSink.NINGUNO);
+        AutoPlayer.Resultado r = new AutoPlayer(AutoPlayer.seguirCamino(), 100_000, false).jugar(lab);
+        assertNotEquals(AutoPlayer.Desenlace.AGOTADO, r.getDesenlace());
+    }
+}
@@ -0,0 +1,90 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityStoreTest {
+
+    @Test
+    public void testIndice_igualQueReferencia() {
+        EntityStore almacen = new EntityStore();
+        List<Entidad> vivas = new ArrayList<>();
+        SplittableRandom rnd = new SplittableRandom(9);
+        for (int ronda = 0; ronda < 5000; ronda++) {
+            int op = rnd.nextInt(10);
+            if (op < 4 || vivas.isEmpty()) {
+                Entidad e = rnd.nextBoolean() ? new Enemigo(rnd.nextBoolean()) : new Cristal();
+                e.setPosition(rnd.nextInt(-6, 6), rnd.nextInt(-6, 6));
+                almacen.agregar(e);
+                vivas.add(e);
+            } else if (op < 6) {
+                Entidad e = vivas.remove(rnd.nextInt(vivas.size()));
+                int x = e.getPosX();
+                assertTrue(almacen.quitar(e));
+                // a removed entity keeps its last position
+                assertEquals(x, e.getPosX());
+            } else {
+                vivas.get(rnd.nextInt(vivas.size())).setPosition(rnd.nextInt(-6, 6), rnd.nextInt(-6, 6));
+            }
+        }
+        assertEquals(vivas.size(), almacen.cantidad());
+        // insertion order survives holes and compaction
+        Entidad[] orden = almacen.snapshot();
+        for (int i = 1; i < orden.length; i++) {
+            assertTrue(orden[i - 1].id < orden[i].id);
+        }
+        Map<Long, Set<Entidad>> porCelda = new HashMap<>();
+        for (Entidad e : vivas) {
+            porCelda.computeIfAbsent(((long) e.getPosX() << 32) | (e.getPosY() & 0xFFFFFFFFL), k -> new HashSet<>()).add(e);
+        }
+        for (int cx = -6; cx < 6; cx++) {
+            for (int cy = -6; cy < 6; cy++) {
+                Set<Entidad> esperadas = porCelda.getOrDefault(((long) cx << 32) | (cy & 0xFFFFFFFFL), Set.of());
+                Set<Entidad> encontradas = new HashSet<>();
+                for (int id = almacen.primeraEn(cx, cy); id >= 0; id = almacen.siguienteEnCelda(id)) {
+                    assertTrue(encontradas.add(almacen.objeto(id)));
+                    assertEquals(cx, almacen.x(id));
+                    assertEquals(EntityStore.tipoDe(almacen.objeto(id)), almacen.tipo(id));
+                }
+                assertEquals(esperadas, encontradas, "celda " + cx + "," + cy);
+                assertEquals(esperadas.size(), almacen.contarEn(cx, cy));
+            }
+        }
+    }
+
+    @Test
+    public void testCelda_multiconjunto() {
+        EntityStore almacen = new EntityStore();
+        Celda celda = new Celda(almacen, 3, 2);
+        Cristal[] cristales = {new Cristal(), new Cristal(), new Cristal()};
+        for (Cristal c : cristales) {
+            celda.addEntidad(c);
+        }
+        // same kind, same cell: three entities, not one
+        assertEquals(3, celda.cantidadEntidades());
+        assertEquals('3', celda.obtenerAscii());
+        Jugador jugador = new Jugador("a@b.c", "x");
+        celda.addEntidad(jugador);
+        assertEquals('@', celda.obtenerAscii());
+        // the player shares the index but is not part of the snapshot
+        assertEquals(3, almacen.snapshot().length);
+
+        celda.removeEntidad(cristales[1]);
+        assertEquals(3, celda.cantidadEntidades());
+        List<Entidad> contenido = celda.obtenerContenido();
+        assertTrue(contenido.contains(cristales[0]) && contenido.contains(cristales[2]) && contenido.contains(jugador));
+        assertFalse(contenido.contains(cristales[1]));
+        celda.removeEntidad(jugador);
+        assertEquals('2', celda.obtenerAscii());
+        assertEquals(' ', new Celda(almacen, 0, 0).obtenerAscii());
+    }
+}
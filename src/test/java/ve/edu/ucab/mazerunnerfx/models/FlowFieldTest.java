@@ -0,0 +1,50 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlowFieldTest {
+
+    @Test
+    public void testBajada_llegaAlObjetivoEnDistanciaPasos() {
+        Laberinto lab = new Laberinto(70, 50, 0, new KruskalGenerator(), 3L);
+        FlowField campo = new FlowField(128);
+        campo.calcular(lab.getGrid(), 35, 20);
+        for (int y = 0; y < lab.getHeight(); y++) {
+            for (int x = 0; x < lab.getWidth(); x++) {
+                int d = campo.distancia(x, y);
+                assertTrue(d >= 0, "a perfect maze reaches every cell");
+                int cx = x, cy = y;
+                for (int paso = 0; paso < d; paso++) {
+                    Laberinto.DIR dir = campo.bajada(cx, cy);
+                    assertNotNull(dir);
+                    cx += dir.direccionX;
+                    cy += dir.direccionY;
+                }
+                assertEquals(0, campo.distancia(cx, cy));
+                assertNull(campo.bajada(cx, cy));
+            }
+        }
+        // cells outside the window have no slope
+        FlowField chico = new FlowField(3);
+        chico.calcular(lab.getGrid(), 35, 20);
+        assertEquals(FlowField.SIN_CAMINO, chico.distancia(0, 0));
+        assertNull(chico.bajada(0, 0));
+    }
+
+    @Test
+    public void testPersecucion_enemigoAlcanzaAlJugador() {
+        Laberinto lab = new Laberinto(6, 5, 0, new BacktrackerGenerator(), 11L);
+        Enemigo enemigo = lab.agregarEnemigo(5, 4, true);
+        int d = lab.getCampoPersecucion().distancia(5, 4);
+        for (int i = 0; i < d; i++) {
+            lab.stepEntities();
+        }
+        assertEquals(0, enemigo.getPosX());
+        assertEquals(0, enemigo.getPosY());
+        // once on the player it stays there
+        lab.stepEntities();
+        assertEquals(0, enemigo.getPosX() + enemigo.getPosY());
+    }
+}
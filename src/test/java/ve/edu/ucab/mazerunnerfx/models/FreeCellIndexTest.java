@@ -0,0 +1,30 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeCellIndexTest {
+
+    @Test
+    public void testTodas_cadaCeldaUnaVezSalvoLaExcluida() {
+        int ancho = 37;
+        int alto = 23;
+        int excluida = 100;
+        FreeCellIndex indice = FreeCellIndex.todas(ancho, alto, excluida);
+        assertEquals(ancho * alto - 1, indice.restantes());
+        boolean[] vistas = new boolean[ancho * alto];
+        SplittableRandom rng = new SplittableRandom(4);
+        for (int celda = indice.tomar(rng); celda >= 0; celda = indice.tomar(rng)) {
+            assertNotEquals(excluida, celda);
+            assertFalse(vistas[celda], "celda repetida " + celda);
+            vistas[celda] = true;
+        }
+        for (int i = 0; i < vistas.length; i++) {
+            assertEquals(i != excluida, vistas[i], "celda " + i);
+        }
+        assertEquals(0, indice.restantes());
+    }
+}
@@ -0,0 +1,30 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEventSinkTest {
+
+    @Test
+    public void testEventos_lleganAlReceptor() {
+        Laberinto lab = new Laberinto(12, 15, 0, new PrimGenerator(), 8L);
+        List<String> recibidos = new ArrayList<>();
+        lab.setEventos((evento, valor) -> recibidos.add(evento + ":" + valor));
+        new Trampa().interact(lab.jugador);
+        new Energia().interact(lab.jugador);
+        new Puerta().interact(lab.jugador);
+        lab.jugador.recibirPuntos(50);
+        assertEquals(List.of("TRAMPA:1", "ENERGIA:2", "VIDA_RECUPERADA:10", "PUERTA_CERRADA:0", "PUNTOS:50"), recibidos);
+
+        // a player set later gets the lab's sink too
+        Jugador otro = new Jugador("otro@example.com", "clave");
+        lab.setJugador(otro);
+        new Enemigo().interact(otro);
+        assertEquals("ENEMIGO:2", recibidos.get(recibidos.size() - 1));
+        assertEquals("¡Has caído en una trampa! Pierdes 2 punto de vida.", GameEvent.ENEMIGO.mensaje(2));
+    }
+}
@@ -0,0 +1,68 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InteractionTableTest {
+
+    @Test
+    public void testInteracciones_consumenSegunLaClase() {
+        Laberinto lab = new Laberinto(12, 15, 0, new PrimGenerator(), 8L);
+        lab.setEventos(GameEventSink.NINGUNO);
+        Laberinto.DIR dir = pasoAbierto(lab);
+        Celda destino = vaciar(lab, dir);
+        Cristal c1 = new Cristal();
+        Cristal c2 = new Cristal();
+        Trampa trampa = new Trampa();
+        destino.addEntidad(c1);
+        destino.addEntidad(c2);
+        destino.addEntidad(trampa);
+
+        assertTrue(lab.moverJugador(dir));
+        // both crystals count and leave the maze; the trap stays
+        assertEquals(100, lab.jugador.getPuntos());
+        assertEquals(2, destino.cantidadEntidades());
+        assertTrue(destino.obtenerContenido().containsAll(List.of(trampa, lab.jugador)));
+        assertNull(c1.almacen);
+        assertNull(c2.almacen);
+        assertTrue(trampa.almacen != null);
+    }
+
+    @Test
+    public void testInteracciones_efectoRegistrado() {
+        Laberinto lab = new Laberinto(12, 15, 0, new PrimGenerator(), 8L);
+        lab.setEventos(GameEventSink.NINGUNO);
+        List<Entidad> tocadas = new ArrayList<>();
+        lab.getInteracciones().registrar(EntityStore.TRAMPA, (e, j) -> tocadas.add(e));
+        Laberinto.DIR dir = pasoAbierto(lab);
+        Celda destino = vaciar(lab, dir);
+        Trampa trampa = new Trampa();
+        destino.addEntidad(trampa);
+        int vida = lab.jugador.getVidaActual();
+
+        assertTrue(lab.moverJugador(dir));
+        assertEquals(List.of(trampa), tocadas);
+        assertEquals(vida, lab.jugador.getVidaActual());
+    }
+
+    private static Laberinto.DIR pasoAbierto(Laberinto lab) {
+        for (Laberinto.DIR d : Laberinto.DIR.values()) {
+            if ((lab.getCellValue(0, 0) & d.bit) != 0) return d;
+        }
+        throw new AssertionError("la celda inicial no tiene salida");
+    }
+
+    // Empties the cell next to the start in direction dir
+    private static Celda vaciar(Laberinto lab, Laberinto.DIR dir) {
+        Celda c = lab.getCelda(dir.direccionX, dir.direccionY);
+        for (Entidad e : c.obtenerContenido()) {
+            c.removeEntidad(e);
+        }
+        assertEquals(0, c.cantidadEntidades());
+        return c;
+    }
+}
@@ -0,0 +1,54 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JunctionGraphTest {
+
+    @Test
+    public void testCaminos_igualQueAEstrella() {
+        Laberinto lab = new Laberinto(60, 50, 0, new BacktrackerGenerator(), 13L);
+        PackedGrid g = lab.getGrid();
+        int total = g.getAncho() * g.getAlto();
+        JunctionGraph grafo = new JunctionGraph(g, g.indice(30, 25));
+        // long corridors: far fewer nodes than cells
+        assertTrue(grafo.getNodos() * 3 < total, "nodos: " + grafo.getNodos());
+        PathFinder referencia = new PathFinder();
+        SplittableRandom rnd = new SplittableRandom(6);
+        for (int ronda = 0; ronda < 4; ronda++) {
+            for (int i = 0; i < 60; i++) {
+                int a = rnd.nextInt(total);
+                int b = rnd.nextInt(total);
+                int[] optimo = referencia.aEstrella(g, a, b);
+                int[] camino = grafo.camino(a, b);
+                assertEquals(optimo.length, camino.length);
+                assertEquals(a, camino[0]);
+                assertEquals(b, camino[camino.length - 1]);
+                for (int j = 1; j < camino.length; j++) {
+                    assertTrue(abierto(g, camino[j - 1], camino[j]), "paso cerrado en " + j);
+                }
+            }
+            // blast a few interior walls and update the graph locally
+            for (int i = 0; i < 6; i++) {
+                int x = rnd.nextInt(1, g.getAncho() - 1);
+                int y = rnd.nextInt(1, g.getAlto() - 1);
+                Laberinto.DIR pared = Laberinto.DIR.values()[rnd.nextInt(4)];
+                if ((g.valor(x, y) & pared.bit) != 0) continue;
+                g.abrir(x, y, pared.bit);
+                g.abrir(x + pared.direccionX, y + pared.direccionY, pared.opuesto().bit);
+                grafo.abrirPasaje(g.indice(x, y), g.indice(x + pared.direccionX, y + pared.direccionY));
+            }
+        }
+    }
+
+    private static boolean abierto(PackedGrid g, int a, int b) {
+        int ancho = g.getAncho();
+        for (Laberinto.DIR d : Laberinto.DIR.values()) {
+            if (b == a + d.direccionY * ancho + d.direccionX && (g.valor(a) & d.bit) != 0) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,172 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaberintoTest {
+
+    @Test
+    public void testInfinito_ventanaPlanaYConectada() {
+        Laberinto lab = Laberinto.infinito(24, 16, 13L);
+        lab.setEventos(GameEventSink.NINGUNO);
+        int ancho = lab.getWidth();
+        int alto = lab.getHeight();
+        while (lab.getProfundidad() < 3000) {
+            // clear the way so traps never end the walk
+            for (Entidad e : lab.getEntidadesSnapshot()) {
+                lab.removeEntidadGlobal(e);
+            }
+            int[] previo = caminoAlFondo(lab);
+            int x = lab.jugador.getPosX();
+            int y = lab.jugador.getPosY();
+            assertNotNull(previo, "el fondo de la ventana no es alcanzable a profundidad " + lab.getProfundidad());
+            // every part of the window still leads down (the rows below join them), none is closed off
+            assertEquals(0, celdasSinSalidaAbajo(lab), "región cerrada a profundidad " + lab.getProfundidad());
+            // first step of the path towards the bottom row
+            int c = previo[ancho * alto];
+            while (previo[c] != y * ancho + x) c = previo[c];
+            Laberinto.DIR paso = null;
+            for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                if (x + d.direccionX == c % ancho && y + d.direccionY == c / ancho) paso = d;
+            }
+            assertTrue(lab.movimientoEntidad(lab.jugador, paso));
+            // the window only ever holds its own rows: nothing grows with the depth
+            assertEquals(ancho, lab.getWidth());
+            assertEquals(alto, lab.getHeight());
+            assertTrue(lab.jugador.getPosY() <= alto / 2);
+            assertTrue(lab.getEntidades().cantidad() <= ancho * alto);
+            // rows of the store are reused once dropped entities leave holes
+            assertTrue(lab.getEntidades().limite() <= 4 * ancho * alto, "el almacén de entidades crece");
+        }
+    }
+
+    // Cells of the window that cannot reach its bottom row
+    private static int celdasSinSalidaAbajo(Laberinto lab) {
+        int ancho = lab.getWidth();
+        int alto = lab.getHeight();
+        boolean[] vistas = new boolean[ancho * alto];
+        java.util.ArrayDeque<Integer> cola = new java.util.ArrayDeque<>();
+        for (int x = 0; x < ancho; x++) {
+            vistas[(alto - 1) * ancho + x] = true;
+            cola.add((alto - 1) * ancho + x);
+        }
+        int alcanzadas = 0;
+        while (!cola.isEmpty()) {
+            int c = cola.poll();
+            alcanzadas++;
+            for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                int nx = c % ancho + d.direccionX;
+                int ny = c / ancho + d.direccionY;
+                if (nx < 0 || ny < 0 || nx >= ancho || ny >= alto || (lab.getCellValue(c % ancho, c / ancho) & d.bit) == 0) continue;
+                if (!vistas[ny * ancho + nx]) {
+                    vistas[ny * ancho + nx] = true;
+                    cola.add(ny * ancho + nx);
+                }
+            }
+        }
+        return ancho * alto - alcanzadas;
+    }
+
+    // BFS over the window from the player: previous cell of each cell (-1 unseen), then one reached
+    // cell of the bottom row; null if the bottom is out of reach
+    private static int[] caminoAlFondo(Laberinto lab) {
+        int ancho = lab.getWidth();
+        int alto = lab.getHeight();
+        int[] previo = new int[ancho * alto + 1];
+        java.util.Arrays.fill(previo, -1);
+        int inicio = lab.jugador.getPosY() * ancho + lab.jugador.getPosX();
+        int[] cola = new int[ancho * alto];
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = inicio;
+        previo[inicio] = inicio;
+        int fondo = -1;
+        while (cabeza < fin) {
+            int c = cola[cabeza++];
+            int x = c % ancho;
+            int y = c / ancho;
+            if (y == alto - 1 && fondo < 0) fondo = c;
+            for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                int nx = x + d.direccionX;
+                int ny = y + d.direccionY;
+                if (nx < 0 || ny < 0 || nx >= ancho || ny >= alto || (lab.getCellValue(x, y) & d.bit) == 0) continue;
+                int v = ny * ancho + nx;
+                if (previo[v] < 0) {
+                    previo[v] = c;
+                    cola[fin++] = v;
+                }
+            }
+        }
+        if (fondo < 0) return null;
+        previo[ancho * alto] = fondo;
+        return previo;
+    }
+
+    @Test
+    public void testSemilla_reproducible() {
+        Laberinto a = new Laberinto(31, 47, 5, new KruskalGenerator(), 42L);
+        Laberinto b = new Laberinto(31, 47, 5, new KruskalGenerator(), 42L);
+        assertEquals(42L, a.getSemilla());
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                assertEquals(a.getCellValue(x, y), b.getCellValue(x, y));
+                assertEquals(a.getCellChar(x, y), b.getCellChar(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testColocacion_grillaLlenaNoSeBloquea() {
+        // tiny grids used to hang in the unbounded key/door sampling loops
+        for (int w = 1; w <= 3; w++) {
+            for (int h = 1; h <= 3; h++) {
+                Laberinto lab = new Laberinto(w, h, 3, new BacktrackerGenerator(), w * 10L + h);
+                assertNotNull(lab.jugador);
+            }
+        }
+        Laberinto lab = new Laberinto(12, 9, 2, new PrimGenerator(), 5L);
+        int puertas = 0;
+        for (int y = 0; y < lab.getHeight(); y++) {
+            for (int x = 0; x < lab.getWidth(); x++) {
+                if (lab.getCellChar(x, y) == 'X') {
+                    puertas++;
+                    assertTrue(x == 0 || y == 0 || x == lab.getWidth() - 1 || y == lab.getHeight() - 1);
+                }
+            }
+        }
+        assertEquals(1, puertas);
+    }
+
+    @Test
+    public void testMetricas_pasadaUnica() {
+        // 4x2: a single path 0,0 -> 3,0 -> 3,1 -> 0,1, key at (1,0) and door at (0,1)
+        PackedGrid g = new PackedGrid(4, 2);
+        int n = Laberinto.DIR.N.bit, s = Laberinto.DIR.S.bit, e = Laberinto.DIR.E.bit, w = Laberinto.DIR.W.bit;
+        g.setValor(0, 0, e);
+        g.setValor(1, 0, e | w);
+        g.setValor(2, 0, e | w);
+        g.setValor(3, 0, w | s);
+        g.setValor(3, 1, n | w);
+        g.setValor(2, 1, e | w);
+        g.setValor(1, 1, e | w);
+        g.setValor(0, 1, e);
+        MazeMetrics m = MazeAnalyzer.analizar(g, g.indice(1, 0), g.indice(0, 1));
+        assertEquals(1, m.getInicioALlave());
+        assertEquals(6, m.getLlaveAPuerta());
+        assertEquals(8, m.getCeldasAlcanzables());
+        assertEquals(2, m.getCallejones());
+        assertEquals(0, m.getCruces());
+        assertEquals(6.0, m.getLongitudMediaPasillo(), 1e-9);
+
+        // generated mazes get their metrics attached: every reachable cell is classified once
+        Laberinto lab = new Laberinto(40, 60, 0, new WilsonGenerator(), 9L);
+        MazeMetrics ml = lab.getMetricas();
+        assertEquals(40 * 60, ml.getCeldasAlcanzables());
+        assertTrue(ml.getLlaveAPuerta() > 0);
+        assertTrue(ml.getCallejones() > 0 && ml.getCruces() > 0);
+
+        // grids over the cap are not analysed on demand
+        assertNull(new Laberinto(600, 600, 0, new PrimGenerator(), 9L).getMetricas());
+    }
+}
@@ -0,0 +1,66 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MazeGeneratorTest {
+
+    private static final MazeGenerator[] GENERADORES = {
+            new BacktrackerGenerator(), new KruskalGenerator(), new PrimGenerator(),
+            new WilsonGenerator(), new SidewinderGenerator(), new EllerGenerator(),
+            new ParallelTiledGenerator(8, BacktrackerGenerator::new), new ParallelTiledGenerator(5, WilsonGenerator::new)
+    };
+
+    @Test
+    public void testGenerate_perfectMaze() {
+        for (MazeGenerator g : GENERADORES) {
+            // run twice to exercise reuse of the working arrays
+            assertPerfecto(g, 37, 23, 7);
+            assertPerfecto(g, 1, 9, 3);
+        }
+    }
+
+    @Test
+    public void testGenerate_largeGridNoStackOverflow() {
+        int w = 5000, h = 5000;
+        byte[] cells = new byte[w * h];
+        new BacktrackerGenerator().generate(cells, w, h, new SplittableRandom(1));
+        assertEquals((long) w * h - 1, contarPasajes(cells));
+    }
+
+    private static void assertPerfecto(MazeGenerator g, int w, int h, long seed) {
+        byte[] cells = new byte[w * h];
+        g.generate(cells, w, h, new SplittableRandom(seed));
+        String nombre = g.getClass().getSimpleName();
+        assertEquals(w * h - 1, contarPasajes(cells), nombre);
+        // every cell reachable from (0,0)
+        boolean[] visto = new boolean[w * h];
+        int[] cola = new int[w * h];
+        int ini = 0, fin = 0;
+        cola[fin++] = 0;
+        visto[0] = true;
+        while (ini < fin) {
+            int c = cola[ini++];
+            int cx = c % w, cy = c / w;
+            for (Laberinto.DIR d : Laberinto.DIR.values()) {
+                if ((cells[c] & d.bit) == 0) continue;
+                int n = (cy + d.direccionY) * w + (cx + d.direccionX);
+                assertNotEquals(0, cells[n] & d.opuesto().bit, nombre + ": pasaje asimétrico");
+                if (!visto[n]) {
+                    visto[n] = true;
+                    cola[fin++] = n;
+                }
+            }
+        }
+        assertEquals(w * h, fin, nombre);
+    }
+
+    private static long contarPasajes(byte[] cells) {
+        long bits = 0;
+        for (byte b : cells) bits += Integer.bitCount(b & 0x0F);
+        return bits / 2;
+    }
+}
@@ -0,0 +1,31 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MazePoolTest {
+
+    @Test
+    public void testReserva_respetaCapacidadYMemoria() throws InterruptedException {
+        // room for exactly three of the biggest tier, spread over the four tiers in order
+        long memoria = 3 * MazePool.memoriaEstimada(Dificultad.AVANZADO);
+        MazePool pool = new MazePool(2, memoria);
+        try {
+            pool.precalentar();
+            long limite = System.currentTimeMillis() + 10_000;
+            while (pool.disponibles(Dificultad.FACIL) < 2 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, pool.disponibles(Dificultad.FACIL));
+            assertTrue(pool.getMemoriaReservada() <= memoria);
+
+            Laberinto lab = pool.tomar(Dificultad.FACIL);
+            assertNotNull(lab.getMetricas());
+            assertNotNull(lab.jugador);
+            assertTrue(lab.getWidth() >= 5 && lab.getWidth() <= 15);
+        } finally {
+            pool.cerrar();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelStepperTest {
+
+    @Test
+    public void testPasoParalelo_igualQueSerial() {
+        Laberinto serial = conEnemigos();
+        Laberinto paralelo = conEnemigos();
+        paralelo.setPasoParalelo(true);
+        // enemies that walk into a wall are reported the same way in both modes
+        int[] choques = new int[2];
+        serial.setEventos((evento, valor) -> {
+            if (evento == GameEvent.ENEMIGO_CHOCO) choques[0]++;
+        });
+        paralelo.setEventos((evento, valor) -> {
+            if (evento == GameEvent.ENEMIGO_CHOCO) choques[1]++;
+        });
+        for (int paso = 0; paso < 25; paso++) {
+            serial.stepEntities();
+            paralelo.stepEntities();
+        }
+        Entidad[] a = serial.getEntidadesSnapshot();
+        Entidad[] b = paralelo.getEntidadesSnapshot();
+        assertEquals(a.length, b.length);
+        Entidad[] antes = conEnemigos().getEntidadesSnapshot();
+        int movidos = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].getPosX() != antes[i].getPosX() || a[i].getPosY() != antes[i].getPosY()) movidos++;
+            assertEquals(a[i].getPosX(), b[i].getPosX(), "x de " + i);
+            assertEquals(a[i].getPosY(), b[i].getPosY(), "y de " + i);
+            Celda ca = serial.getCelda(a[i].getPosX(), a[i].getPosY());
+            Celda cb = paralelo.getCelda(b[i].getPosX(), b[i].getPosY());
+            assertEquals(ca.cantidadEntidades(), cb.cantidadEntidades());
+            assertTrue(cb.obtenerContenido().contains(b[i]));
+        }
+        assertTrue(movidos > 1000, "movidos: " + movidos);
+        assertTrue(choques[0] > 0);
+        assertEquals(choques[0], choques[1]);
+    }
+
+    @Test
+    public void testCelda_variosEnemigos() {
+        Laberinto lab = new Laberinto(10, 12, 0, new PrimGenerator(), 2L);
+        lab.agregarEnemigo(4, 4, false);
+        lab.agregarEnemigo(4, 4, false);
+        // two enemies in the same cell are two entities, not one
+        assertEquals(2, lab.getCelda(4, 4).cantidadEntidades());
+        assertEquals('2', lab.getCellChar(4, 4));
+    }
+
+    // Same seed: same layout, entities and enemies (several bands of rows, half of them pursuing)
+    private static Laberinto conEnemigos() {
+        Laberinto lab = new Laberinto(120, 150, 0, new PrimGenerator(), 4L);
+        SplittableRandom rnd = new SplittableRandom(8);
+        for (int i = 0; i < 3000; i++) {
+            lab.agregarEnemigo(rnd.nextInt(120), rnd.nextInt(150), i % 2 == 0);
+        }
+        return lab;
+    }
+}
@@ -0,0 +1,68 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathFinderTest {
+
+    // every step must go through an open passage to an adjacent cell
+    private static void assertCaminoValido(PackedGrid g, int[] camino, int origen, int destino) {
+        assertEquals(origen, camino[0]);
+        assertEquals(destino, camino[camino.length - 1]);
+        for (int i = 1; i < camino.length; i++) {
+            int a = camino[i - 1];
+            int b = camino[i];
+            int bit = b == a - g.getAncho() ? Laberinto.DIR.N.bit
+                    : b == a + g.getAncho() ? Laberinto.DIR.S.bit
+                    : b == a + 1 ? Laberinto.DIR.E.bit
+                    : b == a - 1 ? Laberinto.DIR.W.bit : 0;
+            assertNotEquals(0, bit);
+            assertNotEquals(0, g.valor(a) & bit);
+        }
+    }
+
+    @Test
+    public void testBusquedas_coincidenEnLongitud() {
+        Laberinto lab = new Laberinto(80, 60, 10, new WilsonGenerator(), 21L);
+        PackedGrid g = lab.getGrid();
+        PathFinder pf = new PathFinder();
+        SplittableRandom rnd = new SplittableRandom(4);
+        int total = g.getAncho() * g.getAlto();
+        for (int i = 0; i < 200; i++) {
+            int o = rnd.nextInt(total);
+            int d = rnd.nextInt(total);
+            int[] a = pf.aEstrella(g, o, d);
+            int[] b = pf.bidireccional(g, o, d);
+            int[] c = pf.caminoHacia(g, o, d);
+            assertCaminoValido(g, a, o, d);
+            assertCaminoValido(g, b, o, d);
+            assertCaminoValido(g, c, o, d);
+            assertEquals(a.length, b.length);
+            assertEquals(a.length, c.length);
+        }
+    }
+
+    @Test
+    public void testCaminoHacia_reusaElAnterior() {
+        Laberinto lab = new Laberinto(70, 50, 0, new BacktrackerGenerator(), 5L);
+        PackedGrid g = lab.getGrid();
+        int ancho = g.getAncho();
+        int destino = g.indice(69, 49);
+        PathFinder pf = new PathFinder();
+        SplittableRandom rnd = new SplittableRandom(9);
+        int origen = 0;
+        for (int paso = 0; paso < 500; paso++) {
+            // wander one open step at a time, now and then jumping somewhere else
+            if (paso % 50 == 49) {
+                origen = rnd.nextInt(ancho * g.getAlto());
+            } else {
+                Laberinto.DIR d = Laberinto.DIR.values()[rnd.nextInt(4)];
+                if ((g.valor(origen) & d.bit) != 0) origen += d.direccionY * ancho + d.direccionX;
+            }
+            assertArrayEquals(new PathFinder().caminoHacia(g, origen, destino), pf.caminoHacia(g, origen, destino));
+        }
+    }
+}
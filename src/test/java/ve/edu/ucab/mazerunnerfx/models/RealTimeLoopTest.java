@@ -0,0 +1,60 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RealTimeLoopTest {
+
+    @Test
+    public void testCola_ordenYCapacidad() throws InterruptedException {
+        RealTimeLoop.ColaSpsc cola = new RealTimeLoop.ColaSpsc(8);
+        for (int i = 0; i < 8; i++) assertTrue(cola.ofrecer(i));
+        assertFalse(cola.ofrecer(8));
+        for (int i = 0; i < 8; i++) assertEquals(i, cola.tomar());
+        assertEquals(-1, cola.tomar());
+
+        // one producer thread, one consumer: every value arrives once and in order
+        int total = 20_000;
+        Thread productor = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!cola.ofrecer(i & 0x7F)) Thread.yield();
+            }
+        });
+        productor.start();
+        for (int i = 0; i < total; i++) {
+            int v;
+            while ((v = cola.tomar()) < 0) Thread.yield();
+            assertEquals(i & 0x7F, v);
+        }
+        productor.join();
+    }
+
+    @Test
+    public void testBucle_publicaInstantaneas() throws InterruptedException {
+        Laberinto lab = new Laberinto(20, 25, 0, new PrimGenerator(), 5L);
+        lab.setEventos(GameEventSink.NINGUNO);
+        for (int i = 0; i < 10; i++) lab.agregarEnemigo(10 + i % 10, 12 + i % 10, false);
+        RealTimeLoop bucle = new RealTimeLoop(lab, 200);
+        bucle.iniciar();
+        long inicio = System.nanoTime();
+        while (bucle.getInstantanea().getVersion() < 10 && System.nanoTime() - inicio < 5_000_000_000L) {
+            Thread.sleep(5);
+        }
+        // keys are applied on the simulation thread, between ticks
+        Laberinto.DIR abierta = (lab.getCellValue(0, 0) & Laberinto.DIR.E.bit) != 0 ? Laberinto.DIR.E : Laberinto.DIR.S;
+        assertTrue(bucle.enviar(abierta));
+        Thread.sleep(50);
+        bucle.detener();
+        assertFalse(bucle.isActivo());
+        RealTimeLoop.Instantanea s = bucle.getInstantanea();
+        assertTrue(s.getVersion() >= 10, "versión " + s.getVersion());
+        // the last snapshot matches the model once the thread is stopped
+        for (int y = 0; y < s.getAlto(); y++) {
+            for (int x = 0; x < s.getAncho(); x++) {
+                assertEquals(lab.getCellChar(x, y), s.celda(x, y));
+            }
+        }
+        assertEquals('@', s.celda(lab.jugador.getPosX(), lab.jugador.getPosY()));
+    }
+}
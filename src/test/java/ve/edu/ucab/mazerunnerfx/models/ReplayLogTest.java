@@ -0,0 +1,99 @@
+package ve.edu.ucab.mazerunnerfx.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayLogTest {
+
+    @Test
+    public void testIr_igualQueJugarDeCorrido() {
+        Laberinto lab = Dificultad.INTERMEDIO.crearCandidato(5L);
+        ReplayLog registro = new ReplayLog(lab, 8);
+        List<Long> huellas = jugar(lab, registro, 200);
+        int turnos = registro.getTurnos();
+        assertEquals(huellas.size() - 1, turnos);
+
+        // backwards, forwards, across and inside snapshot intervals
+        SplittableRandom rng = new SplittableRandom(3);
+        for (int i = 0; i < 40; i++) {
+            int t = rng.nextInt(turnos + 1);
+            registro.ir(lab, t);
+            assertEquals(huellas.get(t), lab.huella(), "turno " + t);
+        }
+        registro.ir(lab, turnos);
+        assertEquals(huellas.get(turnos), lab.huella());
+        assertEquals(turnos, registro.getTurnos());
+    }
+
+    @Test
+    public void testDeshacer_vuelveAlTurnoAnterior() {
+        Laberinto lab = Dificultad.INTERMEDIO.crearCandidato(9L);
+        ReplayLog registro = new ReplayLog(lab, 4);
+        List<Long> huellas = jugar(lab, registro, 30);
+        int turnos = registro.getTurnos();
+
+        assertTrue(registro.deshacer(lab));
+        assertTrue(registro.deshacer(lab));
+        assertEquals(turnos - 2, registro.getTurnos());
+        assertEquals(huellas.get(turnos - 2), lab.huella());
+        assertEquals(turnos - 2, lab.getTurno());
+
+        // playing on after undoing records the new branch
+        lab.setRegistro(registro);
+        Laberinto.DIR dir = pasoAbierto(lab);
+        assertTrue(lab.avanzarTurno(dir));
+        assertEquals(turnos - 1, registro.getTurnos());
+        assertEquals(dir, registro.paso(turnos - 2));
+    }
+
+    @Test
+    public void testGuardar_reproduceDesdeLaSemilla(@TempDir Path dir) throws Exception {
+        Laberinto lab = Dificultad.FACIL.crearCandidato(11L);
+        lab.setJugador(new Jugador("replay@example.com", "x"));
+        ReplayLog registro = new ReplayLog(lab);
+        assertTrue(registro.isReproducible());
+        jugar(lab, registro, 150);
+        Path archivo = dir.resolve(registro.nombreArchivo());
+        registro.guardar(archivo, lab);
+        // header plus 2 bits per move
+        assertTrue(Files.size(archivo) <= 64 + (registro.getTurnos() + 3) / 4);
+
+        ReplayLog leido = ReplayLog.leer(archivo);
+        assertEquals(registro.getTurnos(), leido.getTurnos());
+        assertEquals(lab.huella(), leido.getHuella());
+        assertNull(ReplayCheck.verificar(leido));
+    }
+
+    // Plays up to n turns with random open moves; returns the checksum after each turn (index 0 = start)
+    private static List<Long> jugar(Laberinto lab, ReplayLog registro, int n) {
+        lab.setEventos(GameEventSink.NINGUNO);
+        lab.setRegistro(registro);
+        List<Long> huellas = new ArrayList<>();
+        huellas.add(lab.huella());
+        SplittableRandom rng = new SplittableRandom(lab.getSemilla());
+        Laberinto.DIR[] dirs = Laberinto.DIR.values();
+        for (int i = 0; i < n * 4 && huellas.size() <= n; i++) {
+            if (!lab.jugador.taVivo() || lab.jugador.isEscapado()) break;
+            if (lab.avanzarTurno(dirs[rng.nextInt(4)])) huellas.add(lab.huella());
+        }
+        lab.setRegistro(null);
+        return huellas;
+    }
+
+    private static Laberinto.DIR pasoAbierto(Laberinto lab) {
+        int x = lab.jugador.getPosX();
+        int y = lab.jugador.getPosY();
+        for (Laberinto.DIR d : Laberinto.DIR.values()) {
+            if ((lab.getCellValue(x, y) & d.bit) != 0) return d;
+        }
+        throw new AssertionError("la celda del jugador no tiene salida");
+    }
+}